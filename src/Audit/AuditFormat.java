@@ -0,0 +1,13 @@
+package Audit;
+
+/**
+ * On-disk format of the audit trail.
+ *
+ * - TEXT: one AuditLogEntry.toString() line per entry in audit_&lt;date&gt;.log
+ * - BINARY: fixed-size records in memory-mapped audit_&lt;date&gt;.bin segments; smaller,
+ *   cheaper to write and fast to scan with AuditLogReader
+ */
+public enum AuditFormat {
+    TEXT,
+    BINARY
+}
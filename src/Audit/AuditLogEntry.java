@@ -39,21 +39,26 @@ public class AuditLogEntry {
         return operationType;
     }
 
+    public String getUserAction() {
+        return userAction;
+    }
 
     public long getExecutionTimeMs() {
         return executionTimeMs;
     }
 
+    public boolean isSuccess() {
+        return success;
+    }
+
+    // Concatenation rather than String.format: this runs once per written text line
     @Override
     public String toString() {
-        return String.format(
-                "%s | Thread=%s | Operation=%s | Action=%s | Time=%dms | Success=%s",
-                timestampUTC,
-                threadId,
-                operationType,
-                userAction,
-                executionTimeMs,
-                success
-        );
+        return timestampUTC
+                + " | Thread=" + threadId
+                + " | Operation=" + operationType
+                + " | Action=" + userAction
+                + " | Time=" + executionTimeMs + "ms"
+                + " | Success=" + success;
     }
 }
@@ -0,0 +1,162 @@
+package Audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static Audit.BinaryAuditSink.*;
+
+/**
+ * Reads a binary audit segment (AuditFormat.BINARY) through a read-only memory mapping.
+ *
+ * - Only committed records are visible, so a segment can be read while it is written
+ * - Per-record accessors decode one field; find() compares fixed-size fields only and
+ *   never decodes a string
+ * - writeText() produces the same lines as the text format
+ *
+ * Usage: java Audit.AuditLogReader &lt;audit_date.bin&gt; [OPERATION_TYPE]
+ */
+public final class AuditLogReader {
+
+    private static final OperationType[] OPERATIONS = OperationType.values();
+
+    private final MappedByteBuffer segment;
+    private final int recordCount;
+
+    /**
+     * @throws IOException if the file cannot be read or is not a binary audit segment
+     */
+    public AuditLogReader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != SEGMENT_BYTES) {
+                throw new IOException(file + " is not a binary audit segment");
+            }
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, SEGMENT_BYTES);
+        }
+        if (segment.getInt(0) != MAGIC || segment.getShort(4) != FORMAT_VERSION
+                || segment.getShort(6) != RECORD_BYTES || segment.getInt(8) != RECORD_CAPACITY
+                || segment.getInt(12) != ARENA_CAPACITY) {
+            throw new IOException(file + " is not a binary audit segment");
+        }
+        recordCount = segment.getInt(RECORD_COUNT_OFFSET);
+    }
+
+    /** Records committed when the segment was opened. */
+    public int size() {
+        return recordCount;
+    }
+
+    public Instant timestamp(int index) {
+        long nanos = segment.getLong(record(index) + TIMESTAMP);
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+
+    public String threadId(int index) {
+        return string(segment.getInt(record(index) + THREAD_OFFSET));
+    }
+
+    public OperationType operation(int index) {
+        return OPERATIONS[segment.getShort(record(index) + OPERATION)];
+    }
+
+    public String userAction(int index) {
+        return string(segment.getInt(record(index) + ACTION_OFFSET));
+    }
+
+    public long executionTimeMs(int index) {
+        return segment.getLong(record(index) + EXECUTION_TIME);
+    }
+
+    public boolean success(int index) {
+        return segment.get(record(index) + SUCCESS) != 0;
+    }
+
+    public AuditLogEntry entry(int index) {
+        return new AuditLogEntry(timestamp(index), threadId(index), operation(index),
+                userAction(index), executionTimeMs(index), success(index));
+    }
+
+    /**
+     * Indexes of the records matching every given condition; null means "any".
+     * Time Complexity: O(records), reading 19 bytes of each
+     *
+     * @param from inclusive
+     * @param to   exclusive
+     */
+    public int[] find(OperationType operation, Instant from, Instant to, Boolean success) {
+        long fromNanos = from == null ? Long.MIN_VALUE : toNanos(from);
+        long toNanos = to == null ? Long.MAX_VALUE : toNanos(to);
+        int[] matches = new int[16];
+        int found = 0;
+        for (int i = 0; i < recordCount; i++) {
+            int record = record(i);
+            long time = segment.getLong(record + TIMESTAMP);
+            if (time < fromNanos || time >= toNanos) continue;
+            if (operation != null && segment.getShort(record + OPERATION) != operation.ordinal()) continue;
+            if (success != null && (segment.get(record + SUCCESS) != 0) != success) continue;
+            if (found == matches.length) matches = Arrays.copyOf(matches, found * 2);
+            matches[found++] = i;
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    /**
+     * Writes every record as a text-format line.
+     *
+     * @return lines written
+     */
+    public int writeText(Writer out) throws IOException {
+        for (int i = 0; i < recordCount; i++) {
+            out.write(entry(i).toString());
+            out.write(System.lineSeparator());
+        }
+        return recordCount;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java Audit.AuditLogReader <audit_date.bin> [OPERATION_TYPE]");
+            System.exit(1);
+        }
+        AuditLogReader reader = new AuditLogReader(Paths.get(args[0]));
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        if (args.length > 1) {
+            int[] matches = reader.find(OperationType.valueOf(args[1]), null, null, null);
+            for (int index : matches) {
+                out.write(reader.entry(index).toString());
+                out.write(System.lineSeparator());
+            }
+            out.write(matches.length + " of " + reader.size() + " records" + System.lineSeparator());
+        } else {
+            reader.writeText(out);
+        }
+        out.flush();
+    }
+
+    private int record(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount);
+        }
+        return recordsStart() + index * RECORD_BYTES;
+    }
+
+    private String string(int offset) {
+        int start = arenaStart() + offset;
+        byte[] bytes = new byte[segment.getInt(start)];
+        segment.get(start + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
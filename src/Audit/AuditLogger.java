@@ -1,30 +1,83 @@
 package Audit;
 
-import java.io.*;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Asynchronous audit trail with group commit.
+ *
+ * - log() only enqueues; one daemon writer thread drains the queue in batches
+ *   (drainTo) and appends each batch to a file kept open across batches
+ * - Entries are forced to disk according to a FlushPolicy, and always on shutdown()
+ *   or JVM exit (shutdown hook)
+ * - AuditFormat.TEXT writes audit_&lt;date&gt;.log lines (rolling over at 10 MB);
+ *   AuditFormat.BINARY writes fixed-size records to memory-mapped audit_&lt;date&gt;.bin
+ *   segments, read back with AuditLogReader
+ * - The most recent RECENT_ENTRIES entries stay in memory for the audit menu
+ */
 public class AuditLogger {
 
     // Thread-safe queue (no lost logs)
     private final BlockingQueue<AuditLogEntry> logQueue =
             new LinkedBlockingQueue<>();
 
-    // Background writer thread
-    private final ExecutorService writerService =
-            Executors.newSingleThreadExecutor();
-
     private final AtomicLong totalLogs = new AtomicLong();
 
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
-    private File currentLogFile;
+    // Most entries taken from the queue per batch
+    private static final int MAX_BATCH = 4_096;
+    // Entries kept for getEntries() once written
+    private static final int RECENT_ENTRIES = 10_000;
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final FlushPolicy flushPolicy;
+    private final AuditFormat format;
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+    private volatile boolean closing;
+
+    // Writer-thread state
+    private final AuditSink sink;
+    private long unsyncedEntries;
+    private long unsyncedSinceMillis;
+
+    private final AtomicLong writtenLogs = new AtomicLong();
+    private final AtomicLong syncCount = new AtomicLong();
+
+    // Guarded by itself
+    private final ArrayDeque<AuditLogEntry> recentEntries = new ArrayDeque<>();
 
 
     public AuditLogger() {
-        rotateLogFile();
-        writerService.submit(this::writeLogsContinuously);
+        this(Path.of("."), FlushPolicy.DEFAULT);
+    }
+
+    /**
+     * @param directory   where the audit_*.log files are written
+     * @param flushPolicy when written entries are forced to disk
+     */
+    public AuditLogger(Path directory, FlushPolicy flushPolicy) {
+        this(directory, flushPolicy, AuditFormat.TEXT);
+    }
+
+    /**
+     * @param directory   where the audit files are written
+     * @param flushPolicy when written entries are forced to disk
+     * @param format      text lines or binary records
+     */
+    public AuditLogger(Path directory, FlushPolicy flushPolicy, AuditFormat format) {
+        this.flushPolicy = flushPolicy;
+        this.format = format;
+        this.sink = format == AuditFormat.BINARY ? new BinaryAuditSink(directory) : new TextAuditSink(directory);
+        this.writerThread = new Thread(this::writeLogsContinuously, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        this.shutdownHook = new Thread(this::drainAndStop, "audit-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
 
@@ -47,49 +100,134 @@ public class AuditLogger {
         totalLogs.incrementAndGet();
     }
 
+    /**
+     * Writes everything queued so far, forces it to disk and stops the writer.
+     * Entries logged afterwards are not written.
+     */
     public void shutdown() {
-        writerService.shutdownNow();
+        drainAndStop();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // the JVM is already exiting; the hook is doing the same work
+        }
+    }
+
+    private void drainAndStop() {
+        closing = true;
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
+    /** Entries written to the audit file so far. */
+    public long getWrittenCount() {
+        return writtenLogs.get();
+    }
+
+    /** Times the audit file has been forced to disk. */
+    public long getSyncCount() {
+        return syncCount.get();
+    }
 
+    public FlushPolicy getFlushPolicy() {
+        return flushPolicy;
+    }
+
+    public AuditFormat getFormat() {
+        return format;
+    }
+
+
+    // The writer is never interrupted: an interrupt would close the FileChannel mid-write
     private void writeLogsContinuously() {
-        try {
-            while (true) {
-                AuditLogEntry entry = logQueue.take();
-                writeToFile(entry);
+        List<AuditLogEntry> batch = new ArrayList<>(MAX_BATCH);
+        while (!closing || !logQueue.isEmpty()) {
+            AuditLogEntry first;
+            try {
+                first = logQueue.poll(pollMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first != null) {
+                batch.add(first);
+                logQueue.drainTo(batch, MAX_BATCH - 1);
+                writeBatch(batch);
+                batch.clear();
+            }
+            if (flushPolicy.isDue(unsyncedEntries, unsyncedSinceMillis, System.currentTimeMillis())) {
+                sync();
             }
-        } catch (InterruptedException ignored) {
         }
+        closeSink();
+    }
+
+    /** Wait no longer than the time left before the next timed sync. */
+    private long pollMillis() {
+        if (unsyncedEntries == 0 || flushPolicy.maxDelayMillis() == 0) return IDLE_POLL_MILLIS;
+        long due = unsyncedSinceMillis + flushPolicy.maxDelayMillis() - System.currentTimeMillis();
+        return Math.max(1, Math.min(IDLE_POLL_MILLIS, due));
     }
 
-    private synchronized void writeToFile(AuditLogEntry entry) {
+    private void writeBatch(List<AuditLogEntry> batch) {
         try {
-            if (currentLogFile.length() >= MAX_FILE_SIZE) {
-                rotateLogFile();
+            sink.beginBatch();
+            for (AuditLogEntry entry : batch) {
+                sink.append(entry);
             }
+            sink.endBatch();
+        } catch (IOException e) {
+            System.err.println("Audit log write failed: " + e.getMessage());
+            sink.abort();
+            unsyncedEntries = 0;
+            return;
+        }
 
-            try (FileWriter fw = new FileWriter(currentLogFile, true);
-                 BufferedWriter bw = new BufferedWriter(fw)) {
-
-                bw.write(entry.toString());
-                bw.newLine();
+        if (unsyncedEntries == 0) unsyncedSinceMillis = System.currentTimeMillis();
+        unsyncedEntries += batch.size();
+        writtenLogs.addAndGet(batch.size());
+        synchronized (recentEntries) {
+            for (AuditLogEntry entry : batch) {
+                if (recentEntries.size() == RECENT_ENTRIES) recentEntries.pollFirst();
+                recentEntries.addLast(entry);
             }
+        }
+    }
+
+    private void sync() {
+        try {
+            sink.sync();
+            syncCount.incrementAndGet();
+            unsyncedEntries = 0;
         } catch (IOException e) {
-            System.err.println("Audit log write failed: " + e.getMessage());
+            System.err.println("Audit log sync failed: " + e.getMessage());
         }
     }
 
-    private void rotateLogFile() {
-        String fileName = "audit_" + LocalDate.now() + ".log";
-        currentLogFile = new File(fileName);
+    private void closeSink() {
+        try {
+            sink.close();
+            if (unsyncedEntries > 0) syncCount.incrementAndGet();
+        } catch (IOException e) {
+            System.err.println("Audit log close failed: " + e.getMessage());
+        }
+        unsyncedEntries = 0;
     }
 
 
     /**
-     * Get a snapshot of all current log entries
+     * Get a snapshot of the recent log entries: the last RECENT_ENTRIES written, then
+     * those still queued
      */
     public List<AuditLogEntry> getEntries() {
-        return new ArrayList<>(logQueue); // thread-safe copy
+        List<AuditLogEntry> entries;
+        synchronized (recentEntries) {
+            entries = new ArrayList<>(recentEntries);
+        }
+        entries.addAll(logQueue); // thread-safe copy
+        return entries;
     }
 
     /**
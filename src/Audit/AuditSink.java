@@ -0,0 +1,31 @@
+package Audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Where AuditLogger's writer thread puts entries; one implementation per AuditFormat.
+ * Only the writer thread calls it.
+ */
+interface AuditSink extends Closeable {
+
+    /** Starts a batch; switches to today's file if the date changed. */
+    void beginBatch() throws IOException;
+
+    void append(AuditLogEntry entry) throws IOException;
+
+    /** Makes the batch visible in the file (written, or committed in the header). */
+    void endBatch() throws IOException;
+
+    /** Forces everything written so far to disk. */
+    void sync() throws IOException;
+
+    /** Drops a batch that failed part way and releases the file; the next batch reopens it. */
+    void abort();
+
+    /** audit_&lt;date&gt;.&lt;ext&gt;, then audit_&lt;date&gt;.1.&lt;ext&gt;, ... once a file is full */
+    static String fileName(LocalDate date, int index, String extension) {
+        return "audit_" + date + (index == 0 ? "" : "." + index) + "." + extension;
+    }
+}
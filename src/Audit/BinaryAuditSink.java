@@ -0,0 +1,211 @@
+package Audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary audit segments, written through a memory mapping: no formatting and no write
+ * call per entry. Segment layout (big-endian):
+ *
+ *   header   32 bytes: int magic, short version, short recordSize, int recordCapacity,
+ *            int arenaCapacity, int recordCount, int arenaUsed, 8 reserved
+ *   records  recordCapacity x 32 bytes: long timestamp (epoch nanos), long executionTimeMs,
+ *            int actionOffset, int threadOffset, short operation ordinal, byte success, 5 padding
+ *   arena    arenaCapacity bytes of strings, each an int byte length + UTF-8 bytes;
+ *            offsets are relative to the arena start
+ *
+ * - recordCount / arenaUsed are updated once per batch, so a reader never sees a
+ *   partly written batch
+ * - Thread names are stored once per segment and shared by their records
+ * - A segment that is full (records or arena) rolls over to audit_&lt;date&gt;.1.bin, ...
+ */
+final class BinaryAuditSink implements AuditSink {
+
+    static final int MAGIC = 0x41554442; // "AUDB"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 32;
+    static final int RECORD_CAPACITY = 65_536;
+    static final int ARENA_CAPACITY = 4 * 1024 * 1024;
+    static final long SEGMENT_BYTES = HEADER_BYTES + (long) RECORD_CAPACITY * RECORD_BYTES + ARENA_CAPACITY;
+
+    // Header fields
+    static final int RECORD_COUNT_OFFSET = 16;
+    static final int ARENA_USED_OFFSET = 20;
+
+    // Record fields
+    static final int TIMESTAMP = 0;
+    static final int EXECUTION_TIME = 8;
+    static final int ACTION_OFFSET = 16;
+    static final int THREAD_OFFSET = 20;
+    static final int OPERATION = 24;
+    static final int SUCCESS = 26;
+
+    // Longer action texts are truncated so one entry can never fill the arena
+    private static final int MAX_STRING_CHARS = 4_096;
+
+    private final Path directory;
+    private MappedByteBuffer segment;
+    private LocalDate fileDate;
+    private int fileIndex;
+
+    // Committed (in the header) and pending (written by the current batch) positions
+    private int committedRecords;
+    private int committedArena;
+    private int recordCount;
+    private int arenaUsed;
+    private final Map<String, Integer> threadOffsets = new HashMap<>();
+
+    BinaryAuditSink(Path directory) {
+        this.directory = directory;
+    }
+
+    static int recordsStart() {
+        return HEADER_BYTES;
+    }
+
+    static int arenaStart() {
+        return HEADER_BYTES + RECORD_CAPACITY * RECORD_BYTES;
+    }
+
+    @Override
+    public void beginBatch() throws IOException {
+        LocalDate today = LocalDate.now();
+        if (segment != null && today.equals(fileDate)) return;
+        if (segment != null) close();
+        fileDate = today;
+        fileIndex = 0;
+        openSegment();
+    }
+
+    @Override
+    public void append(AuditLogEntry entry) throws IOException {
+        String thread = entry.getThreadId();
+        byte[] action = utf8(entry.getUserAction());
+        Integer threadOffset = threadOffsets.get(thread);
+        byte[] threadBytes = threadOffset == null ? utf8(thread) : null;
+        int arenaNeeded = 4 + action.length + (threadBytes == null ? 0 : 4 + threadBytes.length);
+
+        if (recordCount == RECORD_CAPACITY || arenaUsed + arenaNeeded > ARENA_CAPACITY) {
+            rollOver();
+            threadBytes = utf8(thread);
+            threadOffset = null;
+        }
+        int actionOffset = putString(action);
+        if (threadOffset == null) {
+            threadOffset = putString(threadBytes);
+            threadOffsets.put(thread, threadOffset);
+        }
+
+        Instant time = entry.getTimestampUTC();
+        int record = recordsStart() + recordCount * RECORD_BYTES;
+        segment.putLong(record + TIMESTAMP, time.getEpochSecond() * 1_000_000_000L + time.getNano());
+        segment.putLong(record + EXECUTION_TIME, entry.getExecutionTimeMs());
+        segment.putInt(record + ACTION_OFFSET, actionOffset);
+        segment.putInt(record + THREAD_OFFSET, threadOffset);
+        segment.putShort(record + OPERATION, (short) entry.getOperationType().ordinal());
+        segment.put(record + SUCCESS, (byte) (entry.isSuccess() ? 1 : 0));
+        recordCount++;
+    }
+
+    @Override
+    public void endBatch() {
+        segment.putInt(ARENA_USED_OFFSET, arenaUsed);
+        segment.putInt(RECORD_COUNT_OFFSET, recordCount);
+        committedRecords = recordCount;
+        committedArena = arenaUsed;
+    }
+
+    @Override
+    public void sync() {
+        if (segment != null) segment.force();
+    }
+
+    @Override
+    public void abort() {
+        recordCount = committedRecords;
+        arenaUsed = committedArena;
+        threadOffsets.clear();
+        segment = null; // unmapped once unreachable
+    }
+
+    @Override
+    public void close() {
+        if (segment == null) return;
+        endBatch();
+        sync();
+        segment = null;
+    }
+
+    private void rollOver() throws IOException {
+        close();
+        fileIndex++;
+        openSegment();
+    }
+
+    /**
+     * Maps the current segment, continuing an existing one from an earlier run;
+     * full segments and files in another format are skipped.
+     */
+    private void openSegment() throws IOException {
+        while (true) {
+            Path file = directory.resolve(AuditSink.fileName(fileDate, fileIndex, "bin"));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long existing = channel.size();
+                if (existing == 0 || existing == SEGMENT_BYTES) {
+                    segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+                }
+            }
+            if (segment != null) {
+                if (segment.getInt(0) == 0) writeHeader();
+                if (isCompatible() && segment.getInt(RECORD_COUNT_OFFSET) < RECORD_CAPACITY) {
+                    committedRecords = recordCount = segment.getInt(RECORD_COUNT_OFFSET);
+                    committedArena = arenaUsed = segment.getInt(ARENA_USED_OFFSET);
+                    threadOffsets.clear();
+                    return;
+                }
+                segment = null;
+            }
+            fileIndex++;
+        }
+    }
+
+    private void writeHeader() {
+        segment.putInt(0, MAGIC);
+        segment.putShort(4, FORMAT_VERSION);
+        segment.putShort(6, (short) RECORD_BYTES);
+        segment.putInt(8, RECORD_CAPACITY);
+        segment.putInt(12, ARENA_CAPACITY);
+        segment.putInt(RECORD_COUNT_OFFSET, 0);
+        segment.putInt(ARENA_USED_OFFSET, 0);
+    }
+
+    private boolean isCompatible() {
+        return segment.getInt(0) == MAGIC && segment.getShort(4) == FORMAT_VERSION
+                && segment.getShort(6) == RECORD_BYTES && segment.getInt(8) == RECORD_CAPACITY
+                && segment.getInt(12) == ARENA_CAPACITY;
+    }
+
+    private int putString(byte[] bytes) {
+        int offset = arenaUsed;
+        segment.putInt(arenaStart() + offset, bytes.length);
+        segment.put(arenaStart() + offset + 4, bytes);
+        arenaUsed += 4 + bytes.length;
+        return offset;
+    }
+
+    private static byte[] utf8(String s) {
+        if (s == null) s = "";
+        if (s.length() > MAX_STRING_CHARS) s = s.substring(0, MAX_STRING_CHARS);
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+package Audit;
+
+/**
+ * When AuditLogger forces written entries to disk (fsync).
+ *
+ * - Every batch is handed to the OS as soon as it is drained, so a crashed JVM loses
+ *   nothing the writer has taken; the policy only bounds what a power loss can lose
+ * - maxEntries / maxDelayMillis: sync once this many entries, or this much time, have
+ *   gone unsynced (0 disables that trigger)
+ * - Shutdown always syncs
+ */
+public final class FlushPolicy {
+
+    /** Sync after 1,000 entries or 1 second, whichever comes first. */
+    public static final FlushPolicy DEFAULT = new FlushPolicy(1_000, 1_000);
+
+    private final int maxEntries;
+    private final long maxDelayMillis;
+
+    private FlushPolicy(int maxEntries, long maxDelayMillis) {
+        if (maxEntries < 0 || maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Flush thresholds must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public static FlushPolicy everyEntries(int entries) {
+        return new FlushPolicy(entries, 0);
+    }
+
+    public static FlushPolicy everyMillis(long millis) {
+        return new FlushPolicy(0, millis);
+    }
+
+    /** Whichever threshold is reached first. */
+    public static FlushPolicy every(int entries, long millis) {
+        return new FlushPolicy(entries, millis);
+    }
+
+    /** Only on shutdown: fastest, but a power loss may drop everything since startup. */
+    public static FlushPolicy onShutdown() {
+        return new FlushPolicy(0, 0);
+    }
+
+    boolean isDue(long unsyncedEntries, long unsyncedSinceMillis, long now) {
+        if (unsyncedEntries == 0) return false;
+        return (maxEntries > 0 && unsyncedEntries >= maxEntries)
+                || (maxDelayMillis > 0 && now - unsyncedSinceMillis >= maxDelayMillis);
+    }
+
+    long maxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    @Override
+    public String toString() {
+        if (maxEntries == 0 && maxDelayMillis == 0) return "on shutdown";
+        return "every " + (maxEntries > 0 ? maxEntries + " entries" : "")
+                + (maxEntries > 0 && maxDelayMillis > 0 ? " or " : "")
+                + (maxDelayMillis > 0 ? maxDelayMillis + " ms" : "");
+    }
+}
@@ -0,0 +1,115 @@
+package Audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Text audit files: one line per entry, appended through a FileChannel kept open across
+ * batches and written in one call per 256 KB. Rolls over at 10 MB, tracking the size in
+ * memory rather than asking the file system per entry.
+ */
+final class TextAuditSink implements AuditSink {
+
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final int WRITE_BUFFER_BYTES = 256 * 1024;
+
+    private final Path directory;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+    private FileChannel channel;
+    private LocalDate fileDate;
+    private int fileIndex;
+    private long fileSize;
+
+    TextAuditSink(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void beginBatch() throws IOException {
+        LocalDate today = LocalDate.now();
+        if (channel != null && today.equals(fileDate)) return;
+        if (channel != null) close();
+        fileDate = today;
+        fileIndex = 0;
+        openFile();
+    }
+
+    @Override
+    public void append(AuditLogEntry entry) throws IOException {
+        byte[] line = (entry + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        if (fileSize >= MAX_FILE_SIZE) rollOver();
+        if (line.length > writeBuffer.remaining()) writeBufferedBytes();
+        if (line.length > writeBuffer.capacity()) {
+            writeFully(ByteBuffer.wrap(line));
+        } else {
+            writeBuffer.put(line);
+        }
+        fileSize += line.length;
+    }
+
+    @Override
+    public void endBatch() throws IOException {
+        writeBufferedBytes();
+    }
+
+    @Override
+    public void sync() throws IOException {
+        if (channel != null) channel.force(false);
+    }
+
+    @Override
+    public void abort() {
+        writeBuffer.clear();
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            System.err.println("Audit log close failed: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        try {
+            writeBufferedBytes();
+            sync();
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void rollOver() throws IOException {
+        close();
+        fileIndex++;
+        openFile();
+    }
+
+    /** Opens the current file, skipping numbered files an earlier run already filled. */
+    private void openFile() throws IOException {
+        while (true) {
+            channel = FileChannel.open(directory.resolve(AuditSink.fileName(fileDate, fileIndex, "log")),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            fileSize = channel.size();
+            if (fileSize < MAX_FILE_SIZE) return;
+            channel.close();
+            fileIndex++;
+        }
+    }
+
+    private void writeBufferedBytes() throws IOException {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) channel.write(bytes);
+    }
+}
@@ -1,3 +1,5 @@
+import Caching.AccessHint;
+
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
@@ -44,7 +46,7 @@ public class BatchReportMenuHandler {
         StudentReportGenerator.ReportType reportType = promptReportType();
 
         // Generate reports
-        BatchReportGenerator batchGenerator = new BatchReportGenerator(new StudentReportGenerator(gradeManager));
+        BatchReportGenerator batchGenerator = new BatchReportGenerator(new StudentReportGenerator(gradeManager, AccessHint.SCAN));
         batchGenerator.generateReports(selectedStudents, formats, reportType, numThreads);
     }
 
@@ -0,0 +1,86 @@
+import Exceptions.StudentNotFoundException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CacheWarmer
+ *
+ * Prefetches what the last run used most, in the background, so the first menu
+ * actions after a start are served from the cache.
+ *
+ * - Class statistics first (one entry, needed by every report)
+ * - Then students from the saved access profile, hottest first: the student record,
+ *   the grade array and the GPA (GPA is computed from the cached grade array, so
+ *   warming the grades warms the GPA)
+ * - Unknown or deleted students in the profile are skipped
+ * - Runs alongside the menu: the managers' loaders read under their own locks, and
+ *   a value whose student is written while it loads is not cached (see CacheManager.get)
+ */
+public class CacheWarmer {
+    static final int MAX_STUDENTS = 100;
+
+    private static final String[] STUDENT_KEY_PREFIXES = {"STUDENT_", "GRADES_"};
+
+    private final StudentManager studentManager;
+    private final GradeManager gradeManager;
+    private final GpaCalculator gpaCalculator;
+    private final ClassStatisticsCalculator statisticsCalculator;
+
+    public CacheWarmer(StudentManager studentManager, GradeManager gradeManager,
+                       GpaCalculator gpaCalculator, ClassStatisticsCalculator statisticsCalculator) {
+        this.studentManager = studentManager;
+        this.gradeManager = gradeManager;
+        this.gpaCalculator = gpaCalculator;
+        this.statisticsCalculator = statisticsCalculator;
+    }
+
+    /**
+     * Warms the caches on the common pool.
+     *
+     * @param profileKeys shared-cache keys, hottest first (see CacheManager.readAccessProfile)
+     * @return completes with the number of students warmed
+     */
+    public CompletableFuture<Integer> warmAsync(List<String> profileKeys) {
+        return CompletableFuture.supplyAsync(() -> warm(profileKeys));
+    }
+
+    /**
+     * Time Complexity: O(p + s * k) for p profile keys and s warmed students with k grades each
+     */
+    int warm(List<String> profileKeys) {
+        statisticsCalculator.calculateClassStatistics();
+
+        int warmed = 0;
+        for (String studentId : hottestStudentIds(profileKeys)) {
+            try {
+                studentManager.findStudent(studentId);
+            } catch (StudentNotFoundException e) {
+                continue;
+            }
+            gradeManager.getGradesForStudent(studentId);
+            gpaCalculator.findGPA(studentId);
+            warmed++;
+        }
+        return warmed;
+    }
+
+    /**
+     * Student ids referenced by the profile, in profile order, without duplicates.
+     */
+    static Set<String> hottestStudentIds(List<String> profileKeys) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String key : profileKeys) {
+            for (String prefix : STUDENT_KEY_PREFIXES) {
+                if (key.startsWith(prefix)) {
+                    ids.add(key.substring(prefix.length()));
+                    break;
+                }
+            }
+            if (ids.size() >= MAX_STUDENTS) break;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,14 @@
+package Caching;
+
+/**
+ * How a lookup should affect the cache.
+ *
+ * - NORMAL: a hit refreshes the entry's recency / frequency and a miss caches the loaded value
+ * - SCAN: for bulk reads over the whole roster; a hit is returned without touching the
+ *   eviction order, and a miss is loaded without being cached, so one full scan cannot
+ *   evict the entries interactive lookups depend on
+ */
+public enum AccessHint {
+    NORMAL,
+    SCAN
+}
@@ -0,0 +1,68 @@
+package Caching;
+
+/**
+ * Intrusive doubly linked list of cache nodes in access order
+ * (head = least recently used). Links live in the nodes, so every
+ * operation is O(1) and allocation free. Tracks the total node weight.
+ *
+ * Not thread-safe; only touched under the cache's eviction lock.
+ */
+final class AccessOrderDeque<K, V> {
+
+    private CacheNode<K, V> head;
+    private CacheNode<K, V> tail;
+    private int size;
+    private long weight;
+
+    void addLast(CacheNode<K, V> node) {
+        node.prev = tail;
+        node.next = null;
+        if (tail == null) head = node;
+        else tail.next = node;
+        tail = node;
+        node.linked = true;
+        size++;
+        weight += node.weight;
+    }
+
+    void moveToLast(CacheNode<K, V> node) {
+        if (!node.linked || node == tail) return;
+        unlink(node);
+        addLast(node);
+    }
+
+    void unlink(CacheNode<K, V> node) {
+        if (!node.linked) return;
+        if (node.prev == null) head = node.next;
+        else node.prev.next = node.next;
+        if (node.next == null) tail = node.prev;
+        else node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+        size--;
+        weight -= node.weight;
+    }
+
+    CacheNode<K, V> peekFirst() {
+        return head;
+    }
+
+    CacheNode<K, V> pollFirst() {
+        CacheNode<K, V> first = head;
+        if (first != null) unlink(first);
+        return first;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long weight() {
+        return weight;
+    }
+
+    void clear() {
+        while (head != null) unlink(head);
+    }
+}
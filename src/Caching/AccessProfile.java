@@ -0,0 +1,55 @@
+package Caching;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sampled access-frequency profile of cache keys, used to decide what to warm at startup.
+ *
+ * - Only 1 in SAMPLE_RATE lookups is counted, so recording costs one random draw
+ *   on most reads
+ * - At most 2 * MAX_KEYS keys are tracked; past that the profile keeps the top
+ *   MAX_KEYS and halves their counts, so it follows recent popularity
+ */
+final class AccessProfile<K> {
+
+    static final int SAMPLE_RATE = 8;
+    static final int MAX_KEYS = 1024;
+
+    private final ConcurrentHashMap<K, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    void record(K key) {
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0) return;
+        counts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        if (counts.size() > 2 * MAX_KEYS) trim();
+    }
+
+    private synchronized void trim() {
+        if (counts.size() <= 2 * MAX_KEYS) return;
+        List<Map.Entry<K, Integer>> top = hottest(MAX_KEYS);
+        counts.clear();
+        for (Map.Entry<K, Integer> e : top) {
+            if (e.getValue() > 1) counts.put(e.getKey(), new AtomicInteger(e.getValue() / 2));
+        }
+    }
+
+    /**
+     * Keys with their sampled counts, hottest first.
+     * Time Complexity: O(k log k) over the tracked keys
+     */
+    List<Map.Entry<K, Integer>> hottest(int limit) {
+        List<Map.Entry<K, Integer>> entries = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> entries.add(Map.entry(key, count.get())));
+        entries.sort(Map.Entry.<K, Integer>comparingByValue(Comparator.reverseOrder()));
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    void clear() {
+        counts.clear();
+    }
+}
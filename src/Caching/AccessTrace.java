@@ -0,0 +1,210 @@
+package Caching;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Binary log of cache lookups, for replaying against other policies and sizes offline.
+ *
+ *   int magic, int formatVersion, then one int per lookup: the key's hashCode()
+ *
+ * - 4 bytes per access; keys themselves are never written, so traces hold no student data
+ * - Distinct keys with equal hash codes merge into one; at the key counts a cache
+ *   sees this barely moves a hit rate
+ * - Lookups go through a lock-free ring and are written in 64 KB blocks through one
+ *   FileChannel by the cache's scheduler thread, never by the thread doing the lookup
+ */
+public final class AccessTrace {
+
+    private static final int MAGIC = 0x43545243; // "CTRC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private AccessTrace() {
+    }
+
+    /**
+     * Appends lookups to a trace file without blocking the lookup thread.
+     *
+     * - record() claims a slot in a lock-free ring with one CAS and publishes the hash;
+     *   it never takes a lock or touches the file
+     * - The flusher (the cache's scheduler thread) drains the ring into 64 KB blocks
+     *   every FLUSH_INTERVAL_MILLIS, and as soon as a quarter of the ring is pending
+     * - A lookup that finds the ring full is dropped and counted, so a stalled writer
+     *   costs trace fidelity rather than lookup latency
+     * - close() drains what is left; lookups racing with it may be missed
+     */
+    static final class Recorder implements Closeable {
+        static final int RING_CAPACITY = 1 << 15; // power of two
+        static final long FLUSH_INTERVAL_MILLIS = 100;
+        private static final int MASK = RING_CAPACITY - 1;
+        private static final int FLUSH_THRESHOLD = RING_CAPACITY / 4;
+        // Marks a published slot, so a hash of 0 is distinguishable from an empty slot
+        private static final long PUBLISHED = 1L << 32;
+
+        private final Path file;
+        private final FileChannel channel;
+        private final Executor flusher;
+        private final ScheduledFuture<?> periodicFlush;
+
+        private final AtomicLongArray ring = new AtomicLongArray(RING_CAPACITY);
+        private final AtomicLong writeIndex = new AtomicLong();
+        private volatile long readIndex; // advanced only by drain()
+        private final AtomicBoolean flushRequested = new AtomicBoolean();
+        private final LongAdder dropped = new LongAdder();
+        // Set on close or after a write error; later lookups are ignored
+        private volatile boolean stopped;
+
+        // Guarded by this
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private long recorded;
+        private boolean failed;
+
+        Recorder(Path file, ScheduledExecutorService flusher) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.flusher = flusher;
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION);
+            this.periodicFlush = flusher.scheduleWithFixedDelay(this::flushQuietly,
+                    FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Time Complexity: O(1), lock-free
+         */
+        void record(int keyHash) {
+            if (stopped) return;
+            long w;
+            long pending;
+            do {
+                w = writeIndex.get();
+                pending = w - readIndex;
+                if (pending >= RING_CAPACITY) {
+                    dropped.increment();
+                    return;
+                }
+            } while (!writeIndex.compareAndSet(w, w + 1));
+            ring.lazySet((int) (w & MASK), PUBLISHED | (keyHash & 0xFFFFFFFFL));
+
+            if (pending + 1 >= FLUSH_THRESHOLD && flushRequested.compareAndSet(false, true)) {
+                try {
+                    flusher.execute(this::flushQuietly);
+                } catch (RejectedExecutionException e) {
+                    flushRequested.set(false); // close() drains it
+                }
+            }
+        }
+
+        /** Lookups written to the file so far. */
+        synchronized long recorded() {
+            return recorded;
+        }
+
+        /** Lookups lost because the ring was full. */
+        long dropped() {
+            return dropped.sum();
+        }
+
+        private void flushQuietly() {
+            try {
+                drain();
+            } catch (IOException e) {
+                // stop recording rather than fail lookups
+                System.err.println("Stopped recording cache trace " + file + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * Moves every published lookup from the ring to the file, in claim order.
+         * Time Complexity: O(pending lookups)
+         */
+        private synchronized void drain() throws IOException {
+            flushRequested.set(false);
+            if (failed || !channel.isOpen()) return;
+            try {
+                long r = readIndex;
+                long w = writeIndex.get();
+                for (; r < w; r++) {
+                    int slot = (int) (r & MASK);
+                    long entry = ring.get(slot);
+                    if (entry == 0) break; // claimed but not yet published; picked up next drain
+                    ring.lazySet(slot, 0);
+                    if (!buffer.hasRemaining()) writeBuffer();
+                    buffer.putInt((int) entry);
+                    recorded++;
+                }
+                readIndex = r;
+                writeBuffer();
+            } catch (IOException e) {
+                failed = true;
+                stopped = true;
+                throw e;
+            }
+        }
+
+        private void writeBuffer() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (!channel.isOpen()) return;
+            stopped = true;
+            periodicFlush.cancel(false);
+            try {
+                drain();
+            } finally {
+                channel.close();
+                long lost = dropped.sum();
+                if (lost > 0) {
+                    System.err.println("Cache trace " + file + " is missing " + lost
+                            + " lookups made while its writer fell behind");
+                }
+            }
+        }
+    }
+
+    /**
+     * Every recorded key hash, in access order.
+     *
+     * @throws IOException if the file cannot be read or is not a trace of this format
+     */
+    public static int[] read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a cache access trace");
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                // keep reading
+            }
+            bytes.flip();
+            if (bytes.getInt() != MAGIC || bytes.getInt() != FORMAT_VERSION) {
+                throw new IOException(file + " is not a cache access trace");
+            }
+            IntBuffer keys = bytes.asIntBuffer();
+            int[] trace = new int[keys.remaining()];
+            keys.get(trace);
+            return trace;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package Caching;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings of one CacheManager, used by CacheRegistry.
+ *
+ * - Code supplies the defaults; a config file may override any of them per cache
+ *   (see withOverrides for the property names)
+ * - Capacity is an entry count (maxSize) unless maxBytes is set, which switches to
+ *   a memory budget weighed by Weighers.memory()
+ * - Durations of 0 disable the corresponding expiry / refresh
+ */
+public final class CacheConfig {
+
+    private int maxSize = CacheManager.DEFAULT_MAX_SIZE;
+    private long maxBytes;
+    private EvictionPolicy policy = EvictionPolicy.LRU;
+    private long expireAfterWriteMillis;
+    private long expireAfterAccessMillis;
+    private long refreshAfterWriteMillis;
+    private long staleWhileRevalidateMillis;
+    private long offHeapBytes;
+    private String[] namespaces = new String[0];
+    private Path traceFile;
+
+    public CacheConfig maxSize(int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive");
+        this.maxSize = maxSize;
+        this.maxBytes = 0;
+        return this;
+    }
+
+    public CacheConfig maxBytes(long maxBytes) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be positive");
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    public CacheConfig policy(EvictionPolicy policy) {
+        this.policy = policy;
+        return this;
+    }
+
+    public CacheConfig expireAfterWrite(long duration, TimeUnit unit) {
+        this.expireAfterWriteMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    public CacheConfig expireAfterAccess(long duration, TimeUnit unit) {
+        this.expireAfterAccessMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    public CacheConfig refreshAfterWrite(long duration, TimeUnit unit) {
+        this.refreshAfterWriteMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    public CacheConfig staleWhileRevalidate(long duration, TimeUnit unit) {
+        this.staleWhileRevalidateMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    public CacheConfig offHeapBytes(long offHeapBytes) {
+        this.offHeapBytes = offHeapBytes;
+        return this;
+    }
+
+    public CacheConfig namespaces(String... prefixes) {
+        this.namespaces = prefixes.clone();
+        return this;
+    }
+
+    /**
+     * Records every lookup to this AccessTrace file while the cache is in a registry.
+     */
+    public CacheConfig traceFile(Path traceFile) {
+        this.traceFile = traceFile;
+        return this;
+    }
+
+    Path traceFile() {
+        return traceFile;
+    }
+
+    /**
+     * A copy with the "cache.&lt;name&gt;.*" properties applied:
+     *
+     *   maxSize=500                 entry-count capacity
+     *   maxBytes=4MB                memory capacity (B, KB, MB, GB)
+     *   policy=W_TINY_LFU           LRU or W_TINY_LFU
+     *   expireAfterWrite=10m        also expireAfterAccess, refreshAfterWrite,
+     *                               staleWhileRevalidate (ms, s, m, h, d; 0 = off)
+     *   offHeapBytes=32MB           0 disables the off-heap tier
+     *   namespaces=STUDENT_,GRADES_ metrics key prefixes
+     *   traceFile=cache_trace.bin   record lookups for CacheTraceSimulator
+     *
+     * @throws IllegalArgumentException if a value cannot be parsed
+     */
+    public CacheConfig withOverrides(Properties properties, String name) {
+        String prefix = "cache." + name + ".";
+        CacheConfig c = copy();
+        String v;
+        if ((v = property(properties, prefix + "maxSize")) != null) c.maxSize((int) parseLong(prefix + "maxSize", v));
+        if ((v = property(properties, prefix + "maxBytes")) != null) c.maxBytes(parseBytes(prefix + "maxBytes", v));
+        if ((v = property(properties, prefix + "policy")) != null) c.policy = parsePolicy(prefix + "policy", v);
+        if ((v = property(properties, prefix + "expireAfterWrite")) != null) {
+            c.expireAfterWriteMillis = parseMillis(prefix + "expireAfterWrite", v);
+        }
+        if ((v = property(properties, prefix + "expireAfterAccess")) != null) {
+            c.expireAfterAccessMillis = parseMillis(prefix + "expireAfterAccess", v);
+        }
+        if ((v = property(properties, prefix + "refreshAfterWrite")) != null) {
+            c.refreshAfterWriteMillis = parseMillis(prefix + "refreshAfterWrite", v);
+        }
+        if ((v = property(properties, prefix + "staleWhileRevalidate")) != null) {
+            c.staleWhileRevalidateMillis = parseMillis(prefix + "staleWhileRevalidate", v);
+        }
+        if ((v = property(properties, prefix + "offHeapBytes")) != null) {
+            c.offHeapBytes = parseBytes(prefix + "offHeapBytes", v);
+        }
+        if ((v = property(properties, prefix + "traceFile")) != null) {
+            c.traceFile = v.isEmpty() ? null : Path.of(v);
+        }
+        if ((v = property(properties, prefix + "namespaces")) != null) {
+            c.namespaces = v.isEmpty() ? new String[0] : v.split("\\s*,\\s*");
+        }
+        return c;
+    }
+
+    /**
+     * A new cache with these settings.
+     */
+    public <K, V> CacheManager<K, V> build() {
+        CacheManager<K, V> cache = maxBytes > 0
+                ? new CacheManager<>(maxBytes, Weighers.memory(), policy)
+                : new CacheManager<>(maxSize, Weighers.entryCount(), policy);
+        cache.expireAfterWrite(expireAfterWriteMillis, TimeUnit.MILLISECONDS)
+                .expireAfterAccess(expireAfterAccessMillis, TimeUnit.MILLISECONDS)
+                .refreshAfterWrite(refreshAfterWriteMillis, TimeUnit.MILLISECONDS)
+                .staleWhileRevalidate(staleWhileRevalidateMillis, TimeUnit.MILLISECONDS)
+                .metricsNamespaces(namespaces);
+        if (offHeapBytes > 0) cache.offHeapTier(offHeapBytes);
+        return cache;
+    }
+
+    private CacheConfig copy() {
+        CacheConfig c = new CacheConfig();
+        c.maxSize = maxSize;
+        c.maxBytes = maxBytes;
+        c.policy = policy;
+        c.expireAfterWriteMillis = expireAfterWriteMillis;
+        c.expireAfterAccessMillis = expireAfterAccessMillis;
+        c.refreshAfterWriteMillis = refreshAfterWriteMillis;
+        c.staleWhileRevalidateMillis = staleWhileRevalidateMillis;
+        c.offHeapBytes = offHeapBytes;
+        c.namespaces = namespaces;
+        c.traceFile = traceFile;
+        return c;
+    }
+
+    private static String property(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        return value == null ? null : value.trim();
+    }
+
+    private static EvictionPolicy parsePolicy(String key, String value) {
+        try {
+            return EvictionPolicy.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(key + ": unknown policy '" + value + "'");
+        }
+    }
+
+    private static long parseLong(String key, String value) {
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed < 0) throw new NumberFormatException();
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not a non-negative number '" + value + "'");
+        }
+    }
+
+    /** "500", "512KB", "4MB", "1GB" */
+    static long parseBytes(String key, String value) {
+        String v = value.toUpperCase(Locale.ROOT);
+        long unit = 1;
+        if (v.endsWith("KB")) unit = 1024;
+        else if (v.endsWith("MB")) unit = 1024 * 1024;
+        else if (v.endsWith("GB")) unit = 1024L * 1024 * 1024;
+        String digits = unit == 1 && v.endsWith("B") ? v.substring(0, v.length() - 1)
+                : unit == 1 ? v : v.substring(0, v.length() - 2);
+        return parseLong(key, digits.trim()) * unit;
+    }
+
+    /** "250ms", "30s", "10m", "2h", "1d"; a bare number is milliseconds */
+    static long parseMillis(String key, String value) {
+        String v = value.toLowerCase(Locale.ROOT);
+        TimeUnit unit = TimeUnit.MILLISECONDS;
+        String digits = v;
+        if (v.endsWith("ms")) {
+            digits = v.substring(0, v.length() - 2);
+        } else if (v.endsWith("s")) {
+            unit = TimeUnit.SECONDS;
+            digits = v.substring(0, v.length() - 1);
+        } else if (v.endsWith("m")) {
+            unit = TimeUnit.MINUTES;
+            digits = v.substring(0, v.length() - 1);
+        } else if (v.endsWith("h")) {
+            unit = TimeUnit.HOURS;
+            digits = v.substring(0, v.length() - 1);
+        } else if (v.endsWith("d")) {
+            unit = TimeUnit.DAYS;
+            digits = v.substring(0, v.length() - 1);
+        }
+        return unit.toMillis(parseLong(key, digits.trim()));
+    }
+}
@@ -1,157 +1,1145 @@
 package Caching;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.*;
+import java.util.function.Function;
 import java.time.Instant;
 
 /**
- * Thread-safe Cache Manager with LRU eviction, stats, invalidation, and auto-refresh
+ * Thread-safe Cache Manager with LRU or W-TinyLFU eviction, stats, invalidation, and auto-refresh
+ *
+ * - Keys are spread over independent CacheShards (one per core for large caches),
+ *   each with its own map, eviction lock and share of the capacity
+ * - Reads never take a lock; metrics are LongAdders kept per key namespace
+ *   (metricsNamespaces), exposed as CacheStats snapshots and optionally as MBeans
+ * - Eviction order lives in intrusive linked lists owned by each shard's
+ *   EvictionPolicy, so eviction is O(1) instead of a scan for the oldest access time
+ * - Reads are recorded in a lossy ReadBuffer and replayed into the policy by
+ *   whichever thread next holds the shard's eviction lock (buffered reordering)
+ * - Capacity is an entry count by default, or a total weight when a Weigher is
+ *   given (e.g. Weighers.memory() for a budget in estimated heap bytes)
+ * - get(key, loader) loads a missing value once per key however many threads miss
+ *   at the same time (single-flight), and optionally expires entries after write or
+ *   access, refreshes them in the background before they expire (refresh-ahead) and
+ *   serves an expired value while it is reloaded (stale-while-revalidate)
+ * - Entries may carry dependency tags (see CacheTags); invalidateTag(tag) drops every
+ *   entry registered under the tag in O(dependents). Each entry keeps its own tags, so
+ *   a key leaves the tag index once neither tier holds it under that tag
+ * - An optional off-heap tier (offHeapTier) receives entries evicted for capacity,
+ *   serialised into a direct buffer; a miss that finds the key there promotes it back
+ * - saveSnapshot / loadSnapshot persist serialisable entries (with their tags) across
+ *   restarts; entries whose source data version changed are discarded on load
+ * - AccessHint.SCAN lookups read through the cache without inserting or reordering
+ *   anything, for bulk scans that would otherwise flush the hot set
+ * - Expired entries are dropped lazily on lookup, and in bulk by cleanUp(), which a
+ *   CacheRegistry runs periodically for every cache it owns
+ * - startTraceRecording logs every lookup's key hash to an AccessTrace file, which
+ *   can be replayed offline against other policies and sizes; lookups only enqueue
+ *   the hash, and the scheduler thread writes the file
+ * - Lookups feed a sampled AccessProfile; saveAccessProfile / readAccessProfile carry
+ *   the hottest keys to the next start so callers can warm them first
+ * - Nothing is printed on the get / put / evict path
  */
 public class CacheManager<K, V> {
 
-    private final int MAX_SIZE = 150;
-    // Thread-safe cache
-    private final ConcurrentHashMap<K, CacheEntry<V>> cache = new ConcurrentHashMap<>();
+    public static final int DEFAULT_MAX_SIZE = 150;
 
-    // Stats counters
-    private final AtomicInteger hits = new AtomicInteger();
-    private final AtomicInteger misses = new AtomicInteger();
-    private final AtomicInteger evictions = new AtomicInteger();
+    private static final String[] NO_TAGS = new String[0];
+    private static final long[] NO_GENERATIONS = new long[0];
 
-    // Scheduler for background refresh
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // CacheNode plus its ConcurrentHashMap node
+    private static final int ENTRY_OVERHEAD = 48 + 32;
+
+    // Smallest capacity per shard when the shard count is chosen automatically,
+    // so small caches keep (nearly) exact eviction order
+    private static final long MIN_SHARD_WEIGHT = 64;
+
+    private final long maxWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final EvictionPolicy policy;
+
+    // Power-of-two number of shards, selected by spread key hash
+    private final CacheShard<K, V>[] shards;
+    private final int shardMask;
+
+    // Striped metrics per key namespace
+    public static final String OTHER_NAMESPACE = "other";
+    private volatile Namespaces namespaces = new Namespaces(new String[0]);
+
+    // Optional second tier; null when disabled
+    private volatile OffHeapStore<K> offHeap;
+
+    // Dependency tag -> keys registered under it. A key is unregistered when neither tier
+    // holds an entry for it carrying the tag; sets are only changed inside compute calls,
+    // so a registration and an unregistration of one tag never interleave.
+    private final ConcurrentHashMap<String, Set<K>> tagIndex = new ConcurrentHashMap<>();
+    // Dependency tag -> times it has been invalidated; a load publishes its value only if
+    // none of its tags moved while the loader ran
+    private final ConcurrentHashMap<String, Long> tagGenerations = new ConcurrentHashMap<>();
+
+    // Sampled lookup frequencies, for warming at the next start
+    private final AccessProfile<K> accessProfile = new AccessProfile<>();
+
+    // Lookup trace being recorded; null when off
+    private volatile AccessTrace.Recorder traceRecorder;
+
+    // In-flight loads and refreshes, one per key
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    // Expiry settings in milliseconds; 0 disables
+    private volatile long expireAfterWriteMillis;
+    private volatile long expireAfterAccessMillis;
+    private volatile long refreshAfterWriteMillis;
+    private volatile long staleWhileRevalidateMillis;
+    private volatile Executor refreshExecutor = ForkJoinPool.commonPool();
+
+    // Scheduler for startAutoRefresh tasks and trace flushes: the owning CacheRegistry's,
+    // or one created on first use (ownsScheduler). Guarded by this.
+    private ScheduledExecutorService scheduler;
+    private boolean ownsScheduler;
+    private final List<ScheduledFuture<?>> autoRefreshTasks = new ArrayList<>();
+
+    public CacheManager() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public CacheManager(int maxSize) {
+        this(maxSize, EvictionPolicy.LRU);
+    }
+
+    public CacheManager(int maxSize, EvictionPolicy policy) {
+        this(maxSize, Weighers.entryCount(), policy);
+    }
+
+    /**
+     * Weight-bounded cache: entries are evicted until their total weight is within maxWeight.
+     */
+    public CacheManager(long maxWeight, Weigher<? super K, ? super V> weigher, EvictionPolicy policy) {
+        this(maxWeight, weigher, policy, defaultShardCount(maxWeight));
+    }
+
+    /**
+     * @param shardCount number of independent shards, rounded down to a power of two;
+     *                   each gets an equal share of maxWeight
+     */
+    public CacheManager(long maxWeight, Weigher<? super K, ? super V> weigher, EvictionPolicy policy, int shardCount) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.policy = policy;
+
+        int count = Integer.highestOneBit((int) Math.min(shardCount, maxWeight));
+        this.shards = newShardArray(count);
+        this.shardMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            long share = maxWeight / count + (i < maxWeight % count ? 1 : 0);
+            shards[i] = new CacheShard<>(policy, share, this::onRemoval);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CacheShard<K, V>[] newShardArray(int count) {
+        return (CacheShard<K, V>[]) new CacheShard<?, ?>[count];
+    }
+
+    private static int defaultShardCount(long maxWeight) {
+        long byWeight = Math.max(1, maxWeight / MIN_SHARD_WEIGHT);
+        return (int) Math.min(Runtime.getRuntime().availableProcessors(), byWeight);
+    }
+
+    private CacheShard<K, V> shardFor(Object key) {
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+
+    /**
+     * Key prefixes + their metrics; swapped as one object so lookups never see a mix.
+     */
+    private static final class Namespaces {
+        final String[] prefixes;
+        final NamespaceMetrics[] metrics;
+
+        Namespaces(String[] prefixes) {
+            this.prefixes = prefixes;
+            this.metrics = new NamespaceMetrics[prefixes.length + 1];
+            for (int i = 0; i < prefixes.length; i++) metrics[i] = new NamespaceMetrics(prefixes[i]);
+            metrics[prefixes.length] = new NamespaceMetrics(OTHER_NAMESPACE);
+        }
+
+        /** Time Complexity: O(prefixes) */
+        int indexOf(Object key) {
+            String name = key.toString();
+            for (int i = 0; i < prefixes.length; i++) {
+                if (name.startsWith(prefixes[i])) return i;
+            }
+            return prefixes.length;
+        }
+
+        NamespaceMetrics of(Object key) {
+            return metrics[indexOf(key)];
+        }
+    }
+
+    /**
+     * Splits the metrics by key prefix (e.g. "STUDENT_", "GRADES_"); keys matching none
+     * are counted under OTHER_NAMESPACE. Resets all metrics.
+     */
+    public CacheManager<K, V> metricsNamespaces(String... prefixes) {
+        namespaces = new Namespaces(prefixes.clone());
+        return this;
+    }
+
+    private NamespaceMetrics metricsFor(Object key) {
+        return namespaces.of(key);
+    }
+
+    /**
+     * Called by the shards, outside their lock, for every node they remove.
+     */
+    private void onRemoval(CacheNode<K, V> node, RemovalCause cause) {
+        metricsFor(node.key).recordRemoval(cause);
+        // Demoted first, so the tags stay registered while the off-heap tier holds the entry
+        if (cause == RemovalCause.SIZE) demote(node);
+        unregisterTags(node.key, node.tags);
+    }
+
+    /**
+     * Entries expire this long after they were written.
+     */
+    public CacheManager<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+        this.expireAfterWriteMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    /**
+     * Entries expire when they have not been read for this long.
+     */
+    public CacheManager<K, V> expireAfterAccess(long duration, TimeUnit unit) {
+        this.expireAfterAccessMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    /**
+     * get(key, loader) starts a background reload of entries older than this,
+     * still returning the current value (refresh-ahead).
+     */
+    public CacheManager<K, V> refreshAfterWrite(long duration, TimeUnit unit) {
+        this.refreshAfterWriteMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    /**
+     * get(key, loader) keeps serving an expired value for this long while it is
+     * reloaded in the background, instead of blocking the caller on the load.
+     */
+    public CacheManager<K, V> staleWhileRevalidate(long duration, TimeUnit unit) {
+        this.staleWhileRevalidateMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    /**
+     * Executor for background refreshes (default: the common fork-join pool).
+     */
+    public CacheManager<K, V> refreshExecutor(Executor executor) {
+        this.refreshExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Adds an off-heap second tier of the given size. Entries evicted for capacity are
+     * serialised into it (non-Serializable values are dropped as before) and promoted
+     * back on their next miss, so the cache can hold far more without heap growth.
+     * Promoted values are deserialised copies; use it for values treated as read-only.
+     */
+    public CacheManager<K, V> offHeapTier(long capacityBytes) {
+        OffHeapStore<K> previous = offHeap;
+        offHeap = new OffHeapStore<>(capacityBytes);
+        if (previous != null) previous.clear();
+        return this;
+    }
+
+    private static long toMillis(long duration, TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration must not be negative");
+        }
+        return unit.toMillis(duration);
+    }
 
     /**
-     * Retrieve from cache
+     * Retrieve from cache; expired entries are misses
+     * Time Complexity: O(1), lock-free unless the read buffer needs draining
      */
     public V get(K key) {
-        CacheEntry<V> entry = cache.get(key);
-        if (entry != null) {
-            hits.incrementAndGet();
-            entry.updateAccessTime();
-            return entry.getValue();
-        } else {
-            misses.incrementAndGet();
+        recordAccess(key);
+        CacheShard<K, V> shard = shardFor(key);
+        CacheNode<K, V> node = shard.get(key);
+        if (node != null) {
+            if (!isExpired(node, System.currentTimeMillis())) {
+                recordHit(shard, node);
+                return node.value;
+            }
+            shard.remove(node, RemovalCause.EXPIRED);
+        }
+        V promoted = promote(key);
+        if (promoted != null) return promoted;
+        metricsFor(key).misses.increment();
+        return null;
+    }
+
+    /**
+     * Retrieve from cache, loading and caching the value on a miss.
+     *
+     * - Concurrent misses on one key run the loader once; the other callers wait for its result
+     * - A loader returning null caches nothing and returns null
+     * - Entries due for refresh, or expired but within the stale window, are returned
+     *   immediately while one background reload replaces them
+     * - Loader exceptions propagate to every waiting caller and nothing is cached
+     * - Loaded values are registered under the given dependency tags; a value whose tag
+     *   is invalidated while it loads is returned to the caller but not cached
+     * Time Complexity: O(1) on a hit, plus the loader on a miss
+     */
+    public V get(K key, Function<? super K, ? extends V> loader, String... tags) {
+        recordAccess(key);
+        CacheShard<K, V> shard = shardFor(key);
+        CacheNode<K, V> node = shard.get(key);
+        if (node != null) {
+            long now = System.currentTimeMillis();
+            if (!isExpired(node, now)) {
+                recordHit(shard, node);
+                if (refreshAfterWriteMillis > 0 && now - node.writeTime >= refreshAfterWriteMillis) {
+                    refreshAsync(key, loader, tags);
+                }
+                return node.value;
+            }
+            if (isServableStale(node, now)) {
+                recordHit(shard, node);
+                refreshAsync(key, loader, tags);
+                return node.value;
+            }
+            shard.remove(node, RemovalCause.EXPIRED);
+        }
+        V promoted = promote(key);
+        if (promoted != null) return promoted;
+        metricsFor(key).misses.increment();
+        return load(key, loader, tags);
+    }
+
+    private void recordAccess(K key) {
+        accessProfile.record(key);
+        AccessTrace.Recorder trace = traceRecorder;
+        if (trace != null) trace.record(key.hashCode());
+    }
+
+    /**
+     * get(key, loader, tags) with an access hint; AccessHint.SCAN returns a cached value
+     * if there is one and otherwise calls the loader without caching the result.
+     * Scan reads are not counted as hits or misses, so the hit rate keeps describing
+     * interactive lookups.
+     * Time Complexity: O(1), plus the loader on a miss
+     */
+    public V get(K key, AccessHint hint, Function<? super K, ? extends V> loader, String... tags) {
+        if (hint != AccessHint.SCAN) return get(key, loader, tags);
+        CacheNode<K, V> node = shardFor(key).get(key);
+        if (node != null && !isExpired(node, System.currentTimeMillis())) {
+            return node.value;
+        }
+        return loader.apply(key);
+    }
+
+    private void recordHit(CacheShard<K, V> shard, CacheNode<K, V> node) {
+        metricsFor(node.key).hits.increment();
+        node.updateAccessTime();
+        shard.afterRead(node);
+    }
+
+    /**
+     * Capacity victims go to the off-heap tier, if there is one.
+     * Called by the shards outside their eviction lock.
+     *
+     * - Published like a load: register tags, check the generations the value was
+     *   computed under, store, register again and re-check; an invalidateTag between
+     *   the eviction and the store therefore never leaves a stale copy off-heap
+     */
+    private void demote(CacheNode<K, V> node) {
+        OffHeapStore<K> store = offHeap;
+        if (store == null || isExpired(node, System.currentTimeMillis())) return;
+        byte[] data = Serialization.toBytes(node.value);
+        if (data == null) return;
+
+        registerTags(node.key, node.tags);
+        if (!tagsUnchanged(node.tags, node.tagGenerations)) return; // onRemoval unregisters
+        store.put(node.key, data, node.writeTime, node.tags, node.tagGenerations).forEach(this::unregisterTags);
+        registerTags(node.key, node.tags);
+        if (!tagsUnchanged(node.tags, node.tagGenerations)) removeOffHeap(store, node.key);
+    }
+
+    private void removeOffHeap(OffHeapStore<K> store, K key) {
+        String[] tags = store.remove(key);
+        if (tags != null) unregisterTags(key, tags);
+    }
+
+    /**
+     * Moves the key from the off-heap tier back on-heap, keeping its write time and the
+     * tag generations it was computed under, so publish() drops a value whose tag was
+     * invalidated while it was between tiers.
+     *
+     * @return the value, or null if the tier does not hold a live, current entry for the key
+     */
+    @SuppressWarnings("unchecked")
+    private V promote(K key) {
+        OffHeapStore<K> store = offHeap;
+        if (store == null) return null;
+        OffHeapStore.Entry entry = store.take(key);
+        if (entry == null) return null;
+
+        V value = (V) entry.value;
+        CacheNode<K, V> node = value == null ? null : new CacheNode<>(key, value,
+                weigher.weigh(key, value), entry.writeTime, entry.tags, entry.tagGenerations);
+        if (node == null || isExpired(node, System.currentTimeMillis())) {
+            unregisterTags(key, entry.tags);
             return null;
         }
+        if (!publish(node)) return null;
+
+        NamespaceMetrics metrics = metricsFor(key);
+        metrics.hits.increment();
+        metrics.offHeapHits.increment();
+        return value;
+    }
+
+    private boolean isExpired(CacheNode<K, V> node, long now) {
+        return expiresAt(node) <= now;
+    }
+
+    /** Expiry time in epoch millis, Long.MAX_VALUE if the entry never expires. */
+    private long expiresAt(CacheNode<K, V> node) {
+        long expiresAt = Long.MAX_VALUE;
+        if (expireAfterWriteMillis > 0) {
+            expiresAt = node.writeTime + expireAfterWriteMillis;
+        }
+        if (expireAfterAccessMillis > 0) {
+            expiresAt = Math.min(expiresAt, node.getLastAccessTime() + expireAfterAccessMillis);
+        }
+        return expiresAt;
+    }
+
+    private boolean isServableStale(CacheNode<K, V> node, long now) {
+        return staleWhileRevalidateMillis > 0 && now - expiresAt(node) < staleWhileRevalidateMillis;
     }
 
     /**
-     * Add or update cache entry
+     * Single-flight load: the first caller runs the loader, the rest join its future.
      */
-    public void put(K key, V value) {
-        if (cache.size() >= MAX_SIZE) {
-            evictLRU();
+    private V load(K key, Function<? super K, ? extends V> loader, String[] tags) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        try {
+            // Another caller may have finished loading between our miss and putIfAbsent
+            CacheNode<K, V> node = shardFor(key).get(key);
+            V value;
+            if (node != null && !isExpired(node, System.currentTimeMillis())) {
+                value = node.value;
+            } else {
+                long[] generations = tagGenerations(tags);
+                value = timedLoad(key, loader);
+                if (value != null) putLoaded(key, value, tags, generations);
+            }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
         }
-        cache.put(key, new CacheEntry<>(value));
     }
 
     /**
-     * Evict least recently used entry
+     * Reloads the key in the background unless a load is already in flight.
+     * A failed refresh keeps the current value.
      */
-    private void evictLRU() {
-        K lruKey = cache.entrySet()
-                .stream()
-                .min(Comparator.comparingLong(e -> e.getValue().getLastAccessTime()))
-                .map(Map.Entry::getKey)
-                .orElse(null);
+    private void refreshAsync(K key, Function<? super K, ? extends V> loader, String[] tags) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, future) != null) return;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    long[] generations = tagGenerations(tags);
+                    V value = timedLoad(key, loader);
+                    if (value != null) putLoaded(key, value, tags, generations);
+                    future.complete(value);
+                } catch (RuntimeException | Error e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    loading.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(key, future);
+            future.completeExceptionally(e);
+        }
+    }
 
-        if (lruKey != null) {
-            cache.remove(lruKey);
-            evictions.incrementAndGet();
-            System.out.println("Evicted LRU cache entry: " + lruKey);
+    /**
+     * Caches a loaded value unless one of its tags was invalidated since the load began.
+     * Tags are registered before the value is visible, and the generations are checked
+     * again after the put: an invalidation that misses the entry in the tag's key set must
+     * have moved the generation before that check, so the entry is removed here instead.
+     *
+     * @return false if the value was not (or is no longer) cached
+     */
+    private boolean putLoaded(K key, V value, String[] tags, long[] generations) {
+        return publish(newNode(key, value, tags, generations));
+    }
+
+    /**
+     * putLoaded for a node already built; the node's tagGenerations are the ones checked.
+     */
+    private boolean publish(CacheNode<K, V> node) {
+        String[] tags = node.tags;
+        registerTags(node.key, tags);
+        if (!tagsUnchanged(tags, node.tagGenerations)) {
+            unregisterTags(node.key, tags);
+            return false;
+        }
+        shardFor(node.key).put(node);
+        // Registered again: the removal of an older entry for the key may have
+        // unregistered it between the first registration and the put
+        registerTags(node.key, tags);
+        if (!tagsUnchanged(tags, node.tagGenerations)) {
+            invalidate(node.key);
+            return false;
+        }
+        // Evicted by its own put (or already replaced): nothing left to register for
+        if (shardFor(node.key).get(node.key) != node) unregisterTags(node.key, node.tags);
+        return true;
+    }
+
+    private long[] tagGenerations(String[] tags) {
+        long[] generations = new long[tags.length];
+        for (int i = 0; i < tags.length; i++) {
+            generations[i] = tagGenerations.getOrDefault(tags[i], 0L);
+        }
+        return generations;
+    }
+
+    private boolean tagsUnchanged(String[] tags, long[] generations) {
+        for (int i = 0; i < tags.length; i++) {
+            if (tagGenerations.getOrDefault(tags[i], 0L) != generations[i]) return false;
+        }
+        return true;
+    }
+
+    private void registerTags(K key, String[] tags) {
+        for (String tag : tags) {
+            tagIndex.compute(tag, (t, keys) -> {
+                if (keys == null) keys = ConcurrentHashMap.newKeySet();
+                keys.add(key);
+                return keys;
+            });
+        }
+    }
+
+    /**
+     * Drops the key from each tag's set unless an entry in either tier still carries the tag.
+     * Called after an entry leaves a tier; publish() re-registers after its put, so an entry
+     * made visible concurrently is never left unregistered.
+     * Time Complexity: O(tags)
+     */
+    private void unregisterTags(K key, String[] tags) {
+        for (String tag : tags) {
+            tagIndex.computeIfPresent(tag, (t, keys) -> {
+                if (!isTagged(key, t)) keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private boolean isTagged(K key, String tag) {
+        CacheNode<K, V> node = shardFor(key).get(key);
+        if (node != null && node.hasTag(tag)) return true;
+        OffHeapStore<K> store = offHeap;
+        return store != null && store.hasTag(key, tag);
+    }
+
+    /**
+     * Runs the loader, recording its latency (and failure) in the key's namespace.
+     */
+    private V timedLoad(K key, Function<? super K, ? extends V> loader) {
+        NamespaceMetrics metrics = metricsFor(key);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            V value = loader.apply(key);
+            success = true;
+            return value;
+        } finally {
+            metrics.loadTimes.record(System.nanoTime() - start);
+            if (!success) metrics.loadFailures.increment();
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
         }
     }
 
+    /**
+     * Add or update cache entry
+     * Time Complexity: O(1) amortised
+     */
+    public void put(K key, V value) {
+        shardFor(key).put(newNode(key, value, NO_TAGS, NO_GENERATIONS));
+    }
+
+    private CacheNode<K, V> newNode(K key, V value, String[] tags, long[] generations) {
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight for key " + key);
+        }
+        return new CacheNode<>(key, value, weight, tags, generations);
+    }
+
+    /**
+     * Add or update a cache entry that depends on the given tags, so invalidateTag
+     * on any of them removes it. Callers that computed the value from data a concurrent
+     * write may change should use get(key, loader, tags), which also detects that race.
+     * Time Complexity: O(1 + tags) amortised
+     */
+    public void put(K key, V value, String... tags) {
+        // Tags are registered before the entry is visible, so an invalidateTag that runs
+        // once the entry exists always finds the key; one that runs during the put drops it
+        publish(newNode(key, value, tags, tagGenerations(tags)));
+    }
+
     /**
      * Invalidate a specific entry
      */
     public void invalidate(K key) {
-        if (cache.remove(key) != null) {
-            evictions.incrementAndGet();
-            System.out.println("Cache invalidated for key: " + key);
+        shardFor(key).remove(key, RemovalCause.EXPLICIT);
+        OffHeapStore<K> store = offHeap;
+        if (store != null) removeOffHeap(store, key);
+    }
+
+    /**
+     * Invalidate every entry registered under the tag.
+     * Time Complexity: O(keys registered under the tag)
+     *
+     * @return number of entries removed
+     */
+    public int invalidateTag(String tag) {
+        // Moved first, so a load racing with this call either sees the new generation or
+        // has already registered its key in the set removed below
+        tagGenerations.merge(tag, 1L, Long::sum);
+        Set<K> keys = tagIndex.remove(tag);
+        if (keys == null) return 0;
+        OffHeapStore<K> store = offHeap;
+        int removed = 0;
+        for (K key : keys) {
+            boolean onHeap = shardFor(key).remove(key, RemovalCause.EXPLICIT) != null;
+            String[] offHeapTags = store == null ? null : store.remove(key);
+            // The key's other tags still name it
+            if (offHeapTags != null) unregisterTags(key, offHeapTags);
+            if (onHeap || offHeapTags != null) removed++;
         }
+        return removed;
     }
 
     /**
      * Clear all cache entries
      */
     public void clearCache() {
-        cache.clear();
+        for (CacheShard<K, V> shard : shards) {
+            shard.clear();
+        }
+        tagIndex.clear();
+        accessProfile.clear();
+        OffHeapStore<K> store = offHeap;
+        if (store != null) store.clear();
         System.out.println("Cache cleared");
     }
 
+    /**
+     * Time Complexity: O(shards)
+     */
+    public int size() {
+        int size = 0;
+        for (CacheShard<K, V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Capacity in weight units (an entry count for the default weigher).
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Total weight of the resident entries.
+     */
+    public long getWeightedSize() {
+        long weight = 0;
+        for (CacheShard<K, V> shard : shards) {
+            weight += shard.weightedSize();
+        }
+        return weight;
+    }
+
+    /**
+     * Estimated heap bytes held by the cache: keys, values and per-entry overhead.
+     * Time Complexity: O(n) over the entries; meant for stats, not the hot path
+     */
+    public long estimatedMemoryBytes() {
+        long bytes = 0;
+        for (CacheShard<K, V> shard : shards) {
+            for (CacheNode<K, V> node : shard.nodes()) {
+                bytes += ENTRY_OVERHEAD + MemoryEstimator.estimate(node.key) + MemoryEstimator.estimate(node.value);
+            }
+        }
+        return bytes;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getHitCount() {
+        long sum = 0;
+        for (NamespaceMetrics m : namespaces.metrics) sum += m.hits.sum();
+        return sum;
+    }
+
+    public long getMissCount() {
+        long sum = 0;
+        for (NamespaceMetrics m : namespaces.metrics) sum += m.misses.sum();
+        return sum;
+    }
+
+    /**
+     * Entries removed for capacity, expiry or invalidation (not replacement).
+     */
+    public long getEvictionCount() {
+        long sum = 0;
+        for (NamespaceMetrics m : namespaces.metrics) {
+            sum += m.removals(RemovalCause.SIZE) + m.removals(RemovalCause.EXPIRED) + m.removals(RemovalCause.EXPLICIT);
+        }
+        return sum;
+    }
+
+    /**
+     * Statistics of the whole cache.
+     * Time Complexity: O(shards + namespaces)
+     */
+    public CacheStats stats() {
+        NamespaceMetrics[] metrics = namespaces.metrics;
+        return snapshot("all", metrics, size(), getWeightedSize());
+    }
+
+    /**
+     * Statistics per key namespace, in metricsNamespaces order, then OTHER_NAMESPACE.
+     * Time Complexity: O(n) over the entries, to size each namespace
+     */
+    public Map<String, CacheStats> namespaceStats() {
+        Namespaces current = namespaces;
+        long[] entries = new long[current.metrics.length];
+        long[] weights = new long[current.metrics.length];
+        for (CacheShard<K, V> shard : shards) {
+            for (CacheNode<K, V> node : shard.nodes()) {
+                int i = current.indexOf(node.key);
+                entries[i]++;
+                weights[i] += node.weight;
+            }
+        }
+        Map<String, CacheStats> result = new LinkedHashMap<>();
+        for (int i = 0; i < current.metrics.length; i++) {
+            NamespaceMetrics m = current.metrics[i];
+            result.put(m.namespace, snapshot(m.namespace, new NamespaceMetrics[]{m}, entries[i], weights[i]));
+        }
+        return result;
+    }
+
+    private static CacheStats snapshot(String name, NamespaceMetrics[] metrics, long entries, long weight) {
+        long hits = 0, misses = 0, offHeapHits = 0, attempts = 0, failures = 0, loadNanos = 0;
+        long[] removals = new long[RemovalCause.values().length];
+        long[] loadBuckets = LoadTimeHistogram.newCounts();
+        for (NamespaceMetrics m : metrics) {
+            hits += m.hits.sum();
+            misses += m.misses.sum();
+            offHeapHits += m.offHeapHits.sum();
+            attempts += m.loadTimes.count();
+            failures += m.loadFailures.sum();
+            loadNanos += m.loadTimes.totalNanos();
+            m.loadTimes.addTo(loadBuckets);
+            for (RemovalCause cause : RemovalCause.values()) removals[cause.ordinal()] += m.removals(cause);
+        }
+        return new CacheStats(name, System.currentTimeMillis(), 0, hits, misses, offHeapHits,
+                attempts - failures, failures, loadNanos,
+                LoadTimeHistogram.percentileNanos(loadBuckets, 0.50),
+                LoadTimeHistogram.percentileNanos(loadBuckets, 0.99),
+                removals, entries, weight);
+    }
+
+    /**
+     * Registers the cache (and each namespace) with the platform MBean server as
+     * Caching:type=Cache,name=&lt;name&gt;[,namespace=&lt;prefix&gt;], replacing earlier registrations.
+     */
+    public void registerMBeans(String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            register(server, new ObjectName("Caching:type=Cache,name=" + ObjectName.quote(name)),
+                    new CacheStatsMXBeanImpl(this::stats));
+            for (String namespace : namespaceStats().keySet()) {
+                register(server, new ObjectName("Caching:type=Cache,name=" + ObjectName.quote(name)
+                                + ",namespace=" + ObjectName.quote(namespace)),
+                        new CacheStatsMXBeanImpl(() -> namespaceStats().get(namespace)));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register cache MBeans for " + name, e);
+        }
+    }
+
+    private static void register(MBeanServer server, ObjectName objectName, Object mbean) throws JMException {
+        if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+        server.registerMBean(mbean, objectName);
+    }
+
+    /**
+     * (tag, key) pairs in the tag index; bounded by the tagged entries held in either tier.
+     * Time Complexity: O(tags)
+     */
+    public int getTagRegistrationCount() {
+        int count = 0;
+        for (Set<K> keys : tagIndex.values()) count += keys.size();
+        return count;
+    }
+
+    /**
+     * Entries held in the off-heap tier (0 when it is disabled).
+     */
+    public int getOffHeapSize() {
+        OffHeapStore<K> store = offHeap;
+        return store == null ? 0 : store.size();
+    }
+
+    /**
+     * Misses on-heap that were served by promoting from the off-heap tier.
+     */
+    public long getOffHeapHitCount() {
+        long sum = 0;
+        for (NamespaceMetrics m : namespaces.metrics) sum += m.offHeapHits.sum();
+        return sum;
+    }
+
+    /**
+     * Writes every live, serialisable entry with a data version to a compact snapshot file.
+     * Time Complexity: O(n) serialisations
+     *
+     * @param versionOf version of the data a key was derived from (e.g. a fingerprint of the
+     *                  student record); keys mapped to null are not saved
+     * @return entries written
+     */
+    public int saveSnapshot(Path file, Function<? super K, Long> versionOf) throws IOException {
+        long now = System.currentTimeMillis();
+        int written = 0;
+        try (CacheSnapshot.Writer writer = new CacheSnapshot.Writer(file)) {
+            for (CacheShard<K, V> shard : shards) {
+                for (CacheNode<K, V> node : shard.nodes()) {
+                    if (isExpired(node, now)) continue;
+                    Long version = versionOf.apply(node.key);
+                    if (version == null) continue;
+                    byte[] key = Serialization.toBytes(node.key);
+                    byte[] value = Serialization.toBytes(node.value);
+                    if (key == null || value == null) continue;
+
+                    writer.write(new CacheSnapshot.Record(key, value, node.writeTime, version, node.tags));
+                    written++;
+                }
+            }
+            writer.finish();
+        }
+        return written;
+    }
+
+    /**
+     * Restores a snapshot written by saveSnapshot. Entries are skipped when their data
+     * version no longer matches versionOf, they have expired, their classes changed,
+     * or the key was cached again in the meantime. An entry whose tag is invalidated
+     * between the version check and the restore is dropped, as for a racing load.
+     * Time Complexity: O(n) deserialisations
+     *
+     * @return entries restored (0 if the file is missing or not a current-format snapshot)
+     */
+    @SuppressWarnings("unchecked")
+    public int loadSnapshot(Path file, Function<? super K, Long> versionOf) throws IOException {
+        if (!Files.exists(file)) return 0;
+        int[] restored = {0};
+        CacheSnapshot.read(file, record -> {
+            K key = (K) Serialization.fromBytes(record.key);
+            if (key == null || shardFor(key).get(key) != null) return;
+            long[] generations = tagGenerations(record.tags);
+            Long version = versionOf.apply(key);
+            if (version == null || version != record.dataVersion) return;
+            V value = (V) Serialization.fromBytes(record.value);
+            if (value == null) return;
+
+            CacheNode<K, V> node = new CacheNode<>(key, value, weigher.weigh(key, value),
+                    record.writeTime, record.tags, generations);
+            if (isExpired(node, System.currentTimeMillis())) return;
+            if (publish(node)) restored[0]++;
+        });
+        return restored[0];
+    }
+
+    /**
+     * loadSnapshot on the refresh executor, so startup does not wait for it.
+     * versionOf then runs concurrently with the caller, so it must be safe to call
+     * while the source data is being written.
+     */
+    public CompletableFuture<Integer> loadSnapshotAsync(Path file, Function<? super K, Long> versionOf) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadSnapshot(file, versionOf);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, refreshExecutor);
+    }
+
+    /**
+     * Most frequently looked-up keys (sampled), hottest first.
+     */
+    public List<K> hottestKeys(int limit) {
+        List<K> keys = new ArrayList<>();
+        for (Map.Entry<K, Integer> e : accessProfile.hottest(limit)) keys.add(e.getKey());
+        return keys;
+    }
+
+    /**
+     * Writes the access profile as "count TAB key" lines, hottest first.
+     * Keys are written with toString(), so this suits String-keyed caches.
+     *
+     * @return keys written
+     */
+    public int saveAccessProfile(Path file) throws IOException {
+        List<Map.Entry<K, Integer>> hottest = accessProfile.hottest(AccessProfile.MAX_KEYS);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (Map.Entry<K, Integer> e : hottest) {
+                out.write(e.getValue() + "\t" + e.getKey());
+                out.newLine();
+            }
+        }
+        return hottest.size();
+    }
+
+    /**
+     * Keys of a saved access profile, hottest first; empty if the file does not exist.
+     */
+    public static List<String> readAccessProfile(Path file) throws IOException {
+        List<String> keys = new ArrayList<>();
+        if (!Files.exists(file)) return keys;
+        for (String line : Files.readAllLines(file)) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) keys.add(line.substring(tab + 1));
+        }
+        return keys;
+    }
+
+    /**
+     * Starts logging every lookup (get, and get with a loader; not scan reads) to the
+     * file, replacing its contents; a recording already in progress is finished first.
+     * The file is written on the scheduler thread (the registry's maintenance thread
+     * for a registered cache).
+     */
+    public synchronized void startTraceRecording(Path file) throws IOException {
+        stopTraceRecording();
+        traceRecorder = new AccessTrace.Recorder(file, scheduler());
+    }
+
+    /**
+     * Writes out every pending lookup and finishes the trace file.
+     *
+     * @return lookups recorded (0 if no recording was in progress)
+     */
+    public synchronized long stopTraceRecording() throws IOException {
+        AccessTrace.Recorder trace = traceRecorder;
+        if (trace == null) return 0;
+        traceRecorder = null;
+        try {
+            trace.close();
+        } finally {
+            releaseSchedulerIfIdle();
+        }
+        return trace.recorded();
+    }
+
+    /**
+     * Removes expired entries that can no longer be served stale, and applies buffered
+     * reads to the eviction order. Lookups only expire the entries they touch, so without
+     * this an expired entry that is never read again keeps its capacity until evicted.
+     * Time Complexity: O(n)
+     *
+     * @return entries removed
+     */
+    public int cleanUp() {
+        long now = System.currentTimeMillis();
+        boolean expires = expireAfterWriteMillis > 0 || expireAfterAccessMillis > 0;
+        int removed = 0;
+        for (CacheShard<K, V> shard : shards) {
+            shard.drainPendingReads();
+            if (!expires) continue;
+            for (CacheNode<K, V> node : shard.nodes()) {
+                if (isExpired(node, now) && !isServableStale(node, now)
+                        && shard.remove(node, RemovalCause.EXPIRED)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Runs startAutoRefresh tasks on the registry's shared scheduler instead of a thread of
+     * this cache's own. Called by CacheRegistry before the cache is handed out.
+     */
+    synchronized void useScheduler(ScheduledExecutorService shared) {
+        this.scheduler = shared;
+        this.ownsScheduler = false;
+    }
+
     /**
      * Start background refresh with custom task
+     *
+     * - Runs on the owning CacheRegistry's scheduler; a cache outside a registry creates
+     *   its own daemon thread on first use
      */
-    public void startAutoRefresh(long intervalSeconds, Runnable refreshTask) {
-        scheduler.scheduleAtFixedRate(() -> {
+    public synchronized void startAutoRefresh(long intervalSeconds, Runnable refreshTask) {
+        autoRefreshTasks.add(scheduler().scheduleAtFixedRate(() -> {
             try {
                 refreshTask.run();
             } catch (Exception e) {
                 System.err.println("Error refreshing cache: " + e.getMessage());
             }
-        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS));
     }
 
     /**
      * Stop background refresh
      */
-    public void stopAutoRefresh() {
-        scheduler.shutdownNow();
+    public synchronized void stopAutoRefresh() {
+        for (ScheduledFuture<?> task : autoRefreshTasks) task.cancel(true);
+        autoRefreshTasks.clear();
+        releaseSchedulerIfIdle();
     }
 
     /**
-     * Display cache statistics
+     * The registry's scheduler, or this cache's own daemon thread, created on first use.
+     * Caller holds this.
      */
-    public void printStats() {
-        int totalEntries = cache.size();
-        double hitRate = totalEntries == 0 ? 0 : (hits.get() * 100.0) / (hits.get() + misses.get());
-        double missRate = 100 - hitRate;
-
-        System.out.println("CACHE STATISTICS");
-        System.out.println("----------------");
-        System.out.println("Total Entries: " + totalEntries);
-        System.out.printf("Hits: %d (%.2f%%)%n", hits.get(), hitRate);
-        System.out.printf("Misses: %d (%.2f%%)%n", misses.get(), missRate);
-        System.out.println("Evictions: " + evictions.get());
-        System.out.println("Memory Usage (approx): " + (totalEntries * 200) + " KB"); // rough estimate
+    private ScheduledExecutorService scheduler() {
+        if (scheduler == null || scheduler.isShutdown()) {
+            scheduler = CacheRegistry.newDaemonScheduler("cache-refresh");
+            ownsScheduler = true;
+        }
+        return scheduler;
     }
 
     /**
-     * Show all cache contents with last access timestamp
+     * Stops this cache's own scheduler once neither auto-refresh nor a trace needs it.
+     * Caller holds this.
      */
-    public void displayCacheContents() {
-        System.out.println("CACHE CONTENTS");
-        System.out.println("--------------");
-        cache.forEach((key, entry) -> {
-            System.out.println(key + " | Last Accessed: " + Instant.ofEpochMilli(entry.getLastAccessTime()));
-        });
+    private void releaseSchedulerIfIdle() {
+        if (ownsScheduler && autoRefreshTasks.isEmpty() && traceRecorder == null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            ownsScheduler = false;
+        }
     }
 
     /**
-     * Cache entry wrapper
+     * Display cache statistics
      */
-    private static class CacheEntry<V> {
-        private final V value;
-        private long lastAccessTime;
-
-        public CacheEntry(V value) {
-            this.value = value;
-            this.lastAccessTime = System.currentTimeMillis();
-        }
+    public void printStats() {
+        CacheStats stats = stats();
+        double hitRate = stats.hitRate() * 100;
+        double missRate = stats.getRequestCount() == 0 ? 0 : 100 - hitRate;
 
-        public V getValue() {
-            return value;
+        System.out.println("CACHE STATISTICS");
+        System.out.println("----------------");
+        System.out.println("Total Entries: " + stats.getEntryCount());
+        System.out.printf("Weighted Size: %d / %d%n", stats.getWeightedSize(), maxWeight);
+        System.out.printf("Hits: %d (%.2f%%)%n", stats.getHitCount(), hitRate);
+        System.out.printf("Misses: %d (%.2f%%)%n", stats.getMissCount(), missRate);
+        System.out.printf("Evictions: %d (size %d, expired %d, invalidated %d)%n",
+                stats.getEvictionCount(),
+                stats.getRemovalCount(RemovalCause.SIZE),
+                stats.getRemovalCount(RemovalCause.EXPIRED),
+                stats.getRemovalCount(RemovalCause.EXPLICIT));
+        System.out.printf("Loads: %d (%d failed), avg %.2f ms, p50 <= %.2f ms, p99 <= %.2f ms%n",
+                stats.getLoadCount(), stats.getLoadFailureCount(), stats.averageLoadMillis(),
+                stats.getLoadP50Nanos() / 1e6, stats.getLoadP99Nanos() / 1e6);
+        System.out.printf("Memory Usage (estimated): %.1f KB%n", estimatedMemoryBytes() / 1024.0);
+        OffHeapStore<K> store = offHeap;
+        if (store != null) {
+            System.out.printf("Off-heap Tier: %d entries, %.1f / %.1f KB, %d promotions%n",
+                    store.size(), store.usedBytes() / 1024.0, store.capacityBytes() / 1024.0,
+                    stats.getOffHeapHitCount());
         }
 
-        public long getLastAccessTime() {
-            return lastAccessTime;
+        Map<String, CacheStats> byNamespace = namespaceStats();
+        if (byNamespace.size() > 1) {
+            System.out.printf("%n%-18s %8s %10s %8s %8s %10s %12s%n",
+                    "NAMESPACE", "ENTRIES", "WEIGHT", "HITS", "MISSES", "EVICTIONS", "AVG LOAD MS");
+            for (CacheStats ns : byNamespace.values()) {
+                System.out.printf("%-18s %8d %10d %8d %8d %10d %12.2f%n",
+                        ns.getNamespace(), ns.getEntryCount(), ns.getWeightedSize(), ns.getHitCount(),
+                        ns.getMissCount(), ns.getEvictionCount(), ns.averageLoadMillis());
+            }
         }
+    }
 
-        public void updateAccessTime() {
-            lastAccessTime = System.currentTimeMillis();
+    /**
+     * Show all cache contents with last access timestamp
+     */
+    public void displayCacheContents() {
+        System.out.println("CACHE CONTENTS");
+        System.out.println("--------------");
+        for (CacheShard<K, V> shard : shards) {
+            for (CacheNode<K, V> entry : shard.nodes()) {
+                System.out.println(entry.key + " | Last Accessed: " + Instant.ofEpochMilli(entry.getLastAccessTime()));
+            }
         }
     }
 }
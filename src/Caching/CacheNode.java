@@ -0,0 +1,57 @@
+package Caching;
+
+/**
+ * Cache entry: the value plus its links in the eviction order.
+ * Key, value and access time are read lock-free; the links are only
+ * touched under the cache's eviction lock.
+ */
+final class CacheNode<K, V> {
+
+    final K key;
+    final V value;
+    final int weight;
+    final long writeTime;
+    // Dependency tags the entry is registered under in the cache's tag index, and each
+    // tag's generation when the value was computed; both follow the entry between tiers
+    final String[] tags;
+    final long[] tagGenerations;
+    private volatile long lastAccessTime;
+
+    // Guarded by the eviction lock
+    CacheNode<K, V> prev;
+    CacheNode<K, V> next;
+    boolean linked;
+    byte queue; // which deque of the eviction strategy holds the node
+
+    CacheNode(K key, V value, int weight, String[] tags, long[] tagGenerations) {
+        this(key, value, weight, System.currentTimeMillis(), tags, tagGenerations);
+    }
+
+    /**
+     * @param writeTime original write time, kept when an entry moves between tiers
+     */
+    CacheNode(K key, V value, int weight, long writeTime, String[] tags, long[] tagGenerations) {
+        this.key = key;
+        this.value = value;
+        this.weight = weight;
+        this.writeTime = writeTime;
+        this.tags = tags;
+        this.tagGenerations = tagGenerations;
+        this.lastAccessTime = System.currentTimeMillis();
+    }
+
+    long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    void updateAccessTime() {
+        lastAccessTime = System.currentTimeMillis();
+    }
+
+    boolean hasTag(String tag) {
+        for (String t : tags) {
+            if (t.equals(tag)) return true;
+        }
+        return false;
+    }
+}
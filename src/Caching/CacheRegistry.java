@@ -0,0 +1,209 @@
+package Caching;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the application's named caches.
+ *
+ * - Each cache is created from code defaults (CacheConfig) overridden by the
+ *   "cache.&lt;name&gt;.*" entries of a properties file, so sizes, TTLs and policies can
+ *   be tuned without a rebuild
+ * - One daemon scheduler thread serves every cache: it runs cleanUp() (expiry and
+ *   pending eviction-order updates) every "registry.maintenanceInterval" (default 30s)
+ *   and any startAutoRefresh tasks
+ * - printStats() is one combined view of all caches
+ * - "cache.&lt;name&gt;.traceFile" records the cache's lookups (see AccessTrace) until close();
+ *   the scheduler thread writes the trace, so lookups never wait on the file
+ *
+ * Example file:
+ *
+ *   registry.maintenanceInterval=30s
+ *   cache.shared.maxBytes=8MB
+ *   cache.shared.expireAfterWrite=10m
+ *   cache.classStatistics.policy=LRU
+ */
+public final class CacheRegistry implements AutoCloseable {
+
+    public static final long DEFAULT_MAINTENANCE_INTERVAL_MILLIS = 30_000;
+
+    private final Properties config;
+    private final long maintenanceIntervalMillis;
+
+    // Registration order is the display order; guarded by this
+    private final Map<String, CacheManager<?, ?>> caches = new LinkedHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private volatile long lastCleanUpRemoved;
+
+    public CacheRegistry() {
+        this(new Properties());
+    }
+
+    /**
+     * @throws IllegalArgumentException if registry.maintenanceInterval cannot be parsed
+     */
+    public CacheRegistry(Properties config) {
+        this.config = config;
+        String interval = config.getProperty("registry.maintenanceInterval");
+        this.maintenanceIntervalMillis = interval == null ? DEFAULT_MAINTENANCE_INTERVAL_MILLIS
+                : Math.max(1, CacheConfig.parseMillis("registry.maintenanceInterval", interval.trim()));
+    }
+
+    /**
+     * Registry configured from a properties file; a missing file means all defaults.
+     */
+    public static CacheRegistry load(Path file) throws IOException {
+        Properties config = new Properties();
+        if (Files.exists(file)) {
+            try (Reader in = Files.newBufferedReader(file)) {
+                config.load(in);
+            }
+        }
+        return new CacheRegistry(config);
+    }
+
+    /**
+     * The cache registered under this name, created from the defaults (with this
+     * registry's overrides applied) on first request. Overrides that cannot be parsed
+     * are reported on stderr and the defaults are used, so a typo never stops startup.
+     *
+     * @throws IllegalStateException if the registry has been closed
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <K, V> CacheManager<K, V> cache(String name, CacheConfig defaults) {
+        CacheManager<?, ?> existing = caches.get(name);
+        if (existing != null) return (CacheManager<K, V>) existing;
+        if (scheduler != null && scheduler.isShutdown()) {
+            throw new IllegalStateException("Cache registry is closed");
+        }
+
+        CacheConfig effective;
+        try {
+            effective = defaults.withOverrides(config, name);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring configuration of cache " + name + ": " + e.getMessage());
+            effective = defaults;
+        }
+        CacheManager<K, V> cache = effective.build();
+        cache.useScheduler(scheduler());
+        if (effective.traceFile() != null) {
+            try {
+                cache.startTraceRecording(effective.traceFile());
+            } catch (IOException e) {
+                System.err.println("Not recording a trace for cache " + name + ": " + e.getMessage());
+            }
+        }
+        caches.put(name, cache);
+        return cache;
+    }
+
+    public synchronized List<String> names() {
+        return new ArrayList<>(caches.keySet());
+    }
+
+    /**
+     * Runs cleanUp() on every cache now; the scheduler calls this periodically.
+     *
+     * @return expired entries removed
+     */
+    public int cleanUp() {
+        int removed = 0;
+        for (CacheManager<?, ?> cache : snapshot().values()) {
+            removed += cache.cleanUp();
+        }
+        lastCleanUpRemoved = removed;
+        return removed;
+    }
+
+    /**
+     * Registers every cache's MBeans under its registry name (see CacheManager.registerMBeans).
+     */
+    public void registerMBeans() {
+        snapshot().forEach((name, cache) -> cache.registerMBeans(name));
+    }
+
+    /**
+     * Combined view: one summary line per cache, then each cache's own statistics.
+     */
+    public void printStats() {
+        Map<String, CacheManager<?, ?>> all = snapshot();
+        System.out.println("CACHE REGISTRY");
+        System.out.println("--------------");
+        System.out.printf("%-16s %-11s %8s %21s %9s %10s %12s%n",
+                "CACHE", "POLICY", "ENTRIES", "WEIGHT / MAX", "HIT RATE", "EVICTIONS", "AVG LOAD MS");
+        for (Map.Entry<String, CacheManager<?, ?>> e : all.entrySet()) {
+            CacheManager<?, ?> cache = e.getValue();
+            CacheStats stats = cache.stats();
+            System.out.printf("%-16s %-11s %8d %21s %8.1f%% %10d %12.2f%n",
+                    e.getKey(), cache.getPolicy(), stats.getEntryCount(),
+                    stats.getWeightedSize() + " / " + cache.getMaxWeight(),
+                    stats.hitRate() * 100, stats.getEvictionCount(), stats.averageLoadMillis());
+        }
+        System.out.printf("Maintenance: every %d s on one shared thread; last run removed %d expired entries%n",
+                TimeUnit.MILLISECONDS.toSeconds(maintenanceIntervalMillis), lastCleanUpRemoved);
+
+        for (Map.Entry<String, CacheManager<?, ?>> e : all.entrySet()) {
+            System.out.println("\n[" + e.getKey() + "]");
+            e.getValue().printStats();
+        }
+    }
+
+    /**
+     * Stops the maintenance thread and every auto-refresh task, and finishes trace files.
+     */
+    @Override
+    public synchronized void close() {
+        // Traces first: they are written on the scheduler thread, and interrupting a
+        // FileChannel write would close the trace file before its last lookups
+        caches.forEach((name, cache) -> {
+            try {
+                cache.stopTraceRecording();
+            } catch (IOException e) {
+                System.err.println("Could not finish the trace of cache " + name + ": " + e.getMessage());
+            }
+        });
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    private synchronized Map<String, CacheManager<?, ?>> snapshot() {
+        return new LinkedHashMap<>(caches);
+    }
+
+    /**
+     * Created with the first cache, so an empty registry starts no thread.
+     */
+    private ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = newDaemonScheduler("cache-maintenance");
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    cleanUp();
+                } catch (Exception e) {
+                    System.err.println("Error during cache maintenance: " + e.getMessage());
+                }
+            }, maintenanceIntervalMillis, maintenanceIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return scheduler;
+    }
+
+    /**
+     * Single-thread scheduler whose thread never keeps the JVM alive.
+     */
+    static ScheduledExecutorService newDaemonScheduler(String threadName) {
+        return Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package Caching;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * One independent segment of a CacheManager: its own map, eviction lock,
+ * eviction strategy and read buffer, bounded by its share of the capacity.
+ * Threads working on keys in different shards never contend.
+ * Every removed node is reported to the removal listener, with its cause,
+ * after the lock is released.
+ */
+final class CacheShard<K, V> {
+
+    private final ConcurrentHashMap<K, CacheNode<K, V>> map = new ConcurrentHashMap<>();
+
+    // Eviction order; guarded by evictionLock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final EvictionStrategy<K, V> evictionStrategy;
+    private final ReadBuffer<K, V> readBuffer = new ReadBuffer<>();
+
+    private final BiConsumer<CacheNode<K, V>, RemovalCause> removalListener;
+
+    CacheShard(EvictionPolicy policy, long maxWeight, BiConsumer<CacheNode<K, V>, RemovalCause> removalListener) {
+        this.evictionStrategy = policy.newStrategy(maxWeight);
+        this.removalListener = removalListener;
+    }
+
+    CacheNode<K, V> get(K key) {
+        return map.get(key);
+    }
+
+    /**
+     * Records a read hit; drains the read buffer if it is filling up and the lock is free.
+     */
+    void afterRead(CacheNode<K, V> node) {
+        long pending = readBuffer.offer(node);
+        if ((pending < 0 || pending >= ReadBuffer.DRAIN_THRESHOLD) && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    void put(CacheNode<K, V> node) {
+        CacheNode<K, V> previous = map.put(node.key, node);
+
+        List<CacheNode<K, V>> evicted;
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            if (previous != null) evictionStrategy.onRemove(previous);
+            // A racing put or invalidate may already have replaced this node
+            if (map.get(node.key) == node) evictionStrategy.onAdd(node);
+            evicted = evict();
+        } finally {
+            evictionLock.unlock();
+        }
+        if (previous != null) removalListener.accept(previous, RemovalCause.REPLACED);
+        for (CacheNode<K, V> victim : evicted) removalListener.accept(victim, RemovalCause.SIZE);
+    }
+
+    /**
+     * Removes the key's entry, whatever node holds it.
+     */
+    CacheNode<K, V> remove(K key, RemovalCause cause) {
+        CacheNode<K, V> removed = map.remove(key);
+        if (removed != null) unlinkRemoved(removed, cause);
+        return removed;
+    }
+
+    /**
+     * Removes the entry only if it is still this node.
+     */
+    boolean remove(CacheNode<K, V> node, RemovalCause cause) {
+        if (!map.remove(node.key, node)) return false;
+        unlinkRemoved(node, cause);
+        return true;
+    }
+
+    private void unlinkRemoved(CacheNode<K, V> node, RemovalCause cause) {
+        evictionLock.lock();
+        try {
+            evictionStrategy.onRemove(node);
+        } finally {
+            evictionLock.unlock();
+        }
+        removalListener.accept(node, cause);
+    }
+
+    private void drainReadBuffer() {
+        readBuffer.drainTo(evictionStrategy::onAccess);
+    }
+
+    /**
+     * Evict entries chosen by the policy until the shard is within its capacity.
+     * Caller holds evictionLock.
+     *
+     * @return the removed victims (usually empty)
+     */
+    private List<CacheNode<K, V>> evict() {
+        List<CacheNode<K, V>> evicted = new ArrayList<>(0);
+        evictionStrategy.evict(victim -> {
+            if (map.remove(victim.key, victim)) {
+                evicted.add(victim);
+            }
+        });
+        return evicted;
+    }
+
+    /**
+     * Applies buffered reads to the eviction order now rather than on the next write.
+     */
+    void drainPendingReads() {
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    void clear() {
+        evictionLock.lock();
+        try {
+            map.clear();
+            evictionStrategy.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    int size() {
+        return map.size();
+    }
+
+    long weightedSize() {
+        evictionLock.lock();
+        try {
+            return evictionStrategy.weightedSize();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    Collection<CacheNode<K, V>> nodes() {
+        return map.values();
+    }
+}
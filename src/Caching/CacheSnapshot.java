@@ -0,0 +1,132 @@
+package Caching;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * File format of CacheManager snapshots (gzip-compressed):
+ *
+ *   int magic, int formatVersion
+ *   per entry: boolean true, key bytes, value bytes, long writeTime, long dataVersion,
+ *              short tagCount, UTF tags...
+ *   boolean false
+ *
+ * Keys and values are length-prefixed Java-serialised bytes, so an entry whose class
+ * changed between releases can be skipped without losing the rest of the file.
+ */
+final class CacheSnapshot {
+
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    private static final int FORMAT_VERSION = 1;
+
+    /** One decoded entry; key and value are still serialised. */
+    static final class Record {
+        final byte[] key;
+        final byte[] value;
+        final long writeTime;
+        final long dataVersion;
+        final String[] tags;
+
+        Record(byte[] key, byte[] value, long writeTime, long dataVersion, String[] tags) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+            this.dataVersion = dataVersion;
+            this.tags = tags;
+        }
+    }
+
+    /** Receives records while a snapshot is read. */
+    interface RecordSink {
+        void accept(Record record);
+    }
+
+    private CacheSnapshot() {
+    }
+
+    /**
+     * Writes to a temporary file and moves it into place, so a crash mid-write
+     * never leaves a truncated snapshot behind.
+     */
+    static final class Writer implements Closeable {
+        private final Path target;
+        private final Path temp;
+        private final DataOutputStream out;
+        private boolean finished;
+
+        Writer(Path target) throws IOException {
+            this.target = target.toAbsolutePath();
+            this.temp = this.target.resolveSibling(this.target.getFileName() + ".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+        }
+
+        void write(Record record) throws IOException {
+            out.writeBoolean(true);
+            writeBytes(record.key);
+            writeBytes(record.value);
+            out.writeLong(record.writeTime);
+            out.writeLong(record.dataVersion);
+            out.writeShort(record.tags.length);
+            for (String tag : record.tags) out.writeUTF(tag);
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        /** Completes the file and atomically replaces the target. */
+        void finish() throws IOException {
+            out.writeBoolean(false);
+            out.close();
+            finished = true;
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Streams every record of the file to the sink.
+     *
+     * @return false if the file is not a snapshot of this format version
+     */
+    static boolean read(Path file, RecordSink sink) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return false;
+            while (in.readBoolean()) {
+                byte[] key = readBytes(in);
+                byte[] value = readBytes(in);
+                long writeTime = in.readLong();
+                long dataVersion = in.readLong();
+                String[] tags = new String[in.readShort()];
+                for (int i = 0; i < tags.length; i++) tags[i] = in.readUTF();
+                sink.accept(new Record(key, value, writeTime, dataVersion, tags));
+            }
+            return true;
+        } catch (ZipException e) {
+            return false; // not gzip: not one of our snapshots
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
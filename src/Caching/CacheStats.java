@@ -0,0 +1,106 @@
+package Caching;
+
+/**
+ * Immutable point-in-time statistics of a cache or one of its key namespaces.
+ *
+ * - Counters are cumulative since the cache was created (or its namespaces reconfigured)
+ * - since(earlier) gives the activity between two snapshots, for rates over time
+ * - Entry count and weighted size are current values, not counters
+ */
+public final class CacheStats {
+
+    private final String namespace;
+    private final long timestampMillis;
+    private final long intervalMillis;
+    private final long hitCount;
+    private final long missCount;
+    private final long offHeapHitCount;
+    private final long loadCount;
+    private final long loadFailureCount;
+    private final long totalLoadNanos;
+    private final long loadP50Nanos;
+    private final long loadP99Nanos;
+    private final long[] removals;
+    private final long entryCount;
+    private final long weightedSize;
+
+    CacheStats(String namespace, long timestampMillis, long intervalMillis,
+               long hitCount, long missCount, long offHeapHitCount,
+               long loadCount, long loadFailureCount, long totalLoadNanos,
+               long loadP50Nanos, long loadP99Nanos, long[] removals,
+               long entryCount, long weightedSize) {
+        this.namespace = namespace;
+        this.timestampMillis = timestampMillis;
+        this.intervalMillis = intervalMillis;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.offHeapHitCount = offHeapHitCount;
+        this.loadCount = loadCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadNanos = totalLoadNanos;
+        this.loadP50Nanos = loadP50Nanos;
+        this.loadP99Nanos = loadP99Nanos;
+        this.removals = removals;
+        this.entryCount = entryCount;
+        this.weightedSize = weightedSize;
+    }
+
+    /**
+     * Activity between an earlier snapshot of the same cache / namespace and this one.
+     * Load percentiles and gauges are taken from this snapshot.
+     */
+    public CacheStats since(CacheStats earlier) {
+        long[] delta = new long[removals.length];
+        for (int i = 0; i < delta.length; i++) delta[i] = removals[i] - earlier.removals[i];
+        return new CacheStats(namespace, timestampMillis, timestampMillis - earlier.timestampMillis,
+                hitCount - earlier.hitCount, missCount - earlier.missCount,
+                offHeapHitCount - earlier.offHeapHitCount,
+                loadCount - earlier.loadCount, loadFailureCount - earlier.loadFailureCount,
+                totalLoadNanos - earlier.totalLoadNanos,
+                loadP50Nanos, loadP99Nanos, delta, entryCount, weightedSize);
+    }
+
+    /**
+     * Events per second over this snapshot's interval (0 for a cumulative snapshot).
+     */
+    public double perSecond(long count) {
+        return intervalMillis <= 0 ? 0 : count * 1000.0 / intervalMillis;
+    }
+
+    public String getNamespace() { return namespace; }
+    public long getTimestampMillis() { return timestampMillis; }
+    /** Length of the interval covered by a since() result; 0 for cumulative snapshots. */
+    public long getIntervalMillis() { return intervalMillis; }
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+    /** Hits served by promoting an entry from the off-heap tier (included in getHitCount). */
+    public long getOffHeapHitCount() { return offHeapHitCount; }
+    public long getRequestCount() { return hitCount + missCount; }
+    public long getLoadCount() { return loadCount; }
+    public long getLoadFailureCount() { return loadFailureCount; }
+    public long getLoadP50Nanos() { return loadP50Nanos; }
+    public long getLoadP99Nanos() { return loadP99Nanos; }
+    public long getEntryCount() { return entryCount; }
+    public long getWeightedSize() { return weightedSize; }
+
+    /** Fraction of requests that hit (0 when there were no requests). */
+    public double hitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    public double averageLoadMillis() {
+        long loads = loadCount + loadFailureCount;
+        return loads == 0 ? 0 : totalLoadNanos / 1e6 / loads;
+    }
+
+    public long getRemovalCount(RemovalCause cause) {
+        return removals[cause.ordinal()];
+    }
+
+    /** Removals other than replacement by a newer value. */
+    public long getEvictionCount() {
+        return getRemovalCount(RemovalCause.SIZE) + getRemovalCount(RemovalCause.EXPIRED)
+                + getRemovalCount(RemovalCause.EXPLICIT);
+    }
+}
@@ -0,0 +1,49 @@
+package Caching;
+
+/**
+ * JMX view of a cache or one of its key namespaces, registered by
+ * CacheManager.registerMBeans under "Caching:type=Cache,name=...[,namespace=...]".
+ * Rates cover the interval between the two most recent refreshes (at most one per second).
+ */
+public interface CacheStatsMXBean {
+
+    String getNamespace();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getOffHeapHitCount();
+
+    long getEvictionCount();
+
+    long getSizeEvictionCount();
+
+    long getExpiredCount();
+
+    long getExplicitRemovalCount();
+
+    long getReplacedCount();
+
+    long getLoadCount();
+
+    long getLoadFailureCount();
+
+    double getAverageLoadMillis();
+
+    double getLoadP50Millis();
+
+    double getLoadP99Millis();
+
+    long getEntryCount();
+
+    long getWeightedSize();
+
+    double getHitsPerSecond();
+
+    double getMissesPerSecond();
+
+    double getEvictionsPerSecond();
+}
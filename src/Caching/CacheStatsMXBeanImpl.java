@@ -0,0 +1,71 @@
+package Caching;
+
+import java.util.function.Supplier;
+
+/**
+ * Serves CacheStatsMXBean attributes from snapshots taken at most once per second,
+ * so a monitoring poll reading every attribute costs one snapshot.
+ */
+final class CacheStatsMXBeanImpl implements CacheStatsMXBean {
+
+    private static final long REFRESH_MILLIS = 1_000;
+
+    private final Supplier<CacheStats> source;
+    private CacheStats previous;
+    private CacheStats current;
+
+    CacheStatsMXBeanImpl(Supplier<CacheStats> source) {
+        this.source = source;
+        this.current = source.get();
+        this.previous = current;
+    }
+
+    private synchronized CacheStats current() {
+        if (System.currentTimeMillis() - current.getTimestampMillis() >= REFRESH_MILLIS) {
+            previous = current;
+            current = source.get();
+        }
+        return current;
+    }
+
+    private synchronized CacheStats interval() {
+        CacheStats now = current();
+        return now.since(previous);
+    }
+
+    @Override public String getNamespace() { return current().getNamespace(); }
+    @Override public long getHitCount() { return current().getHitCount(); }
+    @Override public long getMissCount() { return current().getMissCount(); }
+    @Override public double getHitRate() { return current().hitRate(); }
+    @Override public long getOffHeapHitCount() { return current().getOffHeapHitCount(); }
+    @Override public long getEvictionCount() { return current().getEvictionCount(); }
+    @Override public long getSizeEvictionCount() { return current().getRemovalCount(RemovalCause.SIZE); }
+    @Override public long getExpiredCount() { return current().getRemovalCount(RemovalCause.EXPIRED); }
+    @Override public long getExplicitRemovalCount() { return current().getRemovalCount(RemovalCause.EXPLICIT); }
+    @Override public long getReplacedCount() { return current().getRemovalCount(RemovalCause.REPLACED); }
+    @Override public long getLoadCount() { return current().getLoadCount(); }
+    @Override public long getLoadFailureCount() { return current().getLoadFailureCount(); }
+    @Override public double getAverageLoadMillis() { return current().averageLoadMillis(); }
+    @Override public double getLoadP50Millis() { return current().getLoadP50Nanos() / 1e6; }
+    @Override public double getLoadP99Millis() { return current().getLoadP99Nanos() / 1e6; }
+    @Override public long getEntryCount() { return current().getEntryCount(); }
+    @Override public long getWeightedSize() { return current().getWeightedSize(); }
+
+    @Override
+    public double getHitsPerSecond() {
+        CacheStats delta = interval();
+        return delta.perSecond(delta.getHitCount());
+    }
+
+    @Override
+    public double getMissesPerSecond() {
+        CacheStats delta = interval();
+        return delta.perSecond(delta.getMissCount());
+    }
+
+    @Override
+    public double getEvictionsPerSecond() {
+        CacheStats delta = interval();
+        return delta.perSecond(delta.getEvictionCount());
+    }
+}
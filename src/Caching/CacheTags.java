@@ -0,0 +1,21 @@
+package Caching;
+
+/**
+ * Dependency tags for application cache entries.
+ *
+ * - student(id): anything derived from one student (STUDENT_x, GRADES_x) in the shared
+ *   cache; invalidated by writes to that student or their grades
+ * - CLASS: anything derived from the whole class (CLASS_STATISTICS in the statistics
+ *   cache); invalidated by ClassStatisticsCalculator whenever its engine records a write
+ */
+public final class CacheTags {
+
+    public static final String CLASS = "class";
+
+    private CacheTags() {
+    }
+
+    public static String student(String studentId) {
+        return "student:" + studentId;
+    }
+}
@@ -0,0 +1,25 @@
+package Caching;
+
+/**
+ * Eviction policy of a CacheManager instance.
+ *
+ * - LRU: evicts the least recently used entry
+ * - W_TINY_LFU: small LRU window in front of a segmented LRU main space;
+ *   an entry leaving the window only displaces a main entry if a
+ *   count-min sketch says it is accessed more often (scan resistant)
+ */
+public enum EvictionPolicy {
+    LRU,
+    W_TINY_LFU;
+
+    /**
+     * @param maxWeight capacity in weight units (entries when every entry weighs 1)
+     */
+    <K, V> EvictionStrategy<K, V> newStrategy(long maxWeight) {
+        switch (this) {
+            case W_TINY_LFU: return new WindowTinyLfuStrategy<>(maxWeight);
+            case LRU:
+            default: return new LruStrategy<>(maxWeight);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package Caching;
+
+import java.util.function.Consumer;
+
+/**
+ * Orders cache nodes for eviction. Implementations are not thread-safe;
+ * CacheManager calls them only under its eviction lock.
+ */
+interface EvictionStrategy<K, V> {
+
+    /** A read hit on a resident node. */
+    void onAccess(CacheNode<K, V> node);
+
+    /** A newly inserted node. */
+    void onAdd(CacheNode<K, V> node);
+
+    /** A node removed by invalidation or replacement. */
+    void onRemove(CacheNode<K, V> node);
+
+    /** Evicts until the strategy is within capacity, handing each victim to the sink. */
+    void evict(Consumer<CacheNode<K, V>> victims);
+
+    /** Total weight of tracked nodes. */
+    long weightedSize();
+
+    void clear();
+}
@@ -0,0 +1,108 @@
+package Caching;
+
+/**
+ * Count-min sketch of access frequencies with periodic aging (TinyLFU).
+ *
+ * - 4-bit counters packed 16 per long; each key maps to one counter in
+ *   each of 4 rows and its estimate is the minimum of the four
+ * - After sampleSize increments every counter is halved, so the sketch
+ *   follows the recent popularity instead of all-time totals
+ * - Memory: about 8 bytes per cached entry; the table grows (and restarts
+ *   its counts) when the cache holds more entries than it was sized for
+ *
+ * Not thread-safe; used under the cache's eviction lock.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private static final int MAX_TABLE_LENGTH = 1 << 24;
+
+    private long[] table;
+    private int tableMask;
+    private int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        ensureCapacity(expectedEntries);
+    }
+
+    /**
+     * Resizes the table for the given number of resident entries if it is too small.
+     */
+    void ensureCapacity(int entries) {
+        int wanted = Math.max(16, Math.min(entries, MAX_TABLE_LENGTH));
+        if (table != null && table.length >= wanted) return;
+
+        int length = Integer.highestOneBit(wanted - 1) << 1;
+        table = new long[length];
+        tableMask = length - 1;
+        sampleSize = 10 * length;
+        additions = 0;
+    }
+
+    /**
+     * Estimated accesses of the key within the current aging period (0 - 15).
+     */
+    int frequency(Object key) {
+        long hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            frequency = Math.min(frequency, counter(hash, row));
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        long hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            added |= incrementAt(hash, row);
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private int counter(long hash, int row) {
+        int index = index(hash, row);
+        int shift = offset(hash, row);
+        return (int) ((table[index] >>> shift) & 0xF);
+    }
+
+    private boolean incrementAt(long hash, int row) {
+        int index = index(hash, row);
+        int shift = offset(hash, row);
+        if (((table[index] >>> shift) & 0xF) == MAX_COUNT) return false;
+        table[index] += 1L << shift;
+        return true;
+    }
+
+    private int index(long hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    /** Bit offset of the row's 4-bit counter inside its long. */
+    private static int offset(long hash, int row) {
+        return (int) (((hash >>> (row * 8)) & 3) + row * 4) << 2;
+    }
+
+    /** Halves every counter (aging). */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long spread(int hashCode) {
+        long h = hashCode * 0x9e3779b97f4a7c15L;
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,63 @@
+package Caching;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of loader latencies with power-of-two nanosecond buckets.
+ *
+ * - Bucket i counts latencies in [2^i, 2^(i+1)) ns, so percentiles are exact to within 2x
+ * - Recording is one atomic increment plus a LongAdder add
+ */
+final class LoadTimeHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    void record(long nanos) {
+        long n = Math.max(1, nanos);
+        buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(n));
+        count.increment();
+        totalNanos.add(n);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Adds this histogram's bucket counts into the array (length BUCKETS).
+     */
+    void addTo(long[] counts) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += buckets.get(i);
+    }
+
+    static long[] newCounts() {
+        return new long[BUCKETS];
+    }
+
+    /**
+     * Upper bound of the bucket holding the given fraction of loads (0 when empty).
+     * Time Complexity: O(buckets)
+     */
+    static long percentileNanos(long[] counts, double fraction) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+}
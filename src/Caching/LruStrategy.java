@@ -0,0 +1,48 @@
+package Caching;
+
+import java.util.function.Consumer;
+
+/**
+ * Plain LRU: one access-ordered deque, victims taken from the head.
+ */
+final class LruStrategy<K, V> implements EvictionStrategy<K, V> {
+
+    private final long maxWeight;
+    private final AccessOrderDeque<K, V> accessOrder = new AccessOrderDeque<>();
+
+    LruStrategy(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public void onAccess(CacheNode<K, V> node) {
+        accessOrder.moveToLast(node);
+    }
+
+    @Override
+    public void onAdd(CacheNode<K, V> node) {
+        accessOrder.addLast(node);
+    }
+
+    @Override
+    public void onRemove(CacheNode<K, V> node) {
+        accessOrder.unlink(node);
+    }
+
+    @Override
+    public void evict(Consumer<CacheNode<K, V>> victims) {
+        while (accessOrder.weight() > maxWeight) {
+            victims.accept(accessOrder.pollFirst());
+        }
+    }
+
+    @Override
+    public long weightedSize() {
+        return accessOrder.weight();
+    }
+
+    @Override
+    public void clear() {
+        accessOrder.clear();
+    }
+}
@@ -0,0 +1,63 @@
+package Caching;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Heap size estimates for cache keys and values (64-bit JVM, compressed oops).
+ *
+ * - MemoryFootprint objects report their own size
+ * - Strings, boxed primitives, arrays, collections and maps are sized structurally
+ * - Anything else counts as a bare object header
+ */
+public final class MemoryEstimator {
+
+    public static final int OBJECT_HEADER = 16;
+    public static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+    private static final int MAP_ENTRY = 32;
+
+    private MemoryEstimator() {
+    }
+
+    public static long estimate(Object value) {
+        if (value == null) return 0;
+        if (value instanceof MemoryFootprint) return ((MemoryFootprint) value).estimatedBytes();
+        if (value instanceof String) return string((String) value);
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) return OBJECT_HEADER + 8;
+        if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            long bytes = align(ARRAY_HEADER + (long) REFERENCE * array.length);
+            for (Object element : array) bytes += estimate(element);
+            return bytes;
+        }
+        if (value instanceof double[]) return align(ARRAY_HEADER + 8L * ((double[]) value).length);
+        if (value instanceof long[]) return align(ARRAY_HEADER + 8L * ((long[]) value).length);
+        if (value instanceof int[]) return align(ARRAY_HEADER + 4L * ((int[]) value).length);
+        if (value instanceof byte[]) return align(ARRAY_HEADER + ((byte[]) value).length);
+        if (value instanceof Collection) {
+            long bytes = OBJECT_HEADER * 3L;
+            for (Object element : (Collection<?>) value) bytes += REFERENCE + estimate(element);
+            return bytes;
+        }
+        if (value instanceof Map) {
+            long bytes = OBJECT_HEADER * 3L;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                bytes += MAP_ENTRY + estimate(e.getKey()) + estimate(e.getValue());
+            }
+            return bytes;
+        }
+        return OBJECT_HEADER;
+    }
+
+    /**
+     * String object plus its Latin-1 backing array.
+     */
+    public static long string(String s) {
+        return s == null ? 0 : 24 + align(ARRAY_HEADER + s.length());
+    }
+
+    public static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,14 @@
+package Caching;
+
+/**
+ * Implemented by cached model objects that can estimate their own heap size,
+ * so MemoryEstimator (and Weighers.memory()) can size them without reflection.
+ */
+public interface MemoryFootprint {
+
+    /**
+     * Approximate retained heap size in bytes, counting only what the object owns
+     * (shared references such as a grade's Subject are not counted).
+     */
+    long estimatedBytes();
+}
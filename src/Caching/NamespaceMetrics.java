@@ -0,0 +1,30 @@
+package Caching;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counters for one key namespace of a CacheManager.
+ */
+final class NamespaceMetrics {
+
+    final String namespace;
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder offHeapHits = new LongAdder();
+    final LongAdder loadFailures = new LongAdder();
+    final LoadTimeHistogram loadTimes = new LoadTimeHistogram();
+    private final LongAdder[] removals = new LongAdder[RemovalCause.values().length];
+
+    NamespaceMetrics(String namespace) {
+        this.namespace = namespace;
+        for (int i = 0; i < removals.length; i++) removals[i] = new LongAdder();
+    }
+
+    void recordRemoval(RemovalCause cause) {
+        removals[cause.ordinal()].increment();
+    }
+
+    long removals(RemovalCause cause) {
+        return removals[cause.ordinal()].sum();
+    }
+}
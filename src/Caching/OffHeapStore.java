@@ -0,0 +1,186 @@
+package Caching;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Second cache tier: serialised values in one direct ByteBuffer, outside the Java heap.
+ *
+ * - The buffer is split into fixed-size blocks; a value takes as many blocks as it
+ *   needs, so freeing an entry never fragments the arena
+ * - Capacity is in bytes; the least recently used entries are dropped to make room
+ * - Values are stored with Java serialisation; values that are not Serializable
+ *   (or fail to serialise) are not stored
+ * - Only the key, the block list, the entry's dependency tags (with the generations
+ *   they had when the value was computed) and a few numbers stay on the heap per
+ *   entry; removals hand the tags back so the cache can unregister them
+ *
+ * Thread-safe; every operation holds the store's monitor, so serialisation is done
+ * by the caller outside it.
+ */
+final class OffHeapStore<K> {
+
+    static final int BLOCK_SIZE = 1024;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final ByteBuffer arena;
+    private final ArrayDeque<Integer> freeBlocks;
+    private final int blockCount;
+
+    // Insertion-ordered: an entry is only used by take(), which removes it, and put()
+    // re-inserts, so iteration starts at the least recently used entry and lookups such
+    // as hasTag() never reorder it
+    private final LinkedHashMap<K, Slot> slots = new LinkedHashMap<>();
+    private long usedBytes;
+
+    private static final class Slot {
+        final int[] blocks;
+        final int length;
+        final long writeTime;
+        final String[] tags;
+        final long[] tagGenerations;
+
+        Slot(int[] blocks, int length, long writeTime, String[] tags, long[] tagGenerations) {
+            this.blocks = blocks;
+            this.length = length;
+            this.writeTime = writeTime;
+            this.tags = tags;
+            this.tagGenerations = tagGenerations;
+        }
+    }
+
+    /** A value read back from the store; value is null if it could not be deserialised. */
+    static final class Entry {
+        final Object value;
+        final long writeTime;
+        final String[] tags;
+        final long[] tagGenerations;
+
+        Entry(Object value, long writeTime, String[] tags, long[] tagGenerations) {
+            this.value = value;
+            this.writeTime = writeTime;
+            this.tags = tags;
+            this.tagGenerations = tagGenerations;
+        }
+    }
+
+    OffHeapStore(long capacityBytes) {
+        if (capacityBytes < BLOCK_SIZE || capacityBytes > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Off-heap capacity must be between "
+                    + BLOCK_SIZE + " bytes and " + MAX_CAPACITY + " bytes");
+        }
+        this.blockCount = (int) (capacityBytes / BLOCK_SIZE);
+        this.arena = ByteBuffer.allocateDirect(blockCount * BLOCK_SIZE);
+        this.freeBlocks = new ArrayDeque<>(blockCount);
+        for (int i = 0; i < blockCount; i++) freeBlocks.add(i);
+    }
+
+    /**
+     * Stores serialised bytes, evicting least recently used entries if needed.
+     * A value larger than the whole store is not stored.
+     * Time Complexity: O(blocks written + blocks freed)
+     *
+     * @return key -> tags of every entry dropped or replaced to make room
+     */
+    synchronized Map<K, String[]> put(K key, byte[] data, long writeTime, String[] tags, long[] tagGenerations) {
+        Map<K, String[]> dropped = new LinkedHashMap<>();
+        int needed = Math.max(1, (data.length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        if (needed > blockCount) return dropped;
+
+        Slot previous = slots.remove(key);
+        if (previous != null) {
+            release(previous);
+            dropped.put(key, previous.tags);
+        }
+        Iterator<Map.Entry<K, Slot>> lru = slots.entrySet().iterator();
+        while (freeBlocks.size() < needed && lru.hasNext()) {
+            Map.Entry<K, Slot> victim = lru.next();
+            lru.remove();
+            release(victim.getValue());
+            dropped.put(victim.getKey(), victim.getValue().tags);
+        }
+
+        int[] blocks = new int[needed];
+        for (int i = 0; i < needed; i++) {
+            blocks[i] = freeBlocks.pop();
+            int offset = i * BLOCK_SIZE;
+            arena.put(blocks[i] * BLOCK_SIZE, data, offset, Math.min(BLOCK_SIZE, data.length - offset));
+        }
+        slots.put(key, new Slot(blocks, data.length, writeTime, tags, tagGenerations));
+        usedBytes += data.length;
+        return dropped;
+    }
+
+    /**
+     * Removes the entry and returns it deserialised, or null if absent.
+     */
+    Entry take(K key) {
+        Slot slot;
+        byte[] data;
+        synchronized (this) {
+            slot = slots.remove(key);
+            if (slot == null) return null;
+            data = read(slot);
+            release(slot);
+        }
+        return new Entry(Serialization.fromBytes(data), slot.writeTime, slot.tags, slot.tagGenerations);
+    }
+
+    /**
+     * @return the removed entry's tags, or null if the key was absent
+     */
+    synchronized String[] remove(K key) {
+        Slot slot = slots.remove(key);
+        release(slot);
+        return slot == null ? null : slot.tags;
+    }
+
+    synchronized boolean contains(K key) {
+        return slots.containsKey(key);
+    }
+
+    /**
+     * Whether the key's entry is registered under the tag.
+     */
+    synchronized boolean hasTag(K key, String tag) {
+        Slot slot = slots.get(key);
+        return slot != null && Arrays.asList(slot.tags).contains(tag);
+    }
+
+    synchronized void clear() {
+        for (Map.Entry<K, Slot> e : slots.entrySet()) release(e.getValue());
+        slots.clear();
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    /** Serialised bytes held (excluding unused space in the last block of each entry). */
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    long capacityBytes() {
+        return (long) blockCount * BLOCK_SIZE;
+    }
+
+    private byte[] read(Slot slot) {
+        byte[] data = new byte[slot.length];
+        for (int i = 0; i < slot.blocks.length; i++) {
+            int offset = i * BLOCK_SIZE;
+            arena.get(slot.blocks[i] * BLOCK_SIZE, data, offset, Math.min(BLOCK_SIZE, slot.length - offset));
+        }
+        return data;
+    }
+
+    private void release(Slot slot) {
+        if (slot == null) return;
+        for (int block : slot.blocks) freeBlocks.push(block);
+        usedBytes -= slot.length;
+    }
+}
@@ -0,0 +1,52 @@
+package Caching;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lossy ring of recently read nodes.
+ *
+ * Readers record an access with one CAS instead of taking the eviction
+ * lock; whoever holds the lock replays the buffer into the eviction order.
+ * When the buffer is full the access is dropped: recency becomes slightly
+ * approximate, but a read never blocks.
+ */
+final class ReadBuffer<K, V> {
+
+    static final int CAPACITY = 128; // power of two
+    static final int DRAIN_THRESHOLD = CAPACITY / 2;
+    private static final int MASK = CAPACITY - 1;
+
+    private final AtomicReferenceArray<CacheNode<K, V>> slots = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicLong writeIndex = new AtomicLong();
+    private volatile long readIndex; // advanced only by the drainer
+
+    /**
+     * @return pending entries after recording, or -1 when the access was dropped
+     */
+    long offer(CacheNode<K, V> node) {
+        long w = writeIndex.get();
+        long pending = w - readIndex;
+        if (pending >= CAPACITY) return -1;
+        if (!writeIndex.compareAndSet(w, w + 1)) return -1;
+        slots.lazySet((int) (w & MASK), node);
+        return pending + 1;
+    }
+
+    /**
+     * Replays recorded accesses in order. Caller must hold the eviction lock.
+     */
+    void drainTo(Consumer<CacheNode<K, V>> consumer) {
+        long r = readIndex;
+        long w = writeIndex.get();
+        for (; r < w; r++) {
+            int slot = (int) (r & MASK);
+            CacheNode<K, V> node = slots.get(slot);
+            if (node == null) break; // claimed but not yet published; pick it up next drain
+            slots.lazySet(slot, null);
+            consumer.accept(node);
+        }
+        readIndex = r;
+    }
+}
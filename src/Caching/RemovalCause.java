@@ -0,0 +1,15 @@
+package Caching;
+
+/**
+ * Why an entry left the on-heap tier.
+ */
+public enum RemovalCause {
+    /** invalidate, invalidateTag */
+    EXPLICIT,
+    /** overwritten by a put for the same key */
+    REPLACED,
+    /** evicted by the eviction policy to stay within capacity */
+    SIZE,
+    /** found past its expiry time */
+    EXPIRED
+}
@@ -0,0 +1,37 @@
+package Caching;
+
+import java.io.*;
+
+/**
+ * Java serialisation helpers shared by the off-heap tier and cache snapshots.
+ */
+final class Serialization {
+
+    private Serialization() {
+    }
+
+    /**
+     * Serialised bytes of the object, or null if it is not Serializable or fails to serialise.
+     */
+    static byte[] toBytes(Object value) {
+        if (!(value instanceof Serializable)) return null;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The deserialised object, or null if its class is gone or changed incompatibly.
+     */
+    static Object fromBytes(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package Caching;
+
+/**
+ * Weight of a cache entry; a weighted CacheManager evicts until the total
+ * weight of its entries is within its capacity. Weights must not be negative
+ * and are computed once, when the entry is put.
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    int weigh(K key, V value);
+}
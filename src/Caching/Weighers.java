@@ -0,0 +1,31 @@
+package Caching;
+
+/**
+ * Built-in weighers.
+ */
+public final class Weighers {
+
+    private static final Weigher<Object, Object> ENTRY_COUNT = (key, value) -> 1;
+    private static final Weigher<Object, Object> MEMORY = (key, value) -> (int) Math.min(Integer.MAX_VALUE,
+            MemoryEstimator.estimate(key) + MemoryEstimator.estimate(value));
+
+    private Weighers() {
+    }
+
+    /**
+     * Every entry weighs 1, so capacity is an entry count.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> Weigher<K, V> entryCount() {
+        return (Weigher<K, V>) ENTRY_COUNT;
+    }
+
+    /**
+     * Estimated heap bytes of key and value (see MemoryEstimator), so capacity is a
+     * memory budget: a Grade[] of 10,000 grades weighs far more than one Student.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> Weigher<K, V> memory() {
+        return (Weigher<K, V>) MEMORY;
+    }
+}
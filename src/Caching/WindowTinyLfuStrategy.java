@@ -0,0 +1,141 @@
+package Caching;
+
+import java.util.function.Consumer;
+
+/**
+ * W-TinyLFU eviction.
+ *
+ * - Window: LRU holding ~1% of the capacity (by weight); every new entry starts here, so
+ *   bursts of fresh keys still get a chance to prove themselves
+ * - Main: segmented LRU; entries enter "probation" and move to "protected"
+ *   (~80% of main) on their next hit
+ * - Admission: when the window overflows, its LRU entry (the candidate) may
+ *   only replace the probation LRU entry (the victim) if the FrequencySketch
+ *   has seen the candidate more often; otherwise the candidate is dropped.
+ *   One-off scans therefore pass through the window without flushing hot keys
+ * - With weights, a candidate that wins may displace several probation entries
+ */
+final class WindowTinyLfuStrategy<K, V> implements EvictionStrategy<K, V> {
+
+    private static final byte WINDOW = 1;
+    private static final byte PROBATION = 2;
+    private static final byte PROTECTED = 3;
+
+    private static final double WINDOW_FRACTION = 0.01;
+    private static final double PROTECTED_FRACTION = 0.80;
+
+    private final long maxWeight;
+    private final long windowMax;
+    private final long mainMax;
+    private final long protectedMax;
+
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedSegment = new AccessOrderDeque<>();
+    private final FrequencySketch sketch;
+
+    WindowTinyLfuStrategy(long maxWeight) {
+        this.maxWeight = maxWeight;
+        this.windowMax = Math.max(1, (long) (maxWeight * WINDOW_FRACTION));
+        this.mainMax = Math.max(0, maxWeight - windowMax);
+        this.protectedMax = (long) (mainMax * PROTECTED_FRACTION);
+        this.sketch = new FrequencySketch((int) Math.min(maxWeight, 1024));
+    }
+
+    @Override
+    public void onAccess(CacheNode<K, V> node) {
+        if (!node.linked) return;
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.unlink(node);
+                add(protectedSegment, node, PROTECTED);
+                while (protectedSegment.weight() > protectedMax && protectedSegment.size() > 1) {
+                    add(probation, protectedSegment.pollFirst(), PROBATION);
+                }
+                break;
+            case PROTECTED:
+                protectedSegment.moveToLast(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void onAdd(CacheNode<K, V> node) {
+        add(window, node, WINDOW);
+        sketch.ensureCapacity(window.size() + probation.size() + protectedSegment.size());
+        sketch.increment(node.key);
+    }
+
+    @Override
+    public void onRemove(CacheNode<K, V> node) {
+        if (!node.linked) return;
+        deque(node.queue).unlink(node);
+    }
+
+    @Override
+    public void evict(Consumer<CacheNode<K, V>> victims) {
+        while (window.weight() > windowMax) {
+            CacheNode<K, V> candidate = window.pollFirst();
+            int candidateFrequency = sketch.frequency(candidate.key);
+
+            // Make room while the candidate is more popular than each victim in turn
+            while (mainWeight() + candidate.weight > mainMax) {
+                CacheNode<K, V> victim = probation.peekFirst() != null
+                        ? probation.peekFirst()
+                        : protectedSegment.peekFirst();
+                if (victim == null || candidateFrequency <= sketch.frequency(victim.key)) break;
+                deque(victim.queue).unlink(victim);
+                victims.accept(victim);
+            }
+
+            if (mainWeight() + candidate.weight <= mainMax) {
+                add(probation, candidate, PROBATION);
+            } else {
+                victims.accept(candidate);
+            }
+        }
+
+        // Only reachable with a tiny capacity; fall back to plain LRU order
+        while (weightedSize() > maxWeight) {
+            CacheNode<K, V> victim = probation.size() > 0 ? probation.pollFirst()
+                    : protectedSegment.size() > 0 ? protectedSegment.pollFirst()
+                    : window.pollFirst();
+            victims.accept(victim);
+        }
+    }
+
+    @Override
+    public long weightedSize() {
+        return window.weight() + mainWeight();
+    }
+
+    private long mainWeight() {
+        return probation.weight() + protectedSegment.weight();
+    }
+
+    @Override
+    public void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    private void add(AccessOrderDeque<K, V> deque, CacheNode<K, V> node, byte queue) {
+        node.queue = queue;
+        deque.addLast(node);
+    }
+
+    private AccessOrderDeque<K, V> deque(byte queue) {
+        switch (queue) {
+            case WINDOW: return window;
+            case PROBATION: return probation;
+            default: return protectedSegment;
+        }
+    }
+}
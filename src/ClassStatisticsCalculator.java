@@ -1,24 +1,83 @@
 import Caching.CacheManager;
+import Caching.CacheTags;
 import Statistics.CachedClassStatistics;
+import Statistics.IncrementalStatisticsEngine;
+import Statistics.PercentileTracker;
+import Statistics.StudentType;
 
 import java.util.*;
 
+/**
+ * ClassStatisticsCalculator
+ *
+ * - calculateClassStatistics(): served from an IncrementalStatisticsEngine fed by
+ *   GradeManager / StudentManager writes, so it is always fresh without a rescan
+ * - computeStatistics(): full recompute over every grade, O(n log n); switches to a
+ *   fork-join ParallelStatisticsCalculator at PARALLEL_THRESHOLD grades
+ */
 public class ClassStatisticsCalculator {
     private static final String CLASS_STATS_KEY = "CLASS_STATISTICS";
 
     private final GradeManager gradeManager;
     private final StudentManager studentManager;
     private final CacheManager<String, CachedClassStatistics> cache;
+    private final IncrementalStatisticsEngine engine = new IncrementalStatisticsEngine();
+    private final ParallelStatisticsCalculator parallelCalculator = new ParallelStatisticsCalculator();
+
+    // Engine version the cached snapshot was built from
+    private volatile long cachedVersion = -1;
 
 
     public ClassStatisticsCalculator(GradeManager gradeManager, StudentManager studentManager, CacheManager<String, CachedClassStatistics> cache) {
         this.gradeManager = gradeManager;
         this.studentManager = studentManager;
         this.cache = cache;
+
+        studentManager.addStudentListener(s -> engine.registerStudent(s.getStudentId(), s.getStudentType()));
+        gradeManager.addGradeListener(new GradeListener() {
+            @Override
+            public void onGradeAdded(Grade grade) {
+                engine.recordGrade(grade.getStudentId(), grade.getSubject().getSubjectName(), grade.getGrade());
+            }
+
+            @Override
+            public void onGradeUpdated(Grade grade, double previousScore) {
+                engine.updateGrade(grade.getStudentId(), grade.getSubject().getSubjectName(),
+                        previousScore, grade.getGrade());
+            }
+        });
+
+        // Seed with anything recorded before the calculator was created
+        for (Student s : studentManager.getAllStudents()) {
+            engine.registerStudent(s.getStudentId(), s.getStudentType());
+        }
+        for (GradeRecord g : gradeManager.snapshot().toArray()) {
+            engine.recordGrade(g.getStudentId(), g.getSubject().getSubjectName(), g.getScore());
+        }
     }
 
+    /**
+     * Full recompute over every stored grade; large grade sets go parallel.
+     * Time Complexity: O(n log n)
+     */
     public CachedClassStatistics computeStatistics() {
-        List<Grade> allGrades = getAllGrades();
+        return computeStatistics(
+                gradeManager.getTotalGradeCount() >= ParallelStatisticsCalculator.PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Full recompute, either on the calling thread or split across the common ForkJoinPool.
+     * Reads a point-in-time GradeLog snapshot, so it never blocks or races writers.
+     */
+    public CachedClassStatistics computeStatistics(boolean parallel) {
+        // Everything below reads one GradeLog snapshot, so totals and
+        // distributions agree even while other threads keep adding grades
+        GradeLog.Snapshot snapshot = gradeManager.snapshot();
+        if (parallel) {
+            return parallelCalculator.compute(snapshot.toArray(), studentManager.getAllStudents());
+        }
+
+        List<GradeRecord> allGrades = Arrays.asList(snapshot.toArray());
 
         int totalStudents = studentManager.getStudentCount();
         int totalGrades = allGrades.size();
@@ -29,24 +88,28 @@ public class ClassStatisticsCalculator {
         double mode = calculateMode(allGrades);
         double stdDev = calculateStdDev(allGrades, mean);
         Map<String, Double> subjectAvg = computeSubjectAverages(allGrades);
-        Map<String, Double> studentTypeAvg = computeStudentTypeAverages();
+        Map<String, Double> studentTypeAvg = computeStudentTypeAverages(allGrades);
         double highestGrade = 0;
         String highestSubject = "";
         double lowestGrade = 0;
         String lowestSubject = "";
         if (!allGrades.isEmpty()) {
-            Grade highest = allGrades.get(0);
-            Grade lowest = allGrades.get(0);
-            for (Grade g : allGrades) {
-                if (g.getGrade() > highest.getGrade()) highest = g;
-                if (g.getGrade() < lowest.getGrade()) lowest = g;
+            GradeRecord highest = allGrades.get(0);
+            GradeRecord lowest = allGrades.get(0);
+            for (GradeRecord g : allGrades) {
+                if (g.getScore() > highest.getScore()) highest = g;
+                if (g.getScore() < lowest.getScore()) lowest = g;
             }
-            highestGrade = highest.getGrade();
+            highestGrade = highest.getScore();
             highestSubject = highest.getSubject().getSubjectName();
-            lowestGrade = lowest.getGrade();
+            lowestGrade = lowest.getScore();
             lowestSubject = lowest.getSubject().getSubjectName();
         }
 
+        PercentileTracker subjectPercentiles = new PercentileTracker();
+        PercentileTracker typePercentiles = new PercentileTracker();
+        computePercentiles(allGrades, subjectPercentiles, typePercentiles);
+
         return new CachedClassStatistics(
                 totalStudents,
                 totalGrades,
@@ -60,25 +123,18 @@ public class ClassStatisticsCalculator {
                 highestGrade,
                 highestSubject,
                 lowestGrade,
-                lowestSubject
+                lowestSubject,
+                subjectPercentiles.summaries(),
+                typePercentiles.summaries()
         );
     }
 
-    private List<Grade> getAllGrades() {
-        List<Grade> grades = new ArrayList<>();
-        for (int i = 0; i < gradeManager.getTotalGradeCount(); i++) {
-            Grade g = gradeManager.getGradeAt(i);
-            if (g != null) grades.add(g);
-        }
-        return grades;
-    }
-
-    private Map<String, Integer> computeGradeDistribution(List<Grade> grades) {
+    private Map<String, Integer> computeGradeDistribution(List<GradeRecord> grades) {
         Map<String, Integer> dist = new LinkedHashMap<>();
         dist.put("A", 0); dist.put("B", 0); dist.put("C", 0); dist.put("D", 0); dist.put("F", 0);
 
-        for (Grade g : grades) {
-            double score = g.getGrade();
+        for (GradeRecord g : grades) {
+            double score = g.getScore();
             if (score >= 90) dist.put("A", dist.get("A") + 1);
             else if (score >= 80) dist.put("B", dist.get("B") + 1);
             else if (score >= 70) dist.put("C", dist.get("C") + 1);
@@ -88,24 +144,25 @@ public class ClassStatisticsCalculator {
         return dist;
     }
 
-    private double calculateMean(List<Grade> grades) {
+    private double calculateMean(List<GradeRecord> grades) {
         if (grades.isEmpty()) return 0;
         double sum = 0;
-        for (Grade g : grades) sum += g.getGrade();
+        for (GradeRecord g : grades) sum += g.getScore();
         return sum / grades.size();
     }
 
-    private double calculateMedian(List<Grade> grades) {
+    private double calculateMedian(List<GradeRecord> grades) {
+        if (grades.isEmpty()) return 0;
         List<Double> values = new ArrayList<>();
-        for (Grade g : grades) values.add(g.getGrade());
+        for (GradeRecord g : grades) values.add(g.getScore());
         Collections.sort(values);
         int n = values.size();
         return (n % 2 == 0) ? (values.get(n / 2 - 1) + values.get(n / 2)) / 2 : values.get(n / 2);
     }
 
-    private double calculateMode(List<Grade> grades) {
+    private double calculateMode(List<GradeRecord> grades) {
         Map<Double, Integer> freq = new HashMap<>();
-        for (Grade g : grades) freq.put(g.getGrade(), freq.getOrDefault(g.getGrade(), 0) + 1);
+        for (GradeRecord g : grades) freq.put(g.getScore(), freq.getOrDefault(g.getScore(), 0) + 1);
 
         double mode = 0;
         int maxCount = 0;
@@ -118,17 +175,17 @@ public class ClassStatisticsCalculator {
         return mode;
     }
 
-    private double calculateStdDev(List<Grade> grades, double mean) {
+    private double calculateStdDev(List<GradeRecord> grades, double mean) {
         if (grades.isEmpty()) return 0;
         double sum = 0;
-        for (Grade g : grades) sum += Math.pow(g.getGrade() - mean, 2);
+        for (GradeRecord g : grades) sum += Math.pow(g.getScore() - mean, 2);
         return Math.sqrt(sum / grades.size());
     }
 
-    private Map<String, Double> computeSubjectAverages(List<Grade> grades) {
+    private Map<String, Double> computeSubjectAverages(List<GradeRecord> grades) {
         Map<String, List<Double>> subjectMap = new HashMap<>();
-        for (Grade g : grades) {
-            subjectMap.computeIfAbsent(g.getSubject().getSubjectName(), k -> new ArrayList<>()).add(g.getGrade());
+        for (GradeRecord g : grades) {
+            subjectMap.computeIfAbsent(g.getSubject().getSubjectName(), k -> new ArrayList<>()).add(g.getScore());
         }
         Map<String, Double> result = new LinkedHashMap<>();
         for (Map.Entry<String, List<Double>> e : subjectMap.entrySet()) {
@@ -138,26 +195,81 @@ public class ClassStatisticsCalculator {
         return result;
     }
 
-    private Map<String, Double> computeStudentTypeAverages() {
-        Map<String, Double> result = new HashMap<>();
-        double regSum = 0, regCount = 0, honSum = 0, honCount = 0;
+    private void computePercentiles(List<GradeRecord> grades, PercentileTracker bySubject, PercentileTracker byType) {
+        Map<String, String> types = new HashMap<>();
+        for (Student s : studentManager.getAllStudents()) types.put(s.getStudentId(), StudentType.labelOf(s.getStudentType()));
+
+        for (GradeRecord g : grades) {
+            bySubject.add(g.getSubject().getSubjectName(), g.getScore());
+            String type = types.get(g.getStudentId());
+            if (type != null) byType.add(type, g.getScore());
+        }
+    }
+
+    private Map<String, Double> computeStudentTypeAverages(List<GradeRecord> grades) {
+        // Per-student averages from the snapshot rather than the live GradeManager
+        Map<String, double[]> studentTotals = new HashMap<>();
+        for (GradeRecord g : grades) {
+            double[] t = studentTotals.computeIfAbsent(g.getStudentId(), k -> new double[2]);
+            t[0] += g.getScore();
+            t[1]++;
+        }
+
+        Map<String, double[]> typeTotals = new LinkedHashMap<>();
+        for (StudentType type : StudentType.values()) typeTotals.put(type.getLabel(), new double[2]);
         for (Student s : studentManager.getAllStudents()) {
-            double avg = gradeManager.calculateOverallAverage(s.getStudentId());
-            if (s.getStudentType().equalsIgnoreCase("Regular")) { regSum += avg; regCount++; }
-            else if (s.getStudentType().equalsIgnoreCase("Honors")) { honSum += avg; honCount++; }
+            double[] agg = typeTotals.get(StudentType.labelOf(s.getStudentType()));
+            if (agg == null) continue;
+            double[] t = studentTotals.get(s.getStudentId());
+            agg[0] += t == null ? 0 : t[0] / t[1];
+            agg[1]++;
         }
-        result.put("Regular", regCount == 0 ? 0 : regSum / regCount);
-        result.put("Honors", honCount == 0 ? 0 : honSum / honCount);
+
+        Map<String, Double> result = new HashMap<>();
+        typeTotals.forEach((type, t) -> result.put(type, t[1] == 0 ? 0 : t[0] / t[1]));
         return result;
     }
+
+    /**
+     * Current statistics. The cached snapshot is reused until the engine records
+     * another write, then rebuilt from the engine's running aggregates.
+     *
+     * - Safe to call from several threads (e.g. CacheWarmer alongside the menu)
+     * - A version change invalidates CacheTags.CLASS, so a snapshot still being built
+     *   from the old version is not cached
+     * - A caller that joined such an in-flight load sees its older source version and
+     *   loads again, so the result always covers every write made before the call
+     * Time Complexity: O(subjects), or O(n) once after a grade correction
+     */
     public CachedClassStatistics calculateClassStatistics() {
-        CachedClassStatistics stats = cache.get(CLASS_STATS_KEY);
-        if (stats == null) {
-            stats = computeStatistics();
-            cache.put(CLASS_STATS_KEY, stats);
+        if (engine.hasStalePercentiles()) rebuildStalePercentiles();
+        while (true) {
+            long version = engine.getVersion();
+            if (cachedVersion != version) {
+                cache.invalidateTag(CacheTags.CLASS);
+                cachedVersion = version;
+            }
+            CachedClassStatistics stats = cache.get(CLASS_STATS_KEY, key -> engine.snapshot(), CacheTags.CLASS);
+            if (stats.getSourceVersion() >= version) return stats;
         }
+    }
+
+    /**
+     * Rebuilds the percentile sketches a correction made stale from a GradeLog snapshot.
+     * The result is only applied if the engine has counted exactly the snapshot's grades
+     * and saw no write meanwhile; otherwise the next read tries again.
+     * Time Complexity: O(n)
+     */
+    private void rebuildStalePercentiles() {
+        long version = engine.getVersion();
+        int counted = engine.getGradeCount();
+        List<GradeRecord> grades = Arrays.asList(gradeManager.snapshot().toArray());
+        if (grades.size() != counted) return; // a write is still being applied
 
-        return stats;
+        PercentileTracker bySubject = new PercentileTracker();
+        PercentileTracker byType = new PercentileTracker();
+        computePercentiles(grades, bySubject, byType);
+        engine.replacePercentiles(version, bySubject, byType);
     }
 
 }
@@ -1,4 +1,5 @@
 import Statistics.CachedClassStatistics;
+import Statistics.PercentileSummary;
 
 import java.util.Map;
 
@@ -29,6 +30,8 @@ public class ClassStatisticsPrinter {
         printStatisticalAnalysis(stats);
         printSubjectPerformance(stats.getSubjectAverages());
         printStudentTypeComparison(stats.getStudentTypeAverages());
+        printPercentiles("SUBJECT PERCENTILES", stats.getSubjectPercentiles());
+        printPercentiles("STUDENT TYPE PERCENTILES", stats.getStudentTypePercentiles());
 
         System.out.println("\nPress Enter to continue...");
         new java.util.Scanner(System.in).nextLine();
@@ -80,4 +83,25 @@ public class ClassStatisticsPrinter {
         System.out.printf("Regular: %.1f%%%n", typeAvg.getOrDefault("Regular", 0.0));
         System.out.printf("Honors:  %.1f%%%n", typeAvg.getOrDefault("Honors", 0.0));
     }
+
+    private void printPercentiles(String title, Map<String, PercentileSummary> percentiles) {
+        if (percentiles.isEmpty()) return;
+
+        System.out.println("\n" + title + " (approx. ±2% rank)");
+        System.out.println("────────────────────────────────────────");
+
+        System.out.printf("%-20s", "");
+        for (int p : PercentileSummary.REPORTED_PERCENTILES) {
+            System.out.printf(" %6s", "P" + p);
+        }
+        System.out.println();
+
+        for (Map.Entry<String, PercentileSummary> e : percentiles.entrySet()) {
+            System.out.printf("%-20s", e.getKey() + ":");
+            for (int p : PercentileSummary.REPORTED_PERCENTILES) {
+                System.out.printf(" %6.1f", e.getValue().get(p));
+            }
+            System.out.println();
+        }
+    }
 }
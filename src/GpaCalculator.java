@@ -1,3 +1,4 @@
+import Caching.AccessHint;
 import Exceptions.GpaErrorException;
 import Exceptions.StudentNotFoundException;
 
@@ -12,10 +13,28 @@ import java.util.*;
 public class GpaCalculator {
     private final GradeManager gradeManager;
 
+    // Honours eligibility over one roster, built on first use
+    private HonorsIndex honorsIndex;
+    private StudentManager indexedRoster;
+
     public GpaCalculator(GradeManager gradeManager) {
         this.gradeManager = gradeManager;
     }
 
+    /**
+     * Honours eligibility index for the given roster; created once and then
+     * kept current by grade and student writes. Asking for another roster
+     * closes the previous index, so only one is ever subscribed.
+     */
+    public synchronized HonorsIndex honorsIndex(StudentManager studentManager) {
+        if (honorsIndex == null || indexedRoster != studentManager) {
+            if (honorsIndex != null) honorsIndex.close();
+            honorsIndex = new HonorsIndex(studentManager, gradeManager, this);
+            indexedRoster = studentManager;
+        }
+        return honorsIndex;
+    }
+
     public double convertToGPA(double percentage) {
         if (percentage < 0 || percentage > 100)
             throw new IllegalArgumentException("Percentage must be between 0 and 100");
@@ -48,17 +67,41 @@ public class GpaCalculator {
     }
 
     public double calculateGPA(String studentId) throws GpaErrorException {
-        Grade[] grades = gradeManager.getGradesForStudent(studentId);
-        if (grades.length == 0) {
+        return calculateGPA(studentId, AccessHint.NORMAL);
+    }
+
+    public double calculateGPA(String studentId, AccessHint hint) throws GpaErrorException {
+        OptionalDouble gpa = findGPA(studentId, hint);
+        if (gpa.isEmpty()) {
             throw new GpaErrorException("The student has no grades");
         }
+        return gpa.getAsDouble();
+    }
+
+    /**
+     * GPA without the exception path; empty when the student has no grades.
+     * Time Complexity: O(k)
+     */
+    public OptionalDouble findGPA(String studentId) {
+        return findGPA(studentId, AccessHint.NORMAL);
+    }
+
+    /**
+     * findGPA for roster-wide scans (AccessHint.SCAN), which must not fill the grade cache.
+     * Time Complexity: O(k)
+     */
+    public OptionalDouble findGPA(String studentId, AccessHint hint) {
+        Grade[] grades = gradeManager.getGradesForStudent(studentId, hint);
+        if (grades.length == 0) {
+            return OptionalDouble.empty();
+        }
 
         double totalGpa = 0;
         for (Grade g : grades) {
             totalGpa += convertToGPA(g.getGrade());
         }
 
-        return totalGpa / grades.length;
+        return OptionalDouble.of(totalGpa / grades.length);
     }
 
     public void displayGPAReport(String studentId) throws GpaErrorException {
@@ -1,3 +1,5 @@
+import Caching.MemoryEstimator;
+import Caching.MemoryFootprint;
 import Exceptions.InvalidGradeException;
 
 import java.io.Serializable;
@@ -10,7 +12,7 @@ import java.util.Objects;
  * Immutable fields: gradeId, studentId, subject, date.
  * Grade value can be updated but remains validated.
  */
-public class Grade implements Gradable, Serializable {
+public class Grade implements Gradable, Serializable, MemoryFootprint {
 private static final long serialVersionUID = 1L;
     private final LocalDateTime addedTime;
     private static int gradeCounter;
@@ -86,6 +88,18 @@ private static final long serialVersionUID = 1L;
         return grade >= 0 && grade <= 100;
     }
 
+    /**
+     * Object fields plus the owned gradeId, timestamp and date; the subject and the
+     * studentId string are shared with other objects and not counted.
+     */
+    @Override
+    public long estimatedBytes() {
+        long fields = MemoryEstimator.align(MemoryEstimator.OBJECT_HEADER + 5L * MemoryEstimator.REFERENCE + 8);
+        long localDate = 24;
+        long localDateTime = 24 + localDate + 24;
+        return fields + MemoryEstimator.string(gradeId) + localDateTime + localDate;
+    }
+
     // ----- Equals + HashCode (for HashSet / Map keys) -----
     @Override
     public boolean equals(Object o) {
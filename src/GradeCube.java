@@ -0,0 +1,198 @@
+import Statistics.GradeBand;
+
+import java.util.*;
+
+/**
+ * GradeCube
+ *
+ * Pre-aggregated grade counts and sums over every combination of
+ * subject, subject type, student type, letter band and record date.
+ *
+ * - Built with one columnar scan: each dimension is dictionary-encoded into
+ *   an int column, then every grade adds to the cell of its mixed-radix code
+ * - Cells are sparse (only combinations that occur, at most one per grade), so
+ *   the day-level DATE dimension never multiplies into a dense array
+ * - Slice / roll-up queries walk the cells, never the grades, so their cost
+ *   depends on the number of distinct combinations rather than on the history
+ * - Immutable; StudentAnalytics rebuilds it only when the grade log or roster changes
+ */
+public class GradeCube {
+
+    public enum Dimension {
+        SUBJECT,
+        SUBJECT_TYPE,
+        STUDENT_TYPE,
+        BAND,
+        DATE
+    }
+
+    public static final String UNKNOWN_STUDENT_TYPE = "Unknown";
+
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+
+    // Per dimension: code -> label, in first-seen order (BAND in GradeBand order)
+    private final List<List<String>> labels = new ArrayList<>();
+    private final long[] strides = new long[DIMENSIONS.length];
+
+    // Non-empty cells: mixed-radix code, grade count and score sum at the same index
+    private final long[] cellCodes;
+    private final int[] cellCount;
+    private final double[] cellSum;
+    private final int gradeCount;
+
+    private GradeCube(List<Map<String, Integer>> dictionaries, int[][] columns, double[] scores) {
+        for (Map<String, Integer> dictionary : dictionaries) {
+            labels.add(new ArrayList<>(dictionary.keySet()));
+        }
+        long radix = 1;
+        for (int d = DIMENSIONS.length - 1; d >= 0; d--) {
+            strides[d] = radix;
+            radix = Math.multiplyExact(radix, (long) Math.max(1, dictionaries.get(d).size()));
+        }
+
+        HashMap<Long, Integer> cellIndex = new HashMap<>();
+        long[] codes = new long[Math.min(scores.length, 1024)];
+        int[] counts = new int[codes.length];
+        double[] sums = new double[codes.length];
+        for (int i = 0; i < scores.length; i++) {
+            long code = 0;
+            for (int d = 0; d < DIMENSIONS.length; d++) code += columns[d][i] * strides[d];
+            Integer cell = cellIndex.get(code);
+            if (cell == null) {
+                cell = cellIndex.size();
+                if (cell == codes.length) {
+                    codes = Arrays.copyOf(codes, cell * 2);
+                    counts = Arrays.copyOf(counts, cell * 2);
+                    sums = Arrays.copyOf(sums, cell * 2);
+                }
+                codes[cell] = code;
+                cellIndex.put(code, cell);
+            }
+            counts[cell]++;
+            sums[cell] += scores[i];
+        }
+        int cells = cellIndex.size();
+        cellCodes = Arrays.copyOf(codes, cells);
+        cellCount = Arrays.copyOf(counts, cells);
+        cellSum = Arrays.copyOf(sums, cells);
+        gradeCount = scores.length;
+    }
+
+    /**
+     * Builds the cube from current grade records and the roster that owns them.
+     * Time Complexity: O(n)
+     */
+    public static GradeCube build(GradeRecord[] records, Student[] roster) {
+        Map<String, String> studentTypes = new HashMap<>();
+        for (Student s : roster) studentTypes.put(s.getStudentId(), s.getStudentType());
+
+        List<Map<String, Integer>> dictionaries = new ArrayList<>();
+        for (Dimension ignored : DIMENSIONS) dictionaries.add(new LinkedHashMap<>());
+        for (GradeBand band : GradeBand.values()) {
+            dictionaries.get(Dimension.BAND.ordinal()).put(band.name(), band.ordinal());
+        }
+
+        int[][] columns = new int[DIMENSIONS.length][records.length];
+        double[] scores = new double[records.length];
+        for (int i = 0; i < records.length; i++) {
+            GradeRecord r = records[i];
+            scores[i] = r.getScore();
+            columns[Dimension.SUBJECT.ordinal()][i] = encode(dictionaries, Dimension.SUBJECT, r.getSubject().getSubjectName());
+            columns[Dimension.SUBJECT_TYPE.ordinal()][i] = encode(dictionaries, Dimension.SUBJECT_TYPE, r.getSubject().getSubjectType());
+            columns[Dimension.STUDENT_TYPE.ordinal()][i] = encode(dictionaries, Dimension.STUDENT_TYPE,
+                    studentTypes.getOrDefault(r.getStudentId(), UNKNOWN_STUDENT_TYPE));
+            columns[Dimension.BAND.ordinal()][i] = GradeBand.of(r.getScore()).ordinal();
+            columns[Dimension.DATE.ordinal()][i] = encode(dictionaries, Dimension.DATE, r.getDate().toString());
+        }
+        return new GradeCube(dictionaries, columns, scores);
+    }
+
+    private static int encode(List<Map<String, Integer>> dictionaries, Dimension dimension, String label) {
+        Map<String, Integer> dictionary = dictionaries.get(dimension.ordinal());
+        return dictionary.computeIfAbsent(label, k -> dictionary.size());
+    }
+
+    public int getGradeCount() {
+        return gradeCount;
+    }
+
+    /**
+     * Distinct values of one dimension (dates as yyyy-MM-dd).
+     */
+    public List<String> values(Dimension dimension) {
+        return Collections.unmodifiableList(labels.get(dimension.ordinal()));
+    }
+
+    /**
+     * Count / sum / average of every grade matching the slice.
+     * Time Complexity: O(cells)
+     */
+    public Aggregate total(Map<Dimension, String> slice) {
+        return rollUp(slice).getOrDefault(List.of(), new Aggregate(0, 0));
+    }
+
+    /**
+     * Aggregates grades matching the slice, grouped by the given dimensions.
+     * Keys list the group-by labels in the order requested; groups with no grades are omitted.
+     * Example: rollUp(Map.of(SUBJECT, "Mathematics"), STUDENT_TYPE, BAND)
+     * Time Complexity: O(cells)
+     */
+    public Map<List<String>, Aggregate> rollUp(Map<Dimension, String> slice, Dimension... groupBy) {
+        // Slice labels the cube has never seen match nothing
+        int[] fixed = new int[DIMENSIONS.length];
+        Arrays.fill(fixed, -1);
+        for (Map.Entry<Dimension, String> e : slice.entrySet()) {
+            int code = labels.get(e.getKey().ordinal()).indexOf(e.getValue());
+            if (code < 0) return new LinkedHashMap<>();
+            fixed[e.getKey().ordinal()] = code;
+        }
+
+        Map<List<String>, long[]> counts = new LinkedHashMap<>();
+        Map<List<String>, double[]> sums = new HashMap<>();
+        for (int cell = 0; cell < cellCodes.length; cell++) {
+            long code = cellCodes[cell];
+            if (!matches(code, fixed)) continue;
+
+            String[] key = new String[groupBy.length];
+            for (int g = 0; g < groupBy.length; g++) {
+                int d = groupBy[g].ordinal();
+                key[g] = labels.get(d).get(code(code, d));
+            }
+            List<String> group = List.of(key);
+            counts.computeIfAbsent(group, k -> new long[1])[0] += cellCount[cell];
+            sums.computeIfAbsent(group, k -> new double[1])[0] += cellSum[cell];
+        }
+
+        Map<List<String>, Aggregate> result = new LinkedHashMap<>();
+        counts.forEach((group, c) -> result.put(group, new Aggregate(c[0], sums.get(group)[0])));
+        return result;
+    }
+
+    private boolean matches(long cellCode, int[] fixed) {
+        for (int d = 0; d < fixed.length; d++) {
+            if (fixed[d] >= 0 && code(cellCode, d) != fixed[d]) return false;
+        }
+        return true;
+    }
+
+    private int code(long cellCode, int dimension) {
+        return (int) ((cellCode / strides[dimension]) % Math.max(1, labels.get(dimension).size()));
+    }
+
+    /**
+     * Count, sum and average of one group.
+     */
+    public static class Aggregate {
+        private final long count;
+        private final double sum;
+
+        Aggregate(long count, double sum) {
+            this.count = count;
+            this.sum = sum;
+        }
+
+        public long getCount() { return count; }
+        public double getSum() { return sum; }
+        public double getAverage() { return count == 0 ? 0 : sum / count; }
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Receives grade writes from GradeManager.
+ * Listeners run on the writing thread, so they must stay O(1) / O(log n).
+ */
+public interface GradeListener {
+
+    void onGradeAdded(Grade grade);
+
+    default void onGradeUpdated(Grade grade, double previousScore) {
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * GradeLog
+ *
+ * Versioned append-only log of grade writes, used for point-in-time reads.
+ *
+ * - Writers append under the log's monitor; readers never lock
+ * - A record slot is written before the volatile size is bumped, and slots
+ *   below size are never modified again, so (array, size) read in that order
+ *   is always a consistent prefix of the history
+ * - The backing array grows by copy; an old array still holds the same prefix,
+ *   so readers holding it are unaffected
+ * - Corrections append a record that supersedes the earlier one; a snapshot
+ *   resolves them up to its own epoch only
+ */
+public class GradeLog {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile GradeRecord[] records = new GradeRecord[INITIAL_CAPACITY];
+    private volatile int size;
+    private volatile boolean hasCorrections;
+
+    // gradeId -> position of its current record (writers only)
+    private final HashMap<String, Integer> latest = new HashMap<>();
+
+    /**
+     * Appends a first write of a grade.
+     * Time Complexity: O(1) amortised
+     */
+    public synchronized void append(Grade grade) {
+        add(new GradeRecord(grade, grade.getGrade(), -1));
+    }
+
+    /**
+     * Appends the grade's current score as a correction of its previous record.
+     * Time Complexity: O(1) amortised
+     */
+    public synchronized void appendCorrection(Grade grade) {
+        Integer previous = latest.get(grade.getGradeId());
+        if (previous != null) hasCorrections = true;
+        add(new GradeRecord(grade, grade.getGrade(), previous == null ? -1 : previous));
+    }
+
+    private void add(GradeRecord record) {
+        GradeRecord[] arr = records;
+        if (size == arr.length) {
+            arr = Arrays.copyOf(arr, arr.length * 2);
+            records = arr;
+        }
+        arr[size] = record;
+        latest.put(record.getGradeId(), size);
+        size = size + 1; // publish
+    }
+
+    /**
+     * Number of records written so far; also the epoch of the next snapshot.
+     */
+    public int getEpoch() {
+        return size;
+    }
+
+    /**
+     * Point-in-time view of every grade as of now. Never blocks writers.
+     * Time Complexity: O(1), or O(n) when corrections must be resolved
+     */
+    public Snapshot snapshot() {
+        int epoch = size;            // read size first ...
+        GradeRecord[] arr = records; // ... then any array that holds that prefix
+
+        BitSet superseded = null;
+        if (hasCorrections) {
+            superseded = new BitSet(epoch);
+            for (int i = 0; i < epoch; i++) {
+                int replaced = arr[i].getSupersedes();
+                if (replaced >= 0) superseded.set(replaced);
+            }
+        }
+        return new Snapshot(arr, epoch, superseded);
+    }
+
+    /**
+     * Consistent set of current grade records at one epoch.
+     */
+    public static class Snapshot {
+        private final GradeRecord[] records;
+        private final int epoch;
+        private final BitSet superseded;
+
+        private Snapshot(GradeRecord[] records, int epoch, BitSet superseded) {
+            this.records = records;
+            this.epoch = epoch;
+            this.superseded = superseded;
+        }
+
+        public int getEpoch() {
+            return epoch;
+        }
+
+        /**
+         * Current records (corrections applied) in write order.
+         * Time Complexity: O(n)
+         */
+        public GradeRecord[] toArray() {
+            if (superseded == null) return Arrays.copyOf(records, epoch);
+
+            GradeRecord[] current = new GradeRecord[epoch - superseded.cardinality()];
+            int j = 0;
+            for (int i = 0; i < epoch; i++) {
+                if (!superseded.get(i)) current[j++] = records[i];
+            }
+            return current;
+        }
+    }
+}
@@ -1,26 +1,42 @@
 import Audit.AuditLogger;
 import Audit.OperationType;
+import Caching.AccessHint;
 import Caching.CacheManager;
+import Caching.CacheTags;
 import Exceptions.InvalidGradeException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * GradeManager
  *
- * - LinkedList for grade history
- * - HashMap<String, LinkedList<Grade>> for fast student access
- * - HashSet for unique course tracking
+ * - LinkedList for grade history, guarded by its own monitor (writes and
+ *   roster-wide reads only)
+ * - ConcurrentHashMap<String, CopyOnWriteArrayList<Grade>> for fast student access:
+ *   per-student reads take no lock and iterate a stable snapshot, so parallel
+ *   analytics workers and cache loaders on background threads (CacheWarmer) never
+ *   wait on each other or on writers
+ * - Concurrent set per student for unique course tracking
+ * - CopyOnWriteArrayList of GradeListeners notified on every write
+ * - GradeLog (versioned append log) for snapshot-consistent readers
  *
  */
 public class GradeManager {
 
     private final LinkedList<Grade> grades = new LinkedList<>();
 
-    private final HashMap<String, LinkedList<Grade>> gradeMap =
-            new HashMap<>();
+    // Copy-on-write per student: a student rarely has more than a few dozen grades,
+    // so copying on add is cheap and every read is lock-free
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Grade>> gradeMap =
+            new ConcurrentHashMap<>();
 
-    private final HashMap<String, HashSet<String>> courseMap =
-            new HashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> courseMap =
+            new ConcurrentHashMap<>();
+
+    private final GradeLog log = new GradeLog();
+
+    private final List<GradeListener> listeners = new CopyOnWriteArrayList<>();
 
     private final CacheManager<String, Object> cache;
     private final AuditLogger auditLogger;
@@ -30,9 +46,20 @@ public class GradeManager {
         this.auditLogger = auditLogger;
     }
 
+    /**
+     * Registers a listener notified after each successful grade write.
+     */
+    public void addGradeListener(GradeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeGradeListener(GradeListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
      * Adds a grade.
-     * Time Complexity: O(1)
+     * Time Complexity: O(k), k = the student's grades (copy-on-write list)
      */
     public void addGrade(Grade grade) throws InvalidGradeException {
         long start = System.currentTimeMillis();
@@ -44,16 +71,25 @@ public class GradeManager {
                 throw new InvalidGradeException("Grade must be between 0 and 100.");
             }
 
-            grades.add(grade);
+            synchronized (grades) {
+                grades.add(grade);
+            }
 
             gradeMap
-                    .computeIfAbsent(grade.getStudentId(), k -> new LinkedList<>())
+                    .computeIfAbsent(grade.getStudentId(), k -> new CopyOnWriteArrayList<>())
                     .add(grade);
 
             courseMap
-                    .computeIfAbsent(grade.getStudentId(), k -> new HashSet<>())
+                    .computeIfAbsent(grade.getStudentId(), k -> ConcurrentHashMap.newKeySet())
                     .add(grade.getSubject().getSubjectName());
 
+            log.append(grade);
+            invalidateDependents(grade.getStudentId());
+
+            for (GradeListener listener : listeners) {
+                listener.onGradeAdded(grade);
+            }
+
             success = true; // operation succeeded
         } finally {
             long execTime = System.currentTimeMillis() - start;
@@ -69,6 +105,50 @@ public class GradeManager {
         }
     }
 
+    /**
+     * Corrects the score of an already recorded grade.
+     * Time Complexity: O(1) plus listener cost
+     */
+    public void updateGrade(Grade grade, double newScore) throws InvalidGradeException {
+        long start = System.currentTimeMillis();
+        boolean success = false;
+        double previous = grade.getGrade();
+
+        try {
+            if (!grade.recordGrade(newScore)) {
+                throw new InvalidGradeException("Grade must be between 0 and 100.");
+            }
+
+            log.appendCorrection(grade);
+            invalidateDependents(grade.getStudentId());
+
+            for (GradeListener listener : listeners) {
+                listener.onGradeUpdated(grade, previous);
+            }
+
+            success = true;
+        } finally {
+            long execTime = System.currentTimeMillis() - start;
+
+            auditLogger.log(
+                    OperationType.RECORD_GRADE,
+                    "Updated grade " + grade.getGradeId() +
+                            " for student " + grade.getStudentId() +
+                            ", score " + previous + " -> " + newScore,
+                    execTime,
+                    success
+            );
+        }
+    }
+
+    /**
+     * Drops cached values derived from the student's grades. Class-wide statistics
+     * live in ClassStatisticsCalculator's cache and follow its engine version.
+     * Time Complexity: O(dependent entries)
+     */
+    private void invalidateDependents(String studentId) {
+        cache.invalidateTag(CacheTags.student(studentId));
+    }
 
     /**
      * Views grades by student.
@@ -79,11 +159,9 @@ public class GradeManager {
         boolean found = false;
         System.out.println("\n=== Grades for Student: " + studentId + " ===");
 
-        ListIterator<Grade> it =
-                grades.listIterator(grades.size());
-
-        while (it.hasPrevious()) {
-            Grade g = it.previous();
+        Grade[] all = getAllGrades();
+        for (int i = all.length - 1; i >= 0; i--) {
+            Grade g = all[i];
             if (g.getStudentId().equals(studentId)) {
                 found = true;
                 g.displayGradeDetails();
@@ -104,7 +182,7 @@ public class GradeManager {
         double sum = 0;
         int count = 0;
 
-        LinkedList<Grade> list = gradeMap.get(studentId);
+        List<Grade> list = gradesOf(studentId);
         if (list == null) return 0;
 
         for (Grade g : list) {
@@ -126,7 +204,7 @@ public class GradeManager {
         double sum = 0;
         int count = 0;
 
-        LinkedList<Grade> list = gradeMap.get(studentId);
+        List<Grade> list = gradesOf(studentId);
         if (list == null) return 0;
 
         for (Grade g : list) {
@@ -145,14 +223,17 @@ public class GradeManager {
      */
     public double calculateOverallAverage(String studentId) {
 
-        LinkedList<Grade> list = gradeMap.get(studentId);
-        if (list == null || list.isEmpty()) return 0;
+        List<Grade> list = gradesOf(studentId);
+        if (list == null) return 0;
 
+        // One pass: size() could already include a grade added after the iterator's snapshot
         double sum = 0;
+        int count = 0;
         for (Grade g : list) {
             sum += g.getGrade();
+            count++;
         }
-        return sum / list.size();
+        return (count == 0) ? 0 : sum / count;
     }
 
     /**
@@ -160,7 +241,7 @@ public class GradeManager {
      * Time Complexity: O(1)
      */
     public int getGradeCount(String studentId) {
-        LinkedList<Grade> list = gradeMap.get(studentId);
+        List<Grade> list = gradeMap.get(studentId);
         return list == null ? 0 : list.size();
     }
 
@@ -169,21 +250,57 @@ public class GradeManager {
      * Time Complexity: O(k)
      */
     public Grade[] getGradesForStudent(String studentId) {
-        String key = "GRADES_"+studentId;
-        Object cached = cache.get(key);
-        if (cached != null) {
-            return (Grade[]) cached;
-        }
-        LinkedList<Grade> list = gradeMap.get(studentId);
-        if (list == null) return new Grade[0];
+        return getGradesForStudent(studentId, AccessHint.NORMAL);
+    }
 
-        LinkedList<Grade> reversed = new LinkedList<>(list);
-        Collections.reverse(reversed);
+    /**
+     * Grades for student (newest first); roster-wide scans pass AccessHint.SCAN so they
+     * read through the cache without displacing interactively used entries.
+     * Time Complexity: O(k)
+     */
+    public Grade[] getGradesForStudent(String studentId, AccessHint hint) {
+        Grade[] arr = (Grade[]) cache.get("GRADES_" + studentId, hint, key -> {
+            List<Grade> list = gradesOf(studentId);
+            if (list == null) return null;
+
+            Grade[] newestFirst = list.toArray(new Grade[0]);
+            for (int i = 0, j = newestFirst.length - 1; i < j; i++, j--) {
+                Grade tmp = newestFirst[i];
+                newestFirst[i] = newestFirst[j];
+                newestFirst[j] = tmp;
+            }
+            return newestFirst;
+        }, CacheTags.student(studentId));
+        return arr == null ? new Grade[0] : arr;
+    }
 
-        Grade[] arr = reversed.toArray(new Grade[0]);
+    /**
+     * Fingerprint of the student's grades (ids, subjects, scores), stable across restarts;
+     * used to discard cache snapshot entries built from different grades.
+     * Time Complexity: O(k)
+     *
+     * @return null if the student has no grades
+     */
+    public Long dataVersion(String studentId) {
+        List<Grade> list = gradesOf(studentId);
+        if (list == null) return null;
+        long h = 1125899906842597L;
+        for (Grade g : list) {
+            h = 31 * h + g.getGradeId().hashCode();
+            h = 31 * h + g.getSubject().getSubjectName().hashCode();
+            h = 31 * h + Double.hashCode(g.getGrade());
+        }
+        return h;
+    }
 
-        cache.put(key, arr);
-        return arr;
+    /**
+     * Read-only view of the student's grades in recording order, or null without grades.
+     * Iteration sees a stable snapshot however many grades are added meanwhile.
+     * Time Complexity: O(1)
+     */
+    private List<Grade> gradesOf(String studentId) {
+        List<Grade> list = gradeMap.get(studentId);
+        return list == null ? null : Collections.unmodifiableList(list);
     }
 
     /**
@@ -191,16 +308,38 @@ public class GradeManager {
      * Time Complexity: O(1)
      */
     public int getTotalGradeCount() {
-        return grades.size();
+        synchronized (grades) {
+            return grades.size();
+        }
+    }
+
+    /**
+     * Point-in-time view of all grades; safe to read while other threads add grades.
+     * Time Complexity: O(1) without corrections, O(n) with
+     */
+    public GradeLog.Snapshot snapshot() {
+        return log.snapshot();
+    }
+
+    /**
+     * All grades in recording order.
+     * Time Complexity: O(n)
+     */
+    public Grade[] getAllGrades() {
+        synchronized (grades) {
+            return grades.toArray(new Grade[0]);
+        }
     }
 
     /**
      * Grade by index.
-     * Time Complexity: O(1)
+     * Time Complexity: O(n)
      */
     public Grade getGradeAt(int index) {
-        if (index >= 0 && index < grades.size()) {
-            return grades.get(index);
+        synchronized (grades) {
+            if (index >= 0 && index < grades.size()) {
+                return grades.get(index);
+            }
         }
         return null;
     }
@@ -208,15 +347,16 @@ public class GradeManager {
     // ================= CLASS-WIDE AVERAGE =================
     public double calculateOverallClassAverage() {
 
-        if (grades.isEmpty()) return 0;
+        Grade[] all = getAllGrades();
+        if (all.length == 0) return 0;
 
         double sum = 0;
 
-        for (Grade g : grades) {
+        for (Grade g : all) {
             sum += g.getGrade();
         }
 
-        return sum / grades.size();
+        return sum / all.length;
     }
 
 }
@@ -0,0 +1,53 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable entry of the GradeLog: a grade as it was at the moment it was written.
+ * A correction is a new record that supersedes the grade's previous record.
+ */
+public final class GradeRecord {
+
+    private final Grade grade;
+    private final double score;
+    private final int supersedes;
+
+    GradeRecord(Grade grade, double score, int supersedes) {
+        this.grade = grade;
+        this.score = score;
+        this.supersedes = supersedes;
+    }
+
+    public String getGradeId() {
+        return grade.getGradeId();
+    }
+
+    public String getStudentId() {
+        return grade.getStudentId();
+    }
+
+    public Subject getSubject() {
+        return grade.getSubject();
+    }
+
+    public LocalDate getDate() {
+        return grade.getDate();
+    }
+
+    public LocalDateTime getTimestamp() {
+        return grade.getTimestamp();
+    }
+
+    /**
+     * Score at write time; later corrections never change this value.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Log position of the record this one replaces, or -1 for a first write.
+     */
+    public int getSupersedes() {
+        return supersedes;
+    }
+}
@@ -0,0 +1,141 @@
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * HonorsIndex
+ *
+ * Honours eligibility kept up to date on every grade write, so honours
+ * listings cost O(k) in the number of eligible students instead of an
+ * average / GPA recomputation for the whole roster.
+ *
+ * - Students get an ordinal in roster order; eligibility is a BitSet over ordinals
+ * - Per-student running sums (score, GPA points, count) give the average and
+ *   GPA in O(1); a bit flips only when a student crosses a threshold
+ * - averageEligible: HonorsStudents with an average >= HonorsStudent.HONORS_AVERAGE
+ * - gpaEligible: any student with a GPA above HONORS_GPA
+ *
+ * All methods are synchronized. The index follows its managers until close().
+ */
+public class HonorsIndex implements AutoCloseable {
+
+    public static final double HONORS_GPA = 3.5;
+
+    private final GpaCalculator gpaCalculator;
+    private final StudentManager studentManager;
+    private final GradeManager gradeManager;
+    private final Consumer<Student> studentListener = this::register;
+    private final GradeListener gradeListener;
+
+    private final List<Student> byOrdinal = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    // studentId -> [score sum, GPA point sum, count]; also holds ids not yet on the roster
+    private final Map<String, double[]> totals = new HashMap<>();
+
+    private final BitSet averageEligible = new BitSet();
+    private final BitSet gpaEligible = new BitSet();
+
+    public HonorsIndex(StudentManager studentManager, GradeManager gradeManager, GpaCalculator gpaCalculator) {
+        this.gpaCalculator = gpaCalculator;
+        this.studentManager = studentManager;
+        this.gradeManager = gradeManager;
+
+        gradeListener = new GradeListener() {
+            @Override
+            public void onGradeAdded(Grade grade) {
+                record(grade.getStudentId(), grade.getGrade());
+            }
+
+            @Override
+            public void onGradeUpdated(Grade grade, double previousScore) {
+                correct(grade.getStudentId(), previousScore, grade.getGrade());
+            }
+        };
+        studentManager.addStudentListener(studentListener);
+        gradeManager.addGradeListener(gradeListener);
+
+        // Seed with anything recorded before the index was created
+        for (Student s : studentManager.getAllStudents()) {
+            register(s);
+        }
+        for (GradeRecord g : gradeManager.snapshot().toArray()) {
+            record(g.getStudentId(), g.getScore());
+        }
+    }
+
+    /**
+     * Stops following student and grade writes.
+     */
+    @Override
+    public void close() {
+        studentManager.removeStudentListener(studentListener);
+        gradeManager.removeGradeListener(gradeListener);
+    }
+
+    /**
+     * Time Complexity: O(1)
+     */
+    private synchronized void register(Student student) {
+        if (ordinals.containsKey(student.getStudentId())) return;
+        ordinals.put(student.getStudentId(), byOrdinal.size());
+        byOrdinal.add(student);
+        evaluate(student.getStudentId());
+    }
+
+    /**
+     * Time Complexity: O(1)
+     */
+    private synchronized void record(String studentId, double score) {
+        double[] t = totals.computeIfAbsent(studentId, k -> new double[3]);
+        t[0] += score;
+        t[1] += gpaCalculator.convertToGPA(score);
+        t[2]++;
+        evaluate(studentId);
+    }
+
+    /**
+     * Time Complexity: O(1)
+     */
+    private synchronized void correct(String studentId, double previousScore, double newScore) {
+        double[] t = totals.get(studentId);
+        if (t == null) return;
+        t[0] += newScore - previousScore;
+        t[1] += gpaCalculator.convertToGPA(newScore) - gpaCalculator.convertToGPA(previousScore);
+        evaluate(studentId);
+    }
+
+    private void evaluate(String studentId) {
+        Integer ordinal = ordinals.get(studentId);
+        double[] t = totals.get(studentId);
+        if (ordinal == null || t == null || t[2] == 0) return;
+
+        Student student = byOrdinal.get(ordinal);
+        averageEligible.set(ordinal,
+                student instanceof HonorsStudent && t[0] / t[2] >= HonorsStudent.HONORS_AVERAGE);
+        gpaEligible.set(ordinal, t[1] / t[2] > HONORS_GPA);
+    }
+
+    /**
+     * HonorsStudents whose average is at least HonorsStudent.HONORS_AVERAGE, in roster order.
+     * Time Complexity: O(k)
+     */
+    public synchronized List<Student> averageEligibleStudents() {
+        return collect(averageEligible);
+    }
+
+    /**
+     * Students whose GPA is above HONORS_GPA, in roster order.
+     * Time Complexity: O(k)
+     */
+    public synchronized List<Student> gpaEligibleStudents() {
+        return collect(gpaEligible);
+    }
+
+    private List<Student> collect(BitSet bits) {
+        List<Student> students = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            students.add(byOrdinal.get(i));
+        }
+        return students;
+    }
+}
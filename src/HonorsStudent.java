@@ -3,6 +3,7 @@ import java.io.Serializable;
 public class HonorsStudent extends Student implements Serializable {
     private static final long serialVersionUID = 1L;
     private static final double PASSING_GRADE = 60.0;
+    public static final double HONORS_AVERAGE = 85.0;
 
     public HonorsStudent(String name, int age, String email, String phone) {
         super(name, age, email, phone);
@@ -22,7 +23,7 @@ public class HonorsStudent extends Student implements Serializable {
     }
 
     public boolean isHonorsEligible() {
-        return calculateAverageGrade() >= 85;
+        return calculateAverageGrade() >= HONORS_AVERAGE;
     }
 
     @Override
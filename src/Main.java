@@ -1,39 +1,114 @@
+import Audit.AuditFormat;
 import Audit.AuditLogger;
 import Audit.AuditMenu;
+import Audit.FlushPolicy;
+import Caching.CacheConfig;
 import Caching.CacheManager;
+import Caching.CacheRegistry;
+import Caching.EvictionPolicy;
 import Exceptions.GpaErrorException;
 import Exceptions.InvalidGradeException;
 import Exceptions.LoggerHandler;
 import Exceptions.StudentNotFoundException;
 import Statistics.CachedClassStatistics;
+import Statistics.SlidingWindowStatistics;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
 
 public class Main {
-    private static CacheManager<String, Object> cacheManager = new CacheManager<>();
-    private static final AuditLogger auditLogger = new AuditLogger();
-    private static CacheManager<String, CachedClassStatistics> statsCache = new CacheManager<>();
+    // Students and grade arrays vary a lot in size, so the shared cache is bounded by memory
+    private static final long SHARED_CACHE_BYTES = 4L * 1024 * 1024;
+    // Evicted entries are kept serialised off-heap, outside GC reach
+    private static final long SHARED_OFF_HEAP_BYTES = 32L * 1024 * 1024;
+    // Every cache lives in one registry; cache.properties may override the defaults below
+    private static final CacheRegistry caches = loadCacheRegistry(Path.of("cache.properties"));
+    private static CacheManager<String, Object> cacheManager = caches.cache("shared",
+            new CacheConfig().maxBytes(SHARED_CACHE_BYTES).policy(EvictionPolicy.W_TINY_LFU)
+                    .offHeapBytes(SHARED_OFF_HEAP_BYTES).namespaces("STUDENT_", "GRADES_"));
+    // -Daudit.binary=true writes memory-mapped binary segments (read with Audit.AuditLogReader)
+    private static final AuditLogger auditLogger = new AuditLogger(Path.of("."), FlushPolicy.DEFAULT,
+            Boolean.getBoolean("audit.binary") ? AuditFormat.BINARY : AuditFormat.TEXT);
+    // Shared cache contents are kept across restarts (see saveCacheSnapshot)
+    private static final Path CACHE_SNAPSHOT = Path.of("cache_snapshot.bin");
+    // Hottest shared-cache keys of the last run, warmed first on the next start
+    private static final Path CACHE_PROFILE = Path.of("cache_profile.txt");
+    private static CacheManager<String, CachedClassStatistics> statsCache = caches.cache("classStatistics",
+            new CacheConfig().namespaces("CLASS_STATISTICS"));
     private static Scanner scanner = new Scanner(System.in);
     private static StudentManager studentManager = new StudentManager(cacheManager, auditLogger);
     private static GradeManager gradeManager = new GradeManager(cacheManager, auditLogger);
     private static GpaCalculator gpaCalculator = new GpaCalculator(gradeManager);
+    // One instance: it subscribes to the managers' writes for the life of the application
+    private static final StudentAnalytics analytics = new StudentAnalytics(studentManager, gradeManager, gpaCalculator);
 
     // At class level
     private static final ClassStatisticsCalculator calculator =
             new ClassStatisticsCalculator(gradeManager, studentManager, statsCache);
     private static final ClassStatisticsPrinter statsPrinter =
             new ClassStatisticsPrinter(calculator);
+    private static final SlidingWindowStatistics recentGrades = new SlidingWindowStatistics();
 
     public static void main(String[] args) throws InvalidGradeException, StudentNotFoundException {
-        statsCache.startAutoRefresh(60, () -> {
-            CachedClassStatistics stats = calculator.computeStatistics();
-            statsCache.put("CLASS_STATISTICS", stats);
-        });
+        // Class statistics are maintained incrementally on every grade write,
+        // so no background recompute is scheduled.
+        gradeManager.addGradeListener(grade -> recentGrades.record(grade.getGrade()));
+        caches.registerMBeans();
         initializeStudents();
+        // Restored before the menu accepts writes (bounded by the snapshot size), then
+        // warmed from the last run's profile without delaying the menu
+        restoreCacheSnapshot();
+        new CacheWarmer(studentManager, gradeManager, gpaCalculator, calculator)
+                .warmAsync(readCacheProfile());
         showMenu();
     }
 
+    private static CacheRegistry loadCacheRegistry(Path file) {
+        try {
+            return CacheRegistry.load(file);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Ignoring cache configuration " + file + ": " + e.getMessage());
+            return new CacheRegistry();
+        }
+    }
+
+    /**
+     * Data version of a shared-cache key's source; null for keys that are not snapshotted.
+     */
+    private static Long snapshotVersion(String key) {
+        if (key.startsWith("STUDENT_")) return studentManager.dataVersion(key.substring("STUDENT_".length()));
+        if (key.startsWith("GRADES_")) return gradeManager.dataVersion(key.substring("GRADES_".length()));
+        return null;
+    }
+
+    private static void restoreCacheSnapshot() {
+        try {
+            cacheManager.loadSnapshot(CACHE_SNAPSHOT, Main::snapshotVersion);
+        } catch (IOException e) {
+            System.err.println("Could not restore cache snapshot: " + e.getMessage());
+        }
+    }
+
+    private static void saveCacheSnapshot() {
+        try {
+            int saved = cacheManager.saveSnapshot(CACHE_SNAPSHOT, Main::snapshotVersion);
+            cacheManager.saveAccessProfile(CACHE_PROFILE);
+            System.out.println("Saved " + saved + " cache entries for the next start.");
+        } catch (IOException e) {
+            System.err.println("Could not save cache snapshot: " + e.getMessage());
+        }
+    }
+
+    private static List<String> readCacheProfile() {
+        try {
+            return CacheManager.readAccessProfile(CACHE_PROFILE);
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
     private static void showMenu() throws StudentNotFoundException, InvalidGradeException {
         boolean running = true;
 
@@ -127,7 +202,7 @@ public class Main {
                     statsPrinter.print();
                     break;
                 case 10:
-                    RealTimeDashboard dashboard = new RealTimeDashboard(studentManager, gradeManager);
+                    RealTimeDashboard dashboard = new RealTimeDashboard(studentManager, gradeManager, recentGrades);
                     dashboard.start();
                     break;
 
@@ -150,7 +225,6 @@ public class Main {
                     break;
 
                 case 14:
-                    StudentAnalytics analytics = new StudentAnalytics(studentManager, gradeManager, gpaCalculator);
                     System.out.print("Enter the student Id: ");
 
                     String studentId =scanner.next();
@@ -175,8 +249,7 @@ public class Main {
                     break;
 
                 case 17:
-                    statsCache.printStats();
-                    statsCache.displayCacheContents();
+                    caches.printStats();
                     System.out.println("\nPress Enter to continue...");
                     new Scanner(System.in).nextLine();
 
@@ -190,6 +263,9 @@ public class Main {
                 // EXIT
                 case 19:
                     System.out.println("\nExiting system. Goodbye!");
+                    saveCacheSnapshot();
+                    caches.close();
+                    auditLogger.shutdown();
                     running = false;
                     break;
 
@@ -0,0 +1,94 @@
+import Statistics.CachedClassStatistics;
+import Statistics.StatisticsAccumulator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ParallelStatisticsCalculator
+ *
+ * - Splits the grade array across a ForkJoinPool with a RecursiveTask
+ * - Each leaf folds its slice into a StatisticsAccumulator; partials are merged pairwise
+ * - Below the threshold the array is folded on the calling thread
+ */
+public class ParallelStatisticsCalculator {
+
+    public static final int PARALLEL_THRESHOLD = 100_000;
+    private static final int MIN_LEAF_SIZE = 10_000;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelStatisticsCalculator() {
+        this(ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    public ParallelStatisticsCalculator(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Computes class statistics over the given grades.
+     * Time Complexity: O(n / p + d log d)
+     */
+    public CachedClassStatistics compute(GradeRecord[] grades, Student[] students) {
+        Map<String, String> studentTypes = new LinkedHashMap<>();
+        for (Student s : students) {
+            studentTypes.put(s.getStudentId(), s.getStudentType());
+        }
+
+        StatisticsAccumulator total;
+        if (grades.length < threshold) {
+            total = fold(grades, 0, grades.length, studentTypes);
+        } else {
+            // ~4 leaves per worker keeps the pool busy when slices finish unevenly
+            int leafSize = Math.max(MIN_LEAF_SIZE, grades.length / (pool.getParallelism() * 4));
+            total = pool.invoke(new AggregateTask(grades, 0, grades.length, leafSize, studentTypes));
+        }
+        return total.toStatistics();
+    }
+
+    private static StatisticsAccumulator fold(GradeRecord[] grades, int from, int to, Map<String, String> studentTypes) {
+        StatisticsAccumulator acc = new StatisticsAccumulator(studentTypes);
+        for (int i = from; i < to; i++) {
+            GradeRecord g = grades[i];
+            acc.add(g.getStudentId(), g.getSubject().getSubjectName(), g.getScore());
+        }
+        return acc;
+    }
+
+    private static class AggregateTask extends RecursiveTask<StatisticsAccumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final GradeRecord[] grades;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Map<String, String> studentTypes;
+
+        AggregateTask(GradeRecord[] grades, int from, int to, int leafSize, Map<String, String> studentTypes) {
+            this.grades = grades;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.studentTypes = studentTypes;
+        }
+
+        @Override
+        protected StatisticsAccumulator compute() {
+            if (to - from <= leafSize) {
+                return fold(grades, from, to, studentTypes);
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(grades, from, mid, leafSize, studentTypes);
+            AggregateTask right = new AggregateTask(grades, mid, to, leafSize, studentTypes);
+            right.fork();
+            StatisticsAccumulator leftResult = left.compute();
+            // left covers earlier grades, so it must be the merge target
+            return leftResult.merge(right.join());
+        }
+    }
+}
@@ -1,3 +1,6 @@
+import Statistics.GradeBand;
+import Statistics.SlidingWindowStatistics;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -8,6 +11,7 @@ public class RealTimeDashboard {
 
     private final StudentManager studentManager;
     private final GradeManager gradeManager;
+    private final SlidingWindowStatistics recentGrades;
 
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
     private final AtomicBoolean running = new AtomicBoolean(true);
@@ -16,9 +20,11 @@ public class RealTimeDashboard {
     private final int refreshInterval = 5; // seconds
     private final Scanner scanner = new Scanner(System.in);
 
-    public RealTimeDashboard(StudentManager studentManager, GradeManager gradeManager) {
+    public RealTimeDashboard(StudentManager studentManager, GradeManager gradeManager,
+                             SlidingWindowStatistics recentGrades) {
         this.studentManager = studentManager;
         this.gradeManager = gradeManager;
+        this.recentGrades = recentGrades;
         GpaCalculator gpaCalculator = new GpaCalculator(gradeManager);
     }
 
@@ -83,6 +89,20 @@ public class RealTimeDashboard {
         System.out.println("Total Grades: " + totalGrades);
         System.out.printf("Class Average: %.2f%%%n", classAverage);
 
+        // Rolling windows, maintained on every GradeManager.addGrade
+        System.out.println("\nRECENT ACTIVITY");
+        System.out.printf("%-8s %8s %10s %8s   %s%n", "Window", "Grades", "Grades/s", "Mean", "A/B/C/D/F");
+        for (int minutes : SlidingWindowStatistics.WINDOW_MINUTES) {
+            SlidingWindowStatistics.WindowStats w = recentGrades.window(minutes);
+            StringBuilder dist = new StringBuilder();
+            for (GradeBand band : GradeBand.values()) {
+                if (dist.length() > 0) dist.append('/');
+                dist.append(w.getDistribution().get(band));
+            }
+            System.out.printf("%-8s %8d %10.2f %7.1f%%   %s%n",
+                    minutes + " min", w.getCount(), w.getGradesPerSecond(), w.getMean(), dist);
+        }
+
         // Top performers (by average)
         System.out.println("\nTop Performers:");
         allStudents.sort((s1, s2) -> Double.compare(
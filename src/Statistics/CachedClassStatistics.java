@@ -1,8 +1,12 @@
 package Statistics;
 
+import Caching.MemoryEstimator;
+import Caching.MemoryFootprint;
+
+import java.util.Collections;
 import java.util.Map;
 
-public class CachedClassStatistics {
+public class CachedClassStatistics implements MemoryFootprint {
 
     private final int totalStudents;
     private final int totalGrades;
@@ -20,6 +24,13 @@ public class CachedClassStatistics {
     private final double lowestGrade;
     private final String lowestSubject;
 
+    // Approximate percentiles (KllSketch) per subject and per student type
+    private final Map<String, PercentileSummary> subjectPercentiles;
+    private final Map<String, PercentileSummary> studentTypePercentiles;
+
+    // IncrementalStatisticsEngine version the snapshot was taken at; -1 for full recomputes
+    private long sourceVersion = -1;
+
     public CachedClassStatistics(
             int totalStudents,
             int totalGrades,
@@ -34,6 +45,28 @@ public class CachedClassStatistics {
             String highestSubject,
             double lowestGrade,
             String lowestSubject
+    ) {
+        this(totalStudents, totalGrades, gradeDistribution, mean, median, mode, stdDev,
+                subjectAverages, studentTypeAverages, highestGrade, highestSubject,
+                lowestGrade, lowestSubject, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    public CachedClassStatistics(
+            int totalStudents,
+            int totalGrades,
+            Map<String, Integer> gradeDistribution,
+            double mean,
+            double median,
+            double mode,
+            double stdDev,
+            Map<String, Double> subjectAverages,
+            Map<String, Double> studentTypeAverages,
+            double highestGrade,
+            String highestSubject,
+            double lowestGrade,
+            String lowestSubject,
+            Map<String, PercentileSummary> subjectPercentiles,
+            Map<String, PercentileSummary> studentTypePercentiles
     ) {
         this.totalStudents = totalStudents;
         this.totalGrades = totalGrades;
@@ -48,6 +81,8 @@ public class CachedClassStatistics {
         this.highestSubject = highestSubject;
         this.lowestGrade = lowestGrade;
         this.lowestSubject = lowestSubject;
+        this.subjectPercentiles = subjectPercentiles;
+        this.studentTypePercentiles = studentTypePercentiles;
     }
 
     // Getters
@@ -64,4 +99,25 @@ public class CachedClassStatistics {
     public String getHighestSubject() { return highestSubject; }
     public double getLowestGrade() { return lowestGrade; }
     public String getLowestSubject() { return lowestSubject; }
+    public Map<String, PercentileSummary> getSubjectPercentiles() { return subjectPercentiles; }
+    public Map<String, PercentileSummary> getStudentTypePercentiles() { return studentTypePercentiles; }
+    public long getSourceVersion() { return sourceVersion; }
+
+    /** Set once by IncrementalStatisticsEngine.snapshot(), before the object is shared. */
+    void setSourceVersion(long sourceVersion) { this.sourceVersion = sourceVersion; }
+
+    /**
+     * Object fields plus the distribution, average and percentile maps.
+     */
+    @Override
+    public long estimatedBytes() {
+        return MemoryEstimator.align(MemoryEstimator.OBJECT_HEADER + 2 * 4 + 7 * 8 + 7L * MemoryEstimator.REFERENCE)
+                + MemoryEstimator.estimate(gradeDistribution)
+                + MemoryEstimator.estimate(subjectAverages)
+                + MemoryEstimator.estimate(studentTypeAverages)
+                + MemoryEstimator.string(highestSubject)
+                + MemoryEstimator.string(lowestSubject)
+                + MemoryEstimator.estimate(subjectPercentiles)
+                + MemoryEstimator.estimate(studentTypePercentiles);
+    }
 }
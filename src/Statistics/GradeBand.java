@@ -0,0 +1,35 @@
+package Statistics;
+
+/**
+ * Letter bands used by the grade distribution.
+ * Thresholds match the class statistics screen (A = 90-100 ... F = 0-59).
+ */
+public enum GradeBand {
+    A(90),
+    B(80),
+    C(70),
+    D(60),
+    F(0);
+
+    private final double minScore;
+
+    GradeBand(double minScore) {
+        this.minScore = minScore;
+    }
+
+    public double getMinScore() {
+        return minScore;
+    }
+
+    /**
+     * Band for a percentage score.
+     * Time Complexity: O(1)
+     */
+    public static GradeBand of(double score) {
+        if (score >= 90) return A;
+        if (score >= 80) return B;
+        if (score >= 70) return C;
+        if (score >= 60) return D;
+        return F;
+    }
+}
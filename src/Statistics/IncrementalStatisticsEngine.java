@@ -0,0 +1,332 @@
+package Statistics;
+
+import java.util.*;
+
+/**
+ * IncrementalStatisticsEngine
+ *
+ * Keeps every CachedClassStatistics field up to date as grades are written,
+ * so a snapshot never needs a full pass over the grade history.
+ *
+ * - Running sums for mean, stdDev, distribution and subject averages: O(1)
+ * - TreeMap value counts for mode, highest and lowest: O(log n)
+ * - Two TreeMap multisets (lower / upper half) for the running median: O(log n)
+ * - Per-student sums feed the student type averages: O(1); types are matched
+ *   case-insensitively as "Regular" / "Honors" and both are always reported, as in
+ *   the full recompute
+ * - One KllSketch per subject and per student type for percentiles: O(log k).
+ *   Sketches cannot un-count a score, so a correction (or grades recorded before
+ *   their student registered) marks the affected sketches stale instead; the owner
+ *   rebuilds them from the grades with replacePercentiles()
+ *
+ * All methods are synchronized; writers are short and readers only copy
+ * the small per-subject / per-type maps.
+ */
+public class IncrementalStatisticsEngine {
+
+    private long version;
+
+    private int totalStudents;
+    private int count;
+    private double sum;
+    private double sumOfSquares;
+
+    private final EnumMap<GradeBand, Integer> distribution = new EnumMap<>(GradeBand.class);
+
+    // subject -> [sum, count]
+    private final Map<String, double[]> subjectTotals = new LinkedHashMap<>();
+
+    // studentId -> [sum, count]
+    private final HashMap<String, double[]> studentTotals = new HashMap<>();
+
+    // studentId -> normalised student type (null for other types), only for students registered with the roster
+    private final HashMap<String, String> studentTypes = new HashMap<>();
+
+    // student type -> [sum of student averages, number of students]
+    private final Map<String, double[]> typeTotals = new LinkedHashMap<>();
+
+    // Multiset of grade values (mode, highest, lowest)
+    private final TreeMap<Double, Integer> valueCounts = new TreeMap<>();
+    private final TreeMap<Integer, TreeSet<Double>> valuesByFrequency = new TreeMap<>();
+    private final HashMap<Double, LinkedHashMap<String, Integer>> subjectsByValue = new HashMap<>();
+
+    // Running median: lower holds the smaller half (and the extra element when odd)
+    private final TreeMap<Double, Integer> lowerHalf = new TreeMap<>();
+    private final TreeMap<Double, Integer> upperHalf = new TreeMap<>();
+    private int lowerSize;
+    private int upperSize;
+
+    private final PercentileTracker subjectPercentiles = new PercentileTracker();
+    private final PercentileTracker typePercentiles = new PercentileTracker();
+    private final Set<String> staleSubjects = new LinkedHashSet<>();
+    private final Set<String> staleTypes = new LinkedHashSet<>();
+
+    public IncrementalStatisticsEngine() {
+        for (GradeBand band : GradeBand.values()) {
+            distribution.put(band, 0);
+        }
+        for (StudentType type : StudentType.values()) typeTotals.put(type.getLabel(), new double[2]);
+    }
+
+    /**
+     * Registers a student so it is counted in totalStudents and its type average.
+     * Students without grades contribute an average of 0, as in the full recompute.
+     * Time Complexity: O(1)
+     */
+    public synchronized void registerStudent(String studentId, String studentType) {
+        if (studentTypes.containsKey(studentId)) return;
+
+        String type = StudentType.labelOf(studentType);
+        studentTypes.put(studentId, type);
+        totalStudents++;
+
+        if (type != null) {
+            double[] totals = typeTotals.get(type);
+            totals[0] += studentAverage(studentId);
+            totals[1]++;
+            // Grades recorded before registration are missing from the type sketch
+            if (studentTotals.containsKey(studentId)) staleTypes.add(type);
+        }
+        version++;
+    }
+
+    /**
+     * Applies a newly recorded grade.
+     * Time Complexity: O(log n)
+     */
+    public synchronized void recordGrade(String studentId, String subject, double score) {
+        count++;
+        sum += score;
+        sumOfSquares += score * score;
+        distribution.merge(GradeBand.of(score), 1, Integer::sum);
+
+        double[] subj = subjectTotals.computeIfAbsent(subject, k -> new double[2]);
+        subj[0] += score;
+        subj[1]++;
+
+        double before = studentAverage(studentId);
+        double[] student = studentTotals.computeIfAbsent(studentId, k -> new double[2]);
+        student[0] += score;
+        student[1]++;
+        adjustTypeTotal(studentId, before);
+
+        addValue(score, subject);
+        addPercentiles(studentId, subject, score);
+        version++;
+    }
+
+    /**
+     * Applies a correction to an already recorded grade.
+     * Time Complexity: O(log n)
+     */
+    public synchronized void updateGrade(String studentId, String subject, double previousScore, double newScore) {
+        if (previousScore == newScore) return;
+
+        sum += newScore - previousScore;
+        sumOfSquares += newScore * newScore - previousScore * previousScore;
+        distribution.merge(GradeBand.of(previousScore), -1, Integer::sum);
+        distribution.merge(GradeBand.of(newScore), 1, Integer::sum);
+
+        double[] subj = subjectTotals.get(subject);
+        if (subj != null) subj[0] += newScore - previousScore;
+
+        double before = studentAverage(studentId);
+        double[] student = studentTotals.get(studentId);
+        if (student != null) student[0] += newScore - previousScore;
+        adjustTypeTotal(studentId, before);
+
+        removeValue(previousScore, subject);
+        addValue(newScore, subject);
+        staleSubjects.add(subject);
+        String type = studentTypes.get(studentId);
+        if (type != null) staleTypes.add(type);
+        version++;
+    }
+
+    /**
+     * Incremented on every write; lets callers reuse a snapshot until something changes.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /** Grades recorded so far (corrections do not add to it). */
+    public synchronized int getGradeCount() {
+        return count;
+    }
+
+    public synchronized boolean hasStalePercentiles() {
+        return !staleSubjects.isEmpty() || !staleTypes.isEmpty();
+    }
+
+    /**
+     * Replaces the stale sketches with ones built from every current grade. Applied only
+     * if nothing was written since getVersion() returned expectedVersion, so the
+     * rebuilt sketches describe exactly the grades the engine has counted.
+     * Time Complexity: O(stale keys)
+     *
+     * @return false if a write got in between; the sketches stay stale
+     */
+    public synchronized boolean replacePercentiles(long expectedVersion, PercentileTracker bySubject,
+                                                   PercentileTracker byType) {
+        if (version != expectedVersion) return false;
+        subjectPercentiles.replace(staleSubjects, bySubject);
+        typePercentiles.replace(staleTypes, byType);
+        staleSubjects.clear();
+        staleTypes.clear();
+        version++;
+        return true;
+    }
+
+    /**
+     * Builds an immutable view of the current statistics, stamped with getVersion().
+     * Time Complexity: O((subjects + student types) * k log k)
+     */
+    public synchronized CachedClassStatistics snapshot() {
+        double mean = count == 0 ? 0 : sum / count;
+        double variance = count == 0 ? 0 : Math.max(0, sumOfSquares / count - mean * mean);
+
+        Map<String, Integer> dist = new LinkedHashMap<>();
+        distribution.forEach((band, c) -> dist.put(band.name(), c));
+
+        Map<String, Double> subjectAverages = new LinkedHashMap<>();
+        subjectTotals.forEach((s, t) -> subjectAverages.put(s, t[1] == 0 ? 0 : t[0] / t[1]));
+
+        Map<String, Double> typeAverages = new HashMap<>();
+        typeTotals.forEach((t, v) -> typeAverages.put(t, v[1] == 0 ? 0 : v[0] / v[1]));
+
+        double highest = 0, lowest = 0;
+        String highestSubject = "", lowestSubject = "";
+        if (!valueCounts.isEmpty()) {
+            highest = valueCounts.lastKey();
+            lowest = valueCounts.firstKey();
+            highestSubject = subjectsByValue.get(highest).keySet().iterator().next();
+            lowestSubject = subjectsByValue.get(lowest).keySet().iterator().next();
+        }
+
+        CachedClassStatistics stats = new CachedClassStatistics(
+                totalStudents,
+                count,
+                dist,
+                mean,
+                median(),
+                mode(),
+                Math.sqrt(variance),
+                subjectAverages,
+                typeAverages,
+                highest,
+                highestSubject,
+                lowest,
+                lowestSubject,
+                subjectPercentiles.summaries(),
+                typePercentiles.summaries()
+        );
+        stats.setSourceVersion(version);
+        return stats;
+    }
+
+    // ================= HELPERS =================
+
+    private double studentAverage(String studentId) {
+        double[] t = studentTotals.get(studentId);
+        return (t == null || t[1] == 0) ? 0 : t[0] / t[1];
+    }
+
+    private void addPercentiles(String studentId, String subject, double score) {
+        subjectPercentiles.add(subject, score);
+        String type = studentTypes.get(studentId);
+        if (type != null) typePercentiles.add(type, score);
+    }
+
+    private void adjustTypeTotal(String studentId, double previousAverage) {
+        String type = studentTypes.get(studentId);
+        if (type == null) return;
+        typeTotals.get(type)[0] += studentAverage(studentId) - previousAverage;
+    }
+
+    private void addValue(double score, String subject) {
+        int freq = valueCounts.merge(score, 1, Integer::sum);
+        moveFrequency(score, freq - 1, freq);
+        subjectsByValue.computeIfAbsent(score, k -> new LinkedHashMap<>()).merge(subject, 1, Integer::sum);
+
+        if (lowerSize == 0 || score <= lowerHalf.lastKey()) {
+            increment(lowerHalf, score);
+            lowerSize++;
+        } else {
+            increment(upperHalf, score);
+            upperSize++;
+        }
+        rebalance();
+    }
+
+    private void removeValue(double score, String subject) {
+        Integer freq = valueCounts.get(score);
+        if (freq == null) return;
+
+        if (freq == 1) valueCounts.remove(score);
+        else valueCounts.put(score, freq - 1);
+        moveFrequency(score, freq, freq - 1);
+
+        LinkedHashMap<String, Integer> subjects = subjectsByValue.get(score);
+        if (subjects.merge(subject, -1, Integer::sum) <= 0) subjects.remove(subject);
+        if (subjects.isEmpty()) subjectsByValue.remove(score);
+
+        if (lowerHalf.containsKey(score)) {
+            decrement(lowerHalf, score);
+            lowerSize--;
+        } else {
+            decrement(upperHalf, score);
+            upperSize--;
+        }
+        rebalance();
+    }
+
+    private void moveFrequency(double score, int from, int to) {
+        if (from > 0) {
+            TreeSet<Double> bucket = valuesByFrequency.get(from);
+            bucket.remove(score);
+            if (bucket.isEmpty()) valuesByFrequency.remove(from);
+        }
+        if (to > 0) {
+            valuesByFrequency.computeIfAbsent(to, k -> new TreeSet<>()).add(score);
+        }
+    }
+
+    private void rebalance() {
+        if (lowerSize > upperSize + 1) {
+            double moved = lowerHalf.lastKey();
+            decrement(lowerHalf, moved);
+            increment(upperHalf, moved);
+            lowerSize--;
+            upperSize++;
+        } else if (upperSize > lowerSize) {
+            double moved = upperHalf.firstKey();
+            decrement(upperHalf, moved);
+            increment(lowerHalf, moved);
+            upperSize--;
+            lowerSize++;
+        }
+    }
+
+    private double median() {
+        if (lowerSize == 0) return 0;
+        if (lowerSize > upperSize) return lowerHalf.lastKey();
+        return (lowerHalf.lastKey() + upperHalf.firstKey()) / 2;
+    }
+
+    /**
+     * Most frequent grade; ties resolve to the lowest value.
+     */
+    private double mode() {
+        if (valuesByFrequency.isEmpty()) return 0;
+        return valuesByFrequency.lastEntry().getValue().first();
+    }
+
+    private static void increment(TreeMap<Double, Integer> set, double value) {
+        set.merge(value, 1, Integer::sum);
+    }
+
+    private static void decrement(TreeMap<Double, Integer> set, double value) {
+        if (set.merge(value, -1, Integer::sum) <= 0) set.remove(value);
+    }
+}
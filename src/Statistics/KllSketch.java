@@ -0,0 +1,189 @@
+package Statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * KllSketch
+ *
+ * Mergeable streaming quantile sketch (Karnin, Lang, Liberty 2016).
+ * Items live in a stack of compactors; level h items carry weight 2^h.
+ * When a level fills up it is sorted and every other item (random offset)
+ * is promoted to the level above, halving its footprint.
+ *
+ * - Memory: about 3k doubles regardless of stream length (k = 200 -> ~5 KB)
+ * - Rank error: roughly 1.7% of n at k = 200 with 99% confidence
+ *   (a reported P90 lies between the true P88.3 and P91.7); error shrinks as 1/k
+ * - update(): amortised O(log k); merge(): O(size of other); quantile(): O(k log k)
+ *
+ * Not thread-safe; callers guard access (see IncrementalStatisticsEngine).
+ */
+public class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 8;
+
+    private final int k;
+    private final List<Level> levels = new ArrayList<>();
+    private final SplittableRandom random;
+
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        if (k < MIN_LEVEL_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_LEVEL_CAPACITY);
+        }
+        this.k = k;
+        this.random = new SplittableRandom(k);
+        levels.add(new Level());
+    }
+
+    public void update(double value) {
+        count++;
+        if (count == 1) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        levels.get(0).add(value);
+        compress();
+    }
+
+    /**
+     * Folds another sketch into this one. The other sketch is left untouched.
+     */
+    public KllSketch merge(KllSketch other) {
+        if (other.count == 0) return this;
+
+        while (levels.size() < other.levels.size()) {
+            levels.add(new Level());
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            Level from = other.levels.get(h);
+            Level into = levels.get(h);
+            for (int i = 0; i < from.size; i++) into.add(from.items[i]);
+        }
+
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        compress();
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Number of values physically held, i.e. the sketch's memory footprint in doubles.
+     */
+    public int getRetainedItems() {
+        int retained = 0;
+        for (Level level : levels) retained += level.size;
+        return retained;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Approximate value at rank fraction q (0.0 - 1.0).
+     */
+    public double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+
+        int retained = getRetainedItems();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        Integer[] order = new Integer[retained];
+        int idx = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            for (int i = 0; i < level.size; i++) {
+                values[idx] = level.items[i];
+                weights[idx] = 1L << h;
+                order[idx] = idx;
+                idx++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        long totalWeight = 0;
+        for (long w : weights) totalWeight += w;
+
+        double target = q * totalWeight;
+        long cumulative = 0;
+        for (int i : order) {
+            cumulative += weights[i];
+            if (cumulative >= target) return values[i];
+        }
+        return max;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void compress() {
+        boolean compacted = true;
+        while (compacted) {
+            compacted = false;
+            for (int h = 0; h < levels.size(); h++) {
+                if (levels.get(h).size >= capacity(h)) {
+                    if (h + 1 == levels.size()) levels.add(new Level());
+                    compact(h);
+                    compacted = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int h) {
+        Level level = levels.get(h);
+        Level above = levels.get(h + 1);
+
+        Arrays.sort(level.items, 0, level.size);
+
+        // An odd item out stays behind so the promoted pairs keep total weight exact
+        int pairs = level.size / 2;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = 0; i < pairs; i++) {
+            above.add(level.items[2 * i + offset]);
+        }
+
+        if (level.size % 2 == 1) {
+            level.items[0] = level.items[level.size - 1];
+            level.size = 1;
+        } else {
+            level.size = 0;
+        }
+    }
+
+    private static class Level {
+        private double[] items = new double[MIN_LEVEL_CAPACITY];
+        private int size;
+
+        void add(double value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = value;
+        }
+    }
+}
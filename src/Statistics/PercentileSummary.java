@@ -0,0 +1,43 @@
+package Statistics;
+
+import Caching.MemoryEstimator;
+import Caching.MemoryFootprint;
+
+/**
+ * Reported percentiles for one subject or student type, read from a KllSketch.
+ */
+public class PercentileSummary implements MemoryFootprint {
+
+    public static final int[] REPORTED_PERCENTILES = {10, 25, 75, 90, 99};
+
+    private final long count;
+    private final double[] values;
+
+    public PercentileSummary(KllSketch sketch) {
+        this.count = sketch.getCount();
+        this.values = new double[REPORTED_PERCENTILES.length];
+        for (int i = 0; i < REPORTED_PERCENTILES.length; i++) {
+            values[i] = sketch.quantile(REPORTED_PERCENTILES[i] / 100.0);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param percentile one of REPORTED_PERCENTILES
+     */
+    public double get(int percentile) {
+        for (int i = 0; i < REPORTED_PERCENTILES.length; i++) {
+            if (REPORTED_PERCENTILES[i] == percentile) return values[i];
+        }
+        throw new IllegalArgumentException("Percentile not reported: P" + percentile);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return MemoryEstimator.align(MemoryEstimator.OBJECT_HEADER + 8 + MemoryEstimator.REFERENCE)
+                + MemoryEstimator.estimate(values);
+    }
+}
@@ -0,0 +1,41 @@
+package Statistics;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One KllSketch per key (subject name or student type), so memory is
+ * bounded per key instead of growing with the number of grades.
+ */
+public class PercentileTracker {
+
+    private final Map<String, KllSketch> sketches = new LinkedHashMap<>();
+
+    public void add(String key, double value) {
+        sketches.computeIfAbsent(key, k -> new KllSketch()).update(value);
+    }
+
+    public PercentileTracker merge(PercentileTracker other) {
+        other.sketches.forEach((key, sketch) ->
+                sketches.computeIfAbsent(key, k -> new KllSketch()).merge(sketch));
+        return this;
+    }
+
+    /**
+     * Replaces the sketches of these keys with the source's (dropping keys the source lacks).
+     */
+    public void replace(Collection<String> keys, PercentileTracker source) {
+        for (String key : keys) {
+            KllSketch sketch = source.sketches.get(key);
+            if (sketch == null) sketches.remove(key);
+            else sketches.put(key, sketch);
+        }
+    }
+
+    public Map<String, PercentileSummary> summaries() {
+        Map<String, PercentileSummary> result = new LinkedHashMap<>();
+        sketches.forEach((key, sketch) -> result.put(key, new PercentileSummary(sketch)));
+        return result;
+    }
+}
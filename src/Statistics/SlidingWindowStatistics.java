@@ -0,0 +1,166 @@
+package Statistics;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * SlidingWindowStatistics
+ *
+ * Rolling metrics over recently recorded grades (last 1 / 5 / 15 minutes).
+ *
+ * - Ring buffer of one-second buckets (count, sum, letter bands), 15 minutes deep
+ * - Running totals per window; as time advances each expiring bucket is
+ *   subtracted once, so record() and window() are O(1) amortised
+ * - Reads therefore cost the same no matter how many grades were recorded
+ */
+public class SlidingWindowStatistics {
+
+    public static final int[] WINDOW_MINUTES = {1, 5, 15};
+
+    private static final int BUCKETS = 15 * 60; // one per second, deepest window
+
+    private final LongSupplier clockMillis;
+
+    private final long[] bucketSecond = new long[BUCKETS];
+    private final int[] bucketCount = new int[BUCKETS];
+    private final double[] bucketSum = new double[BUCKETS];
+    private final int[][] bucketBands = new int[BUCKETS][GradeBand.values().length];
+
+    // Running totals per entry of WINDOW_MINUTES
+    private final int[] windowCount = new int[WINDOW_MINUTES.length];
+    private final double[] windowSum = new double[WINDOW_MINUTES.length];
+    private final int[][] windowBands = new int[WINDOW_MINUTES.length][GradeBand.values().length];
+
+    private final long startSecond;
+    private long currentSecond;
+
+    public SlidingWindowStatistics() {
+        this(System::currentTimeMillis);
+    }
+
+    public SlidingWindowStatistics(LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
+        this.startSecond = clockMillis.getAsLong() / 1000;
+        this.currentSecond = startSecond;
+        Arrays.fill(bucketSecond, -1);
+    }
+
+    /**
+     * Records a grade at the current time.
+     * Time Complexity: O(1) amortised
+     */
+    public synchronized void record(double score) {
+        advance(clockMillis.getAsLong() / 1000);
+
+        int slot = slot(currentSecond);
+        if (bucketSecond[slot] != currentSecond) {
+            resetBucket(slot, currentSecond);
+        }
+
+        int band = GradeBand.of(score).ordinal();
+        bucketCount[slot]++;
+        bucketSum[slot] += score;
+        bucketBands[slot][band]++;
+
+        for (int w = 0; w < WINDOW_MINUTES.length; w++) {
+            windowCount[w]++;
+            windowSum[w] += score;
+            windowBands[w][band]++;
+        }
+    }
+
+    /**
+     * Metrics for one of WINDOW_MINUTES.
+     * Time Complexity: O(1) amortised
+     */
+    public synchronized WindowStats window(int minutes) {
+        int w = windowIndex(minutes);
+        advance(clockMillis.getAsLong() / 1000);
+
+        // Early in the session the window is only as long as the time elapsed
+        long elapsed = Math.max(1, Math.min(minutes * 60L, currentSecond - startSecond + 1));
+
+        Map<GradeBand, Integer> bands = new EnumMap<>(GradeBand.class);
+        for (GradeBand band : GradeBand.values()) {
+            bands.put(band, windowBands[w][band.ordinal()]);
+        }
+        return new WindowStats(minutes, windowCount[w], windowSum[w], elapsed, bands);
+    }
+
+    private void advance(long nowSecond) {
+        if (nowSecond <= currentSecond) return;
+
+        if (nowSecond - currentSecond >= BUCKETS) {
+            // Idle longer than the deepest window: everything has expired
+            Arrays.fill(bucketSecond, -1);
+            Arrays.fill(windowCount, 0);
+            Arrays.fill(windowSum, 0);
+            for (int[] bands : windowBands) Arrays.fill(bands, 0);
+            currentSecond = nowSecond;
+            return;
+        }
+
+        while (currentSecond < nowSecond) {
+            currentSecond++;
+            for (int w = 0; w < WINDOW_MINUTES.length; w++) {
+                expire(w, currentSecond - WINDOW_MINUTES[w] * 60L);
+            }
+        }
+    }
+
+    private void expire(int w, long second) {
+        int slot = slot(second);
+        if (second < 0 || bucketSecond[slot] != second) return;
+
+        windowCount[w] -= bucketCount[slot];
+        windowSum[w] -= bucketSum[slot];
+        for (int b = 0; b < windowBands[w].length; b++) {
+            windowBands[w][b] -= bucketBands[slot][b];
+        }
+    }
+
+    private void resetBucket(int slot, long second) {
+        bucketSecond[slot] = second;
+        bucketCount[slot] = 0;
+        bucketSum[slot] = 0;
+        Arrays.fill(bucketBands[slot], 0);
+    }
+
+    private static int slot(long second) {
+        return (int) Math.floorMod(second, (long) BUCKETS);
+    }
+
+    private static int windowIndex(int minutes) {
+        for (int i = 0; i < WINDOW_MINUTES.length; i++) {
+            if (WINDOW_MINUTES[i] == minutes) return i;
+        }
+        throw new IllegalArgumentException("Unsupported window: " + minutes + " minutes");
+    }
+
+    /**
+     * Immutable view of one window.
+     */
+    public static class WindowStats {
+        private final int minutes;
+        private final int count;
+        private final double sum;
+        private final long seconds;
+        private final Map<GradeBand, Integer> distribution;
+
+        WindowStats(int minutes, int count, double sum, long seconds, Map<GradeBand, Integer> distribution) {
+            this.minutes = minutes;
+            this.count = count;
+            this.sum = sum;
+            this.seconds = seconds;
+            this.distribution = distribution;
+        }
+
+        public int getMinutes() { return minutes; }
+        public int getCount() { return count; }
+        public double getMean() { return count == 0 ? 0 : sum / count; }
+        public double getGradesPerSecond() { return (double) count / seconds; }
+        public Map<GradeBand, Integer> getDistribution() { return distribution; }
+    }
+}
@@ -0,0 +1,203 @@
+package Statistics;
+
+import java.util.*;
+
+/**
+ * StatisticsAccumulator
+ *
+ * Mergeable partial aggregate over a slice of grades. Each fork-join leaf
+ * folds its slice into one accumulator; partials are then combined with
+ * merge(), so no step ever needs the whole grade list.
+ *
+ * - Moments: count / mean / M2 combined with Chan's parallel update
+ * - Histograms: letter bands plus exact value counts (median, mode)
+ * - Per-subject and per-student sums (student type averages, keyed by StudentType label)
+ * - Per-subject and per-student-type KllSketches (percentiles)
+ * - Extremes: on equal scores the earlier slice wins, as in a sequential scan
+ */
+public class StatisticsAccumulator {
+
+    // studentId -> student type for every student on the roster (shared, read-only)
+    private final Map<String, String> studentTypes;
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    private final int[] bands = new int[GradeBand.values().length];
+    private final HashMap<Double, int[]> valueCounts = new HashMap<>();
+
+    // subject -> [sum, count], first-seen order
+    private final LinkedHashMap<String, double[]> subjectTotals = new LinkedHashMap<>();
+
+    // studentId -> [sum, count]
+    private final HashMap<String, double[]> studentTotals = new HashMap<>();
+
+    private double highest = Double.NEGATIVE_INFINITY;
+    private String highestSubject = "";
+    private double lowest = Double.POSITIVE_INFINITY;
+    private String lowestSubject = "";
+
+    private final PercentileTracker subjectPercentiles = new PercentileTracker();
+    private final PercentileTracker typePercentiles = new PercentileTracker();
+
+    /**
+     * @param studentTypes studentId -> student type for every student on the roster;
+     *                     students without grades count as an average of 0
+     */
+    public StatisticsAccumulator(Map<String, String> studentTypes) {
+        this.studentTypes = studentTypes;
+    }
+
+    /**
+     * Folds one grade into this partial.
+     * Time Complexity: O(1)
+     */
+    public void add(String studentId, String subject, double score) {
+        count++;
+        double delta = score - mean;
+        mean += delta / count;
+        m2 += delta * (score - mean);
+
+        bands[GradeBand.of(score).ordinal()]++;
+        valueCounts.computeIfAbsent(score, k -> new int[1])[0]++;
+
+        double[] subj = subjectTotals.computeIfAbsent(subject, k -> new double[2]);
+        subj[0] += score;
+        subj[1]++;
+
+        double[] student = studentTotals.computeIfAbsent(studentId, k -> new double[2]);
+        student[0] += score;
+        student[1]++;
+
+        subjectPercentiles.add(subject, score);
+        String type = StudentType.labelOf(studentTypes.get(studentId));
+        if (type != null) typePercentiles.add(type, score);
+
+        if (score > highest) {
+            highest = score;
+            highestSubject = subject;
+        }
+        if (score < lowest) {
+            lowest = score;
+            lowestSubject = subject;
+        }
+    }
+
+    /**
+     * Merges a partial that covers grades recorded after this one's.
+     * Time Complexity: O(distinct values + subjects + students in other)
+     */
+    public StatisticsAccumulator merge(StatisticsAccumulator other) {
+        if (other.count == 0) return this;
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+
+        for (int i = 0; i < bands.length; i++) bands[i] += other.bands[i];
+        other.valueCounts.forEach((v, c) -> valueCounts.computeIfAbsent(v, k -> new int[1])[0] += c[0]);
+        mergeTotals(subjectTotals, other.subjectTotals);
+        mergeTotals(studentTotals, other.studentTotals);
+        subjectPercentiles.merge(other.subjectPercentiles);
+        typePercentiles.merge(other.typePercentiles);
+
+        if (other.highest > highest) {
+            highest = other.highest;
+            highestSubject = other.highestSubject;
+        }
+        if (other.lowest < lowest) {
+            lowest = other.lowest;
+            lowestSubject = other.lowestSubject;
+        }
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Finalises the aggregate.
+     * Time Complexity: O(d log d + students), d = distinct grade values
+     */
+    public CachedClassStatistics toStatistics() {
+        Map<String, Integer> dist = new LinkedHashMap<>();
+        for (GradeBand band : GradeBand.values()) dist.put(band.name(), bands[band.ordinal()]);
+
+        Map<String, Double> subjectAverages = new LinkedHashMap<>();
+        subjectTotals.forEach((s, t) -> subjectAverages.put(s, t[0] / t[1]));
+
+        // Both types are always reported, with 0 for a type that has no students
+        Map<String, double[]> typeTotals = new LinkedHashMap<>();
+        for (StudentType type : StudentType.values()) typeTotals.put(type.getLabel(), new double[2]);
+        studentTypes.forEach((id, type) -> {
+            double[] agg = typeTotals.get(StudentType.labelOf(type));
+            if (agg == null) return;
+            double[] t = studentTotals.get(id);
+            agg[0] += t == null ? 0 : t[0] / t[1];
+            agg[1]++;
+        });
+        Map<String, Double> typeAverages = new HashMap<>();
+        typeTotals.forEach((type, t) -> typeAverages.put(type, t[1] == 0 ? 0 : t[0] / t[1]));
+
+        double median = 0;
+        double mode = 0;
+        if (count > 0) {
+            double[] keys = new double[valueCounts.size()];
+            int i = 0;
+            for (Double v : valueCounts.keySet()) keys[i++] = v;
+            Arrays.sort(keys);
+
+            long lowerRank = (count - 1) / 2;
+            long upperRank = count / 2;
+            double lowerValue = 0;
+            long seen = 0;
+            int modeCount = 0;
+            boolean medianDone = false;
+            for (double v : keys) {
+                int c = valueCounts.get(v)[0];
+                if (c > modeCount) {
+                    modeCount = c;
+                    mode = v;
+                }
+                if (!medianDone) {
+                    if (seen <= lowerRank && lowerRank < seen + c) lowerValue = v;
+                    if (seen <= upperRank && upperRank < seen + c) {
+                        median = (lowerValue + v) / 2;
+                        medianDone = true;
+                    }
+                }
+                seen += c;
+            }
+        }
+
+        return new CachedClassStatistics(
+                studentTypes.size(),
+                (int) count,
+                dist,
+                count == 0 ? 0 : mean,
+                median,
+                mode,
+                count == 0 ? 0 : Math.sqrt(m2 / count),
+                subjectAverages,
+                typeAverages,
+                count == 0 ? 0 : highest,
+                highestSubject,
+                count == 0 ? 0 : lowest,
+                lowestSubject,
+                subjectPercentiles.summaries(),
+                typePercentiles.summaries()
+        );
+    }
+
+    private static void mergeTotals(Map<String, double[]> into, Map<String, double[]> from) {
+        from.forEach((key, t) -> {
+            double[] target = into.computeIfAbsent(key, k -> new double[2]);
+            target[0] += t[0];
+            target[1] += t[1];
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package Statistics;
+
+/**
+ * Student types reported by the class statistics.
+ * Every calculator keys type averages and percentiles by these labels, so the
+ * incremental, parallel and classic paths agree regardless of input casing.
+ */
+public enum StudentType {
+    REGULAR("Regular"),
+    HONORS("Honors");
+
+    private final String label;
+
+    StudentType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Reported label for a student type, ignoring case; null for any other type.
+     * Time Complexity: O(1)
+     */
+    public static String labelOf(String studentType) {
+        for (StudentType type : values()) {
+            if (type.label.equalsIgnoreCase(studentType)) return type.label;
+        }
+        return null;
+    }
+}
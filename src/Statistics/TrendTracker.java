@@ -0,0 +1,152 @@
+package Statistics;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TrendTracker
+ *
+ * Per-student grade trend kept up to date as grades are recorded, so
+ * at-risk queries never re-read or sort a student's history.
+ *
+ * - Exponential moving average of scores (recent grades weigh more)
+ * - Least-squares slope of score over time from running sums
+ *   (n, sum x, sum y, sum x^2, sum xy), x = days since the student's first grade
+ * - A student is at risk when the EMA is below their passing grade, or when
+ *   at least MIN_GRADES_FOR_SLOPE grades spread over MIN_SLOPE_SPAN_DAYS show a
+ *   decline steeper than STEEP_DECLINE (grades entered minutes apart have no trend)
+ * - The at-risk set is re-evaluated only for the student whose grade changed
+ *
+ * All methods are synchronized.
+ */
+public class TrendTracker {
+
+    public static final double EMA_ALPHA = 0.3;
+    public static final double STEEP_DECLINE = -2.0; // points per day
+    public static final int MIN_GRADES_FOR_SLOPE = 3;
+    public static final double MIN_SLOPE_SPAN_DAYS = 1.0;
+
+    private static final double MILLIS_PER_DAY = 24 * 60 * 60 * 1000.0;
+
+    private final Map<String, State> states = new HashMap<>();
+    private final Map<String, Double> passingGrades = new HashMap<>();
+    private final Set<String> atRisk = new LinkedHashSet<>();
+
+    /**
+     * Sets the passing grade the student's EMA is compared against.
+     * Students never registered are judged on their slope only.
+     * Time Complexity: O(1)
+     */
+    public synchronized void registerStudent(String studentId, double passingGrade) {
+        passingGrades.put(studentId, passingGrade);
+        State state = states.get(studentId);
+        if (state != null) evaluate(studentId, state);
+    }
+
+    /**
+     * Folds one grade into the student's trend.
+     * Time Complexity: O(1)
+     */
+    public synchronized void record(String studentId, long timestampMillis, double score) {
+        State state = states.computeIfAbsent(studentId, k -> new State(timestampMillis));
+        double x = state.days(timestampMillis);
+
+        state.ema = state.n == 0 ? score : EMA_ALPHA * score + (1 - EMA_ALPHA) * state.ema;
+        state.n++;
+        state.sumX += x;
+        state.sumY += score;
+        state.sumXX += x * x;
+        state.sumXY += x * score;
+        state.minX = Math.min(state.minX, x);
+        state.maxX = Math.max(state.maxX, x);
+        evaluate(studentId, state);
+    }
+
+    /**
+     * Applies a correction of an already recorded grade. The slope is corrected
+     * exactly; the EMA cannot un-weight an old score and takes the difference at
+     * the weight of the newest grade instead.
+     * Time Complexity: O(1)
+     */
+    public synchronized void update(String studentId, long timestampMillis, double previousScore, double newScore) {
+        State state = states.get(studentId);
+        if (state == null || previousScore == newScore) return;
+
+        double delta = newScore - previousScore;
+        state.sumY += delta;
+        state.sumXY += state.days(timestampMillis) * delta;
+        state.ema += EMA_ALPHA * delta;
+        evaluate(studentId, state);
+    }
+
+    public synchronized Trend getTrend(String studentId) {
+        State state = states.get(studentId);
+        return state == null ? null : new Trend(state.n, state.ema, state.slope());
+    }
+
+    /**
+     * Ids of at-risk students in the order they became at risk.
+     * Time Complexity: O(at-risk students)
+     */
+    public synchronized Set<String> atRiskStudents() {
+        return new LinkedHashSet<>(atRisk);
+    }
+
+    private void evaluate(String studentId, State state) {
+        Double passing = passingGrades.get(studentId);
+        boolean failing = passing != null && state.ema < passing;
+        boolean declining = state.n >= MIN_GRADES_FOR_SLOPE && state.slope() < STEEP_DECLINE;
+        if (failing || declining) atRisk.add(studentId);
+        else atRisk.remove(studentId);
+    }
+
+    private static class State {
+        private final long originMillis;
+        private int n;
+        private double ema;
+        private double sumX;
+        private double sumY;
+        private double sumXX;
+        private double sumXY;
+        private double minX = Double.POSITIVE_INFINITY;
+        private double maxX = Double.NEGATIVE_INFINITY;
+
+        State(long originMillis) {
+            this.originMillis = originMillis;
+        }
+
+        double days(long timestampMillis) {
+            return (timestampMillis - originMillis) / MILLIS_PER_DAY;
+        }
+
+        /**
+         * Points per day; 0 until the grades span MIN_SLOPE_SPAN_DAYS.
+         */
+        double slope() {
+            if (n < 2 || maxX - minX < MIN_SLOPE_SPAN_DAYS) return 0;
+            double denominator = n * sumXX - sumX * sumX;
+            return (n * sumXY - sumX * sumY) / denominator;
+        }
+    }
+
+    /**
+     * Immutable view of one student's trend.
+     */
+    public static class Trend {
+        private final int gradeCount;
+        private final double movingAverage;
+        private final double slopePerDay;
+
+        Trend(int gradeCount, double movingAverage, double slopePerDay) {
+            this.gradeCount = gradeCount;
+            this.movingAverage = movingAverage;
+            this.slopePerDay = slopePerDay;
+        }
+
+        public int getGradeCount() { return gradeCount; }
+        public double getMovingAverage() { return movingAverage; }
+        public double getSlopePerDay() { return slopePerDay; }
+    }
+}
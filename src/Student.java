@@ -1,6 +1,9 @@
+import Caching.MemoryEstimator;
+import Caching.MemoryFootprint;
+
 import java.io.Serializable;
 
-public abstract class Student implements Serializable {
+public abstract class Student implements Serializable, MemoryFootprint {
     private static final long serialVersionUID = 1L;
 
     private final String studentId;
@@ -56,4 +59,16 @@ public abstract class Student implements Serializable {
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+
+    /**
+     * Object fields plus the id, name, email and phone strings (status is a shared literal).
+     */
+    @Override
+    public long estimatedBytes() {
+        return MemoryEstimator.align(MemoryEstimator.OBJECT_HEADER + 5L * MemoryEstimator.REFERENCE + 4)
+                + MemoryEstimator.string(studentId)
+                + MemoryEstimator.string(name)
+                + MemoryEstimator.string(email)
+                + MemoryEstimator.string(phone);
+    }
 }
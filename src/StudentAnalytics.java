@@ -1,111 +1,448 @@
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-import Exceptions.GpaErrorException;
+import Caching.AccessHint;
 import Exceptions.StudentNotFoundException;
+import Statistics.TrendTracker;
 
 /**
  * StudentAnalytics
  *
  * - Performs stream-based operations on students and grades
- * - Honors eligibility checked using HonorsStudent#isHonorsEligible
- * - Sequential and parallel execution supported for performance comparison
+ * - Honors listing served from the GpaCalculator's HonorsIndex (O(k));
+ *   the ExecutionMode overloads re-check HonorsStudent#isHonorsEligible per student
+ * - Every operation runs SEQUENTIAL, as a PARALLEL_STREAM, or as an explicit
+ *   FORK_JOIN split of the roster with per-slice partial results merged pairwise
+ *   (see AnalyticsBenchmark for timing them against each other)
+ * - Top-N uses precomputed GPA keys and bounded min-heaps merged across chunks
+ * - Cohort breakdowns (subject x student type x band ...) come from a cached GradeCube
+ * - Per-student trends (EMA + slope) and the at-risk set are maintained by a
+ *   TrendTracker fed from grade writes, never by re-reading histories. Grades
+ *   already recorded are replayed in timestamp order; later ones are folded in
+ *   as they are written
+ * - Subscribes to the managers for its whole life: create one per application
+ *   and close() it when done
  */
-public class StudentAnalytics {
+public class StudentAnalytics implements AutoCloseable {
+
+    public enum ExecutionMode {
+        SEQUENTIAL,
+        PARALLEL_STREAM,
+        FORK_JOIN
+    }
+
+    private static final int MIN_FORK_JOIN_SLICE = 256;
+
+    // Rosters at least this large rank top-N in parallel chunks
+    static final int PARALLEL_TOP_N_THRESHOLD = 10_000;
+    private static final int TOP_N_CHUNK_SIZE = 2_048;
 
     private final StudentManager studentManager;
     private final GradeManager gradeManager;
     private final GpaCalculator gpaCalculator;
+    private final ForkJoinPool forkJoinPool;
+
+    // Cohort cube, rebuilt when the grade log epoch or roster size moves
+    private GradeCube cube;
+    private int cubeEpoch = -1;
+    private int cubeRosterSize = -1;
+
+    private final TrendTracker trends = new TrendTracker();
+    private final Consumer<Student> studentListener;
+    private final GradeListener gradeListener;
+
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     public StudentAnalytics(StudentManager studentManager,
                             GradeManager gradeManager,
                             GpaCalculator gpaCalculator) {
+        this(studentManager, gradeManager, gpaCalculator, ForkJoinPool.commonPool());
+    }
+
+    public StudentAnalytics(StudentManager studentManager,
+                            GradeManager gradeManager,
+                            GpaCalculator gpaCalculator,
+                            ForkJoinPool forkJoinPool) {
         this.studentManager = studentManager;
         this.gradeManager = gradeManager;
         this.gpaCalculator = gpaCalculator;
+        this.forkJoinPool = forkJoinPool;
+
+        studentListener = s -> trends.registerStudent(s.getStudentId(), s.getPassingGrade());
+        gradeListener = new GradeListener() {
+            @Override
+            public void onGradeAdded(Grade grade) {
+                trends.record(grade.getStudentId(), epochMillis(grade.getTimestamp()), grade.getGrade());
+            }
+
+            @Override
+            public void onGradeUpdated(Grade grade, double previousScore) {
+                trends.update(grade.getStudentId(), epochMillis(grade.getTimestamp()),
+                        previousScore, grade.getGrade());
+            }
+        };
+        studentManager.addStudentListener(studentListener);
+        gradeManager.addGradeListener(gradeListener);
+
+        // Seed with anything recorded before the analytics were created, oldest first
+        for (Student s : studentManager.getAllStudents()) {
+            trends.registerStudent(s.getStudentId(), s.getPassingGrade());
+        }
+        GradeRecord[] recorded = gradeManager.snapshot().toArray();
+        Arrays.sort(recorded, Comparator.comparing(GradeRecord::getTimestamp));
+        for (GradeRecord g : recorded) {
+            trends.record(g.getStudentId(), epochMillis(g.getTimestamp()), g.getScore());
+        }
+    }
+
+    /**
+     * Stops following grade and student writes; trends and at-risk results freeze.
+     */
+    @Override
+    public void close() {
+        studentManager.removeStudentListener(studentListener);
+        gradeManager.removeGradeListener(gradeListener);
+    }
+
+    private static long epochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     public List<Student> findHonorsStudents() {
-        return Arrays.stream(studentManager.getAllStudents())
+        return gpaCalculator.honorsIndex(studentManager).averageEligibleStudents();
+    }
+
+    public List<Student> findHonorsStudents(ExecutionMode mode) {
+        Student[] roster = studentManager.getAllStudents();
+        if (mode == ExecutionMode.FORK_JOIN) {
+            return forkJoin(roster.length, (from, to) -> {
+                List<Student> eligible = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    if (roster[i] instanceof HonorsStudent h && h.isHonorsEligible()) eligible.add(h);
+                }
+                return eligible;
+            }, (a, b) -> {
+                a.addAll(b);
+                return a;
+            });
+        }
+        return stream(roster, mode)
                 .filter(s -> s instanceof HonorsStudent)
                 .filter(s -> ((HonorsStudent) s).isHonorsEligible())
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Top N students by GPA (ties keep roster order). Students without grades
+     * rank after every graded student, in roster order.
+     * Time Complexity: O(n log N)
+     */
     public List<Student> topNStudents(int n) {
-        return Arrays.stream(studentManager.getAllStudents())
-                .sorted((s1, s2) -> {
-                    try {
-                        return Double.compare(
-                                gpaCalculator.calculateGPA(s2.getStudentId()),
-                                gpaCalculator.calculateGPA(s1.getStudentId())
-                        );
-                    } catch (GpaErrorException e) {
-                        return 0; // treat students with no grades as equal
-                    }
-                })
-                .limit(n)
-                .collect(Collectors.toList());
+        return topNStudents(n, studentManager.getStudentCount() >= PARALLEL_TOP_N_THRESHOLD);
+    }
+
+    public List<Student> topNStudents(int n, boolean parallel) {
+        return topNStudents(n, parallel ? ExecutionMode.PARALLEL_STREAM : ExecutionMode.SEQUENTIAL);
+    }
+
+    public List<Student> topNStudents(int n, ExecutionMode mode) {
+        Student[] roster = studentManager.getAllStudents();
+        if (n <= 0 || roster.length == 0) return new ArrayList<>();
+
+        PriorityQueue<RankedStudent> heap;
+        if (mode == ExecutionMode.FORK_JOIN) {
+            heap = forkJoin(roster.length,
+                    (from, to) -> topOfRange(roster, from, to, n),
+                    (a, b) -> mergeHeaps(a, b, n));
+        } else if (mode == ExecutionMode.PARALLEL_STREAM) {
+            int chunks = (roster.length + TOP_N_CHUNK_SIZE - 1) / TOP_N_CHUNK_SIZE;
+            heap = IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(c -> topOfRange(roster, c * TOP_N_CHUNK_SIZE,
+                            Math.min(roster.length, (c + 1) * TOP_N_CHUNK_SIZE), n))
+                    .reduce((a, b) -> mergeHeaps(a, b, n))
+                    .orElseGet(() -> newHeap(n));
+        } else {
+            heap = topOfRange(roster, 0, roster.length, n);
+        }
+
+        // Heap root is the weakest entry, so drain and reverse
+        List<Student> result = new ArrayList<>(heap.size());
+        RankedStudent[] ranked = heap.toArray(new RankedStudent[0]);
+        Arrays.sort(ranked, RANK_ORDER.reversed());
+        for (RankedStudent r : ranked) result.add(r.student);
+
+        for (int i = 0; i < roster.length && result.size() < n; i++) {
+            if (gradeManager.getGradeCount(roster[i].getStudentId()) == 0) {
+                result.add(roster[i]);
+            }
+        }
+        return result;
+    }
+
+    // Ascending strength: lower GPA first, then later roster position first
+    private static final Comparator<RankedStudent> RANK_ORDER =
+            Comparator.comparingDouble((RankedStudent r) -> r.gpa)
+                    .thenComparing(Comparator.comparingInt((RankedStudent r) -> r.index).reversed());
+
+    private PriorityQueue<RankedStudent> topOfRange(Student[] roster, int from, int to, int n) {
+        PriorityQueue<RankedStudent> heap = newHeap(n);
+        for (int i = from; i < to; i++) {
+            OptionalDouble gpa = gpaCalculator.findGPA(roster[i].getStudentId(), AccessHint.SCAN);
+            if (gpa.isEmpty()) continue; // ranked after all graded students
+            offer(heap, new RankedStudent(roster[i], i, gpa.getAsDouble()), n);
+        }
+        return heap;
+    }
+
+    private static PriorityQueue<RankedStudent> mergeHeaps(PriorityQueue<RankedStudent> a,
+                                                           PriorityQueue<RankedStudent> b, int n) {
+        PriorityQueue<RankedStudent> smaller = a.size() < b.size() ? a : b;
+        PriorityQueue<RankedStudent> larger = smaller == a ? b : a;
+        for (RankedStudent r : smaller) offer(larger, r, n);
+        return larger;
+    }
+
+    private static PriorityQueue<RankedStudent> newHeap(int n) {
+        return new PriorityQueue<>(Math.min(n, TOP_N_CHUNK_SIZE) + 1, RANK_ORDER);
+    }
+
+    private static void offer(PriorityQueue<RankedStudent> heap, RankedStudent candidate, int n) {
+        if (heap.size() < n) {
+            heap.offer(candidate);
+        } else if (RANK_ORDER.compare(candidate, heap.peek()) > 0) {
+            heap.poll();
+            heap.offer(candidate);
+        }
+    }
+
+    private static final class RankedStudent {
+        private final Student student;
+        private final int index;
+        private final double gpa;
+
+        RankedStudent(Student student, int index, double gpa) {
+            this.student = student;
+            this.index = index;
+            this.gpa = gpa;
+        }
     }
 
     public Map<String, List<Student>> groupByGradeRange() {
-        return Arrays.stream(studentManager.getAllStudents())
-                .collect(Collectors.groupingBy(s -> {
-                    double avg = gradeManager.calculateOverallAverage(s.getStudentId());
-                    if (avg >= 90) return "90-100";
-                    if (avg >= 80) return "80-89";
-                    if (avg >= 70) return "70-79";
-                    if (avg >= 60) return "60-69";
-                    return "<60";
-                }));
+        return groupByGradeRange(ExecutionMode.SEQUENTIAL);
+    }
+
+    public Map<String, List<Student>> groupByGradeRange(ExecutionMode mode) {
+        Student[] roster = studentManager.getAllStudents();
+        if (mode == ExecutionMode.FORK_JOIN) {
+            return forkJoin(roster.length, (from, to) -> {
+                Map<String, List<Student>> groups = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    groups.computeIfAbsent(gradeRange(roster[i]), k -> new ArrayList<>()).add(roster[i]);
+                }
+                return groups;
+            }, (a, b) -> {
+                b.forEach((range, list) -> a.computeIfAbsent(range, k -> new ArrayList<>()).addAll(list));
+                return a;
+            });
+        }
+        return stream(roster, mode).collect(Collectors.groupingBy(this::gradeRange));
+    }
+
+    private String gradeRange(Student s) {
+        double avg = gradeManager.calculateOverallAverage(s.getStudentId());
+        if (avg >= 90) return "90-100";
+        if (avg >= 80) return "80-89";
+        if (avg >= 70) return "70-79";
+        if (avg >= 60) return "60-69";
+        return "<60";
+    }
+
+    /**
+     * One student's grades for a whole-roster scan: read through the cache without
+     * inserting, so analytics never evict the entries interactive lookups use.
+     */
+    private Grade[] scanGrades(Student s) {
+        return gradeManager.getGradesForStudent(s.getStudentId(), AccessHint.SCAN);
     }
 
     public Set<String> extractUniqueCourseCodes() {
-        return Arrays.stream(studentManager.getAllStudents())
-                .flatMap(s -> Arrays.stream(gradeManager.getGradesForStudent(s.getStudentId()))
+        return extractUniqueCourseCodes(ExecutionMode.SEQUENTIAL);
+    }
+
+    public Set<String> extractUniqueCourseCodes(ExecutionMode mode) {
+        Student[] roster = studentManager.getAllStudents();
+        if (mode == ExecutionMode.FORK_JOIN) {
+            return forkJoin(roster.length, (from, to) -> {
+                Set<String> courses = new HashSet<>();
+                for (int i = from; i < to; i++) {
+                    for (Grade g : scanGrades(roster[i])) {
+                        courses.add(g.getSubject().getSubjectName());
+                    }
+                }
+                return courses;
+            }, (a, b) -> {
+                a.addAll(b);
+                return a;
+            });
+        }
+        return stream(roster, mode)
+                .flatMap(s -> Arrays.stream(scanGrades(s))
                         .map(g -> g.getSubject().getSubjectName())
                 )
                 .collect(Collectors.toSet());
     }
 
     public Map<String, Double> averageGradePerSubject() {
-        Map<String, List<Double>> subjectGrades = new HashMap<>();
+        return averageGradePerSubject(ExecutionMode.SEQUENTIAL);
+    }
 
-        for (Student s : studentManager.getAllStudents()) {
-            Grade[] grades = gradeManager.getGradesForStudent(s.getStudentId());
-            for (Grade g : grades) {
-                subjectGrades.computeIfAbsent(g.getSubject().getSubjectName(), k -> new ArrayList<>())
-                        .add(g.getGrade());
-            }
+    public Map<String, Double> averageGradePerSubject(ExecutionMode mode) {
+        Student[] roster = studentManager.getAllStudents();
+        if (mode == ExecutionMode.PARALLEL_STREAM) {
+            return Arrays.stream(roster)
+                    .parallel()
+                    .flatMap(s -> Arrays.stream(scanGrades(s)))
+                    .collect(Collectors.groupingByConcurrent(g -> g.getSubject().getSubjectName(),
+                            Collectors.averagingDouble(Grade::getGrade)));
         }
 
-        Map<String, Double> avgGrades = new HashMap<>();
-        subjectGrades.forEach((subject, gradesList) -> {
-            double avg = gradesList.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-            avgGrades.put(subject, avg);
-        });
+        // subject -> [sum, count]; one slice for SEQUENTIAL, many for FORK_JOIN
+        BiFunction<Integer, Integer, Map<String, double[]>> sums = (from, to) -> {
+            Map<String, double[]> totals = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                for (Grade g : scanGrades(roster[i])) {
+                    double[] t = totals.computeIfAbsent(g.getSubject().getSubjectName(), k -> new double[2]);
+                    t[0] += g.getGrade();
+                    t[1]++;
+                }
+            }
+            return totals;
+        };
+        Map<String, double[]> totals = mode == ExecutionMode.FORK_JOIN
+                ? forkJoin(roster.length, sums, (a, b) -> {
+                    b.forEach((subject, t) -> {
+                        double[] into = a.computeIfAbsent(subject, k -> new double[2]);
+                        into[0] += t[0];
+                        into[1] += t[1];
+                    });
+                    return a;
+                })
+                : sums.apply(0, roster.length);
 
+        Map<String, Double> avgGrades = new HashMap<>();
+        totals.forEach((subject, t) -> avgGrades.put(subject, t[0] / t[1]));
         return avgGrades;
     }
-public long measureExecutionTime(boolean parallel) {
-        List<Student> students = Arrays.asList(studentManager.getAllStudents());
 
-        long start = System.currentTimeMillis();
+    /**
+     * Cohort cube (subject, subject type, student type, band, date) over the current grades.
+     * Rebuilt with one scan only when grades or students were added since the last call.
+     * Time Complexity: O(1) when unchanged, O(n) otherwise
+     */
+    public synchronized GradeCube gradeCube() {
+        GradeLog.Snapshot snapshot = gradeManager.snapshot();
+        int rosterSize = studentManager.getStudentCount();
+        if (cube == null || snapshot.getEpoch() != cubeEpoch || rosterSize != cubeRosterSize) {
+            cube = GradeCube.build(snapshot.toArray(), studentManager.getAllStudents());
+            cubeEpoch = snapshot.getEpoch();
+            cubeRosterSize = rosterSize;
+        }
+        return cube;
+    }
 
-        Stream<Student> stream = parallel ? students.parallelStream() : students.stream();
+    /**
+     * Moving average and slope (points per day) of a student's grades, or null without grades.
+     * Time Complexity: O(1)
+     */
+    public TrendTracker.Trend gradeTrend(String studentId) {
+        return trends.getTrend(studentId);
+    }
 
-        // Example operation: count honors-eligible students
-        long count = stream
-                .filter(s -> s instanceof HonorsStudent)
-                .filter(s -> ((HonorsStudent) s).isHonorsEligible())
-                .count();
+    /**
+     * Students whose moving average is below their passing grade or whose
+     * grades are falling faster than TrendTracker.STEEP_DECLINE points per day.
+     * Time Complexity: O(at-risk students)
+     */
+    public List<Student> findAtRiskStudents() {
+        List<Student> atRisk = new ArrayList<>();
+        for (String id : trends.atRiskStudents()) {
+            try {
+                atRisk.add(studentManager.findStudent(id));
+            } catch (StudentNotFoundException e) {
+                // grades recorded for an id that is not on the roster
+            }
+        }
+        return atRisk;
+    }
 
+    /**
+     * Time of one run of the honors filter in milliseconds.
+     * For warmed-up timings with percentiles see AnalyticsBenchmark (src/Tests).
+     */
+    public long measureExecutionTime(boolean parallel) {
+        long start = System.currentTimeMillis();
+        findHonorsStudents(parallel ? ExecutionMode.PARALLEL_STREAM : ExecutionMode.SEQUENTIAL);
         return System.currentTimeMillis() - start;
     }
+
+    private static Stream<Student> stream(Student[] roster, ExecutionMode mode) {
+        Stream<Student> stream = Arrays.stream(roster);
+        return mode == ExecutionMode.PARALLEL_STREAM ? stream.parallel() : stream;
+    }
+
+    /**
+     * Splits [0, size) on the analytics ForkJoinPool; leaf results are combined
+     * left-to-right so order-sensitive results keep roster order.
+     */
+    private <R> R forkJoin(int size, BiFunction<Integer, Integer, R> leaf, BinaryOperator<R> combine) {
+        int sliceSize = Math.max(MIN_FORK_JOIN_SLICE, size / (forkJoinPool.getParallelism() * 4));
+        return forkJoinPool.invoke(new RangeTask<>(0, size, sliceSize, leaf, combine));
+    }
+
+    private static final class RangeTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int sliceSize;
+        private final BiFunction<Integer, Integer, R> leaf;
+        private final BinaryOperator<R> combine;
+
+        RangeTask(int from, int to, int sliceSize,
+                  BiFunction<Integer, Integer, R> leaf, BinaryOperator<R> combine) {
+            this.from = from;
+            this.to = to;
+            this.sliceSize = sliceSize;
+            this.leaf = leaf;
+            this.combine = combine;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= sliceSize) {
+                return leaf.apply(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RangeTask<R> left = new RangeTask<>(from, mid, sliceSize, leaf, combine);
+            RangeTask<R> right = new RangeTask<>(mid, to, sliceSize, leaf, combine);
+            right.fork();
+            R leftResult = left.compute();
+            return combine.apply(leftResult, right.join());
+        }
+    }
+
     /**
      * Query the grade history of a student in chronological order.
      */
@@ -1,7 +1,11 @@
 import Audit.AuditLogger;
 import Caching.CacheManager;
+import Caching.CacheTags;
 import Exceptions.StudentNotFoundException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static Audit.OperationType.ADD_STUDENT;
@@ -9,18 +13,21 @@ import static Audit.OperationType.ADD_STUDENT;
 /**
  * StudentManager
  * <p>
- * - HashMap<String, Student> for O(1) lookup by ID
- * - ArrayList<Student> preserved for insertion order
+ * - ConcurrentHashMap<String, Student> for O(1) lookup by ID, also from cache
+ *   loaders on background threads (CacheWarmer)
+ * - ArrayList<Student> preserved for insertion order; appends and getAllStudents()
+ *   copies hold its monitor
  * </p>
 
  */
 public class StudentManager {
 
     // O(1) lookup
-    private final HashMap<String, Student> studentMap = new HashMap<>();
+    private final ConcurrentHashMap<String, Student> studentMap = new ConcurrentHashMap<>();
 
     // Preserves insertion order (original behavior)
     private final ArrayList<Student> students = new ArrayList<>();
+    private final List<Consumer<Student>> studentListeners = new CopyOnWriteArrayList<>();
     private final CacheManager<String, Object> cache;
     private final AuditLogger auditLogger;
 
@@ -29,6 +36,17 @@ public class StudentManager {
         this.auditLogger = auditLogger;
     }
 
+    /**
+     * Registers a listener notified after each student is added.
+     */
+    public void addStudentListener(Consumer<Student> listener) {
+        studentListeners.add(listener);
+    }
+
+    public void removeStudentListener(Consumer<Student> listener) {
+        studentListeners.remove(listener);
+    }
+
     /**
      * Adds a student.
      * Time Complexity: O(1)
@@ -39,8 +57,12 @@ public class StudentManager {
 
         try {
 
-            students.add(student);
+            synchronized (students) {
+                students.add(student);
+            }
             studentMap.put(student.getStudentId(), student);
+            cache.invalidateTag(CacheTags.student(student.getStudentId()));
+            studentListeners.forEach(l -> l.accept(student));
             success = true;
             System.out.println("Student added successfully!");
         } finally {
@@ -63,21 +85,29 @@ public class StudentManager {
     public Student findStudent(String studentId)
             throws StudentNotFoundException {
 
-        String key = "STUDENT_" + studentId;
-        Object cached = cache.get(key);
-        if (cached != null) return (Student) cached;
-
-        Student s = studentMap.get(studentId);
-        if (s != null) {
-            cache.put(key,s);
-            return s;
-        }
+        Student s = (Student) cache.get("STUDENT_" + studentId, key -> studentMap.get(studentId),
+                CacheTags.student(studentId));
+        if (s != null) return s;
 
         throw new StudentNotFoundException(
                 "Student with ID " + studentId + " doesn't exist."
         );
     }
 
+    /**
+     * Fingerprint of the student's record, stable across restarts; used to discard
+     * cache snapshot entries built from a different version of the student.
+     * Time Complexity: O(1)
+     *
+     * @return null if the student does not exist
+     */
+    public Long dataVersion(String studentId) {
+        Student s = studentMap.get(studentId);
+        if (s == null) return null;
+        return (long) Objects.hash(s.getStudentId(), s.getName(), s.getAge(), s.getEmail(),
+                s.getPhone(), s.getStatus(), s.getStudentType());
+    }
+
     /**
      * Returns number of students.
      * Time Complexity: O(1)
@@ -178,19 +208,16 @@ public class StudentManager {
      * Time Complexity: O(n)
      */
     public Student[] getAllStudents() {
-
-        return students.toArray(new Student[0]);
+        synchronized (students) {
+            return students.toArray(new Student[0]);
+        }
     }
+    /**
+     * Students with a GPA above HonorsIndex.HONORS_GPA, in roster order.
+     * Time Complexity: O(k) from the calculator's HonorsIndex
+     */
     public List<Student> findHonorsStudents(GpaCalculator gpaCalculator) {
-        return students.stream()
-                .filter(s -> {
-                    try {
-                        return gpaCalculator.calculateGPA(s.getStudentId()) > 3.5;
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .collect(Collectors.toList());
+        return gpaCalculator.honorsIndex(this).gpaEligibleStudents();
     }
     public List<String> getAllStudentEmails() {
         return students.stream()
@@ -1,3 +1,4 @@
+import Caching.AccessHint;
 import Exceptions.GpaErrorException;
 import Exceptions.LoggerHandler;
 
@@ -13,9 +14,16 @@ import java.util.*;
 public class StudentReportGenerator {
 
     private final GradeManager gradeManager;
+    // SCAN for batch runs over many students, so they do not flush the grade cache
+    private final AccessHint accessHint;
 
     public StudentReportGenerator(GradeManager gradeManager) {
+        this(gradeManager, AccessHint.NORMAL);
+    }
+
+    public StudentReportGenerator(GradeManager gradeManager, AccessHint accessHint) {
         this.gradeManager = gradeManager;
+        this.accessHint = accessHint;
     }
 
     // Directories
@@ -150,7 +158,7 @@ public class StudentReportGenerator {
             // Create a report object that is fully Serializable
             StudentReport report = new StudentReport(
                     student,
-                    gradeManager.getGradesForStudent(student.getStudentId()),
+                    gradeManager.getGradesForStudent(student.getStudentId(), accessHint),
                     type
             );
 
@@ -175,7 +183,7 @@ public class StudentReportGenerator {
 
     private void writeCsvDetailed(Student student, BufferedWriter writer) throws IOException {
         writer.write("Date,Subject,Type,Grade\n");
-        Grade[] grades = gradeManager.getGradesForStudent(student.getStudentId());
+        Grade[] grades = gradeManager.getGradesForStudent(student.getStudentId(), accessHint);
         for (Grade g : grades) {
             writer.write(String.format("%s,%s,%s,%.2f\n",
                     g.getDate(),
@@ -188,7 +196,7 @@ public class StudentReportGenerator {
     private void writeCsvTranscript(Student student, BufferedWriter writer) throws IOException, GpaErrorException {
         writer.write("Transcript Report for " + student.getName() + "\n");
         writeCsvDetailed(student, writer);
-        writer.write("GPA: " + String.format("%.2f", new GpaCalculator(gradeManager).calculateGPA(student.getStudentId())) + "\n");
+        writer.write("GPA: " + String.format("%.2f", new GpaCalculator(gradeManager).calculateGPA(student.getStudentId(), accessHint)) + "\n");
     }
 
     private void writeCsvPerformance(Student student, BufferedWriter writer) throws IOException {
@@ -213,7 +221,7 @@ public class StudentReportGenerator {
 
     private void writeJsonDetailed(Student student, BufferedWriter writer) throws IOException {
         writer.write("{\n\"studentId\": \"" + student.getStudentId() + "\",\n\"grades\": [\n");
-        Grade[] grades = gradeManager.getGradesForStudent(student.getStudentId());
+        Grade[] grades = gradeManager.getGradesForStudent(student.getStudentId(), accessHint);
         for (int i = 0; i < grades.length; i++) {
             Grade g = grades[i];
             writer.write("{\"date\":\"" + g.getDate() + "\",\"subject\":\"" + g.getSubject().getSubjectName() + "\",\"type\":\"" + g.getSubject().getSubjectType() + "\",\"grade\":" + g.getGrade() + "}");
@@ -225,7 +233,7 @@ public class StudentReportGenerator {
 
     private void writeJsonTranscript(Student student, BufferedWriter writer) throws IOException, GpaErrorException {
         writeJsonDetailed(student, writer);
-        writer.write("{\"GPA\": " + String.format("%.2f", new GpaCalculator(gradeManager).calculateGPA(student.getStudentId())) + "}\n");
+        writer.write("{\"GPA\": " + String.format("%.2f", new GpaCalculator(gradeManager).calculateGPA(student.getStudentId(), accessHint)) + "}\n");
     }
 
     private void writeJsonPerformance(Student student, BufferedWriter writer) throws IOException {
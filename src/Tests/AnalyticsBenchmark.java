@@ -0,0 +1,132 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * AnalyticsBenchmark
+ *
+ * - Times every StudentAnalytics operation under each ExecutionMode
+ * - Warm-up runs first so the JIT has compiled the code being measured
+ * - Measured runs are timed with System.nanoTime() and reported as min / p50 / p90 / p99 / max
+ * - Results are written to a volatile sink so the work cannot be optimised away
+ */
+public class AnalyticsBenchmark {
+
+    public enum Operation {
+        HONORS,
+        TOP_N,
+        GROUP_BY_GRADE_RANGE,
+        AVERAGE_PER_SUBJECT,
+        UNIQUE_COURSES
+    }
+
+    public static final int DEFAULT_WARMUP_RUNS = 5;
+    public static final int DEFAULT_MEASURED_RUNS = 20;
+    private static final int TOP_N = 10;
+
+    private static volatile Object sink;
+
+    private final StudentAnalytics analytics;
+    private final int warmupRuns;
+    private final int measuredRuns;
+
+    public AnalyticsBenchmark(StudentAnalytics analytics) {
+        this(analytics, DEFAULT_WARMUP_RUNS, DEFAULT_MEASURED_RUNS);
+    }
+
+    public AnalyticsBenchmark(StudentAnalytics analytics, int warmupRuns, int measuredRuns) {
+        if (measuredRuns <= 0) {
+            throw new IllegalArgumentException("measuredRuns must be positive");
+        }
+        this.analytics = analytics;
+        this.warmupRuns = Math.max(0, warmupRuns);
+        this.measuredRuns = measuredRuns;
+    }
+
+    public Result measure(Operation operation, StudentAnalytics.ExecutionMode mode) {
+        for (int i = 0; i < warmupRuns; i++) {
+            sink = run(operation, mode);
+        }
+
+        long[] samples = new long[measuredRuns];
+        for (int i = 0; i < measuredRuns; i++) {
+            long start = System.nanoTime();
+            sink = run(operation, mode);
+            samples[i] = System.nanoTime() - start;
+        }
+        return new Result(operation, mode, samples);
+    }
+
+    /**
+     * Every operation under every mode, operation-major.
+     */
+    public List<Result> measureAll() {
+        List<Result> results = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            for (StudentAnalytics.ExecutionMode mode : StudentAnalytics.ExecutionMode.values()) {
+                results.add(measure(operation, mode));
+            }
+        }
+        return results;
+    }
+
+    private Object run(Operation operation, StudentAnalytics.ExecutionMode mode) {
+        switch (operation) {
+            case HONORS: return analytics.findHonorsStudents(mode);
+            case TOP_N: return analytics.topNStudents(TOP_N, mode);
+            case GROUP_BY_GRADE_RANGE: return analytics.groupByGradeRange(mode);
+            case AVERAGE_PER_SUBJECT: return analytics.averageGradePerSubject(mode);
+            case UNIQUE_COURSES: return analytics.extractUniqueCourseCodes(mode);
+            default: throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    public static void printResults(List<Result> results) {
+        System.out.printf("%-22s %-16s %10s %10s %10s %10s %10s %8s%n",
+                "OPERATION", "MODE", "MIN ms", "P50 ms", "P90 ms", "P99 ms", "MAX ms", "SPEEDUP");
+        long baseline = 0;
+        for (Result r : results) {
+            if (r.getMode() == StudentAnalytics.ExecutionMode.SEQUENTIAL) {
+                baseline = r.percentile(50);
+            }
+            long p50 = r.percentile(50);
+            System.out.printf("%-22s %-16s %10.3f %10.3f %10.3f %10.3f %10.3f %7.2fx%n",
+                    r.getOperation(), r.getMode(),
+                    millis(r.percentile(0)), millis(p50), millis(r.percentile(90)),
+                    millis(r.percentile(99)), millis(r.percentile(100)),
+                    p50 == 0 ? 1.0 : (double) baseline / p50);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Timings of one operation under one mode.
+     */
+    public static class Result {
+        private final Operation operation;
+        private final StudentAnalytics.ExecutionMode mode;
+        private final long[] sortedNanos;
+
+        Result(Operation operation, StudentAnalytics.ExecutionMode mode, long[] samples) {
+            this.operation = operation;
+            this.mode = mode;
+            this.sortedNanos = samples.clone();
+            Arrays.sort(sortedNanos);
+        }
+
+        public Operation getOperation() { return operation; }
+        public StudentAnalytics.ExecutionMode getMode() { return mode; }
+        public int getRuns() { return sortedNanos.length; }
+
+        /**
+         * Nearest-rank percentile in nanoseconds; 0 is the fastest run, 100 the slowest.
+         */
+        public long percentile(double p) {
+            int rank = (int) Math.ceil(p / 100.0 * sortedNanos.length);
+            return sortedNanos[Math.min(sortedNanos.length - 1, Math.max(0, rank - 1))];
+        }
+    }
+}
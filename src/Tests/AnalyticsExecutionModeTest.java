@@ -0,0 +1,77 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsExecutionModeTest {
+    private final AuditLogger auditLogger = new AuditLogger();
+    private StudentAnalytics analytics;
+    private CacheManager<String, Object> cache;
+    private GradeManager gradeManager;
+    private String firstStudentId;
+
+    @BeforeEach
+    void setUp() throws InvalidGradeException {
+        cache = new CacheManager<>();
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        gradeManager = new GradeManager(cache, auditLogger);
+        Student.setGradeManager(gradeManager);
+        analytics = new StudentAnalytics(studentManager, gradeManager,
+                new GpaCalculator(gradeManager), new ForkJoinPool(4));
+
+        Subject[] subjects = {new CoreSubject("Math", "MATH101"), new ElectiveSubject("Art", "ART101")};
+        Random rand = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            Student s = i % 3 == 0
+                    ? new HonorsStudent("H" + i, 20, "h" + i + "@mail.com", "12345")
+                    : new RegularStudent("R" + i, 20, "r" + i + "@mail.com", "12345");
+            studentManager.addStudent(s);
+            if (firstStudentId == null) firstStudentId = s.getStudentId();
+            for (int g = 0; g < 2; g++) {
+                gradeManager.addGrade(new Grade(s.getStudentId(), subjects[rand.nextInt(2)], 50 + rand.nextInt(51)));
+            }
+        }
+    }
+
+    @Test
+    void testEveryModeAgreesWithSequential() {
+        for (StudentAnalytics.ExecutionMode mode : StudentAnalytics.ExecutionMode.values()) {
+            assertEquals(analytics.findHonorsStudents(), analytics.findHonorsStudents(mode));
+            assertEquals(analytics.topNStudents(25), analytics.topNStudents(25, mode));
+            assertEquals(analytics.groupByGradeRange(), analytics.groupByGradeRange(mode));
+            assertEquals(analytics.extractUniqueCourseCodes(), analytics.extractUniqueCourseCodes(mode));
+
+            analytics.averageGradePerSubject().forEach((subject, avg) ->
+                    assertEquals(avg, analytics.averageGradePerSubject(mode).get(subject), 1e-9));
+        }
+    }
+
+    @Test
+    void testRosterScansDoNotFillTheCache() {
+        cache.clearCache();
+        Grade[] hot = gradeManager.getGradesForStudent(firstStudentId);
+        for (StudentAnalytics.ExecutionMode mode : StudentAnalytics.ExecutionMode.values()) {
+            analytics.extractUniqueCourseCodes(mode);
+            analytics.averageGradePerSubject(mode);
+            analytics.topNStudents(25, mode);
+        }
+        assertEquals(1, cache.size());
+        assertSame(hot, cache.get("GRADES_" + firstStudentId));
+    }
+
+    @Test
+    void testBenchmarkReportsOrderedPercentiles() {
+        AnalyticsBenchmark.Result result = new AnalyticsBenchmark(analytics, 1, 5)
+                .measure(AnalyticsBenchmark.Operation.HONORS, StudentAnalytics.ExecutionMode.FORK_JOIN);
+
+        assertEquals(5, result.getRuns());
+        assertTrue(result.percentile(0) <= result.percentile(50));
+        assertTrue(result.percentile(50) <= result.percentile(99));
+    }
+}
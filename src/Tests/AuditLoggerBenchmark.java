@@ -0,0 +1,47 @@
+import Audit.AuditFormat;
+import Audit.AuditLogger;
+import Audit.FlushPolicy;
+import Audit.OperationType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Audit entries per second, from first log() until shutdown() has written and
+ * synced everything, for several flush policies in both formats.
+ * Usage: java AuditLoggerBenchmark [entries]
+ */
+public class AuditLoggerBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        List<FlushPolicy> policies = List.of(FlushPolicy.onShutdown(), FlushPolicy.DEFAULT,
+                FlushPolicy.everyMillis(10), FlushPolicy.everyEntries(100));
+
+        System.out.printf("Entries: %,d%n", entries);
+        for (AuditFormat format : AuditFormat.values()) {
+            for (FlushPolicy policy : policies) {
+                Path dir = Files.createTempDirectory("audit_benchmark");
+                try {
+                    long start = System.nanoTime();
+                    AuditLogger logger = new AuditLogger(dir, policy, format);
+                    for (int i = 0; i < entries; i++) {
+                        logger.log(OperationType.values()[i % OperationType.values().length], "Imported row " + i, 1, true);
+                    }
+                    logger.shutdown();
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("%-7s %-28s %,12.0f entries/s  (%,d syncs)%n",
+                            format, policy, entries / seconds, logger.getSyncCount());
+                } finally {
+                    try (Stream<Path> files = Files.list(dir)) {
+                        for (Path f : (Iterable<Path>) files::iterator) Files.delete(f);
+                    }
+                    Files.delete(dir);
+                }
+            }
+        }
+    }
+}
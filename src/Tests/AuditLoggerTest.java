@@ -0,0 +1,128 @@
+import Audit.AuditFormat;
+import Audit.AuditLogEntry;
+import Audit.AuditLogReader;
+import Audit.AuditLogger;
+import Audit.FlushPolicy;
+import Audit.OperationType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLoggerTest {
+
+    @Test
+    void testBatchedWritesKeepEveryEntry() throws Exception {
+        Path dir = Files.createTempDirectory("audit");
+        try {
+            AuditLogger logger = new AuditLogger(dir, FlushPolicy.onShutdown());
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        logger.log(OperationType.values()[i % OperationType.values().length], "action " + i, 1, true);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread t : threads) t.join();
+            logger.shutdown();
+
+            assertEquals(20_000, logger.getWrittenCount());
+            assertEquals(1, logger.getSyncCount());
+            assertEquals(20_000, Files.readAllLines(dir.resolve("audit_" + LocalDate.now() + ".log")).size());
+            assertEquals(10_000, logger.getEntries().size());
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    @Test
+    void testTimedFlushPolicySyncsWithoutShutdown() throws Exception {
+        Path dir = Files.createTempDirectory("audit");
+        AuditLogger logger = new AuditLogger(dir, FlushPolicy.everyMillis(20));
+        try {
+            logger.log(OperationType.values()[0], "one entry", 1, true);
+            long deadline = System.currentTimeMillis() + 2_000;
+            while (logger.getSyncCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, logger.getSyncCount());
+            assertEquals(1, logger.getWrittenCount());
+        } finally {
+            logger.shutdown();
+            deleteAll(dir);
+        }
+    }
+
+    @Test
+    void testBinaryFormatReadsBackAsText() throws Exception {
+        Path dir = Files.createTempDirectory("audit");
+        try {
+            AuditLogger logger = new AuditLogger(dir, FlushPolicy.onShutdown(), AuditFormat.BINARY);
+            OperationType[] types = OperationType.values();
+            for (int i = 0; i < 3_000; i++) {
+                logger.log(types[i % types.length], "action " + i + " \u00e9", i, i % 3 != 0);
+            }
+            logger.shutdown();
+
+            List<AuditLogEntry> written = logger.getEntries();
+            AuditLogReader reader = new AuditLogReader(dir.resolve("audit_" + LocalDate.now() + ".bin"));
+            assertEquals(3_000, reader.size());
+            StringWriter text = new StringWriter();
+            assertEquals(3_000, reader.writeText(text));
+            String[] lines = text.toString().split(System.lineSeparator());
+            for (int i = 0; i < written.size(); i++) {
+                assertEquals(written.get(i).toString(), lines[i]);
+            }
+            assertEquals(written.get(7).getUserAction(), reader.userAction(7));
+            assertEquals(Thread.currentThread().getName(), reader.threadId(2_999));
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    @Test
+    void testBinaryScanFiltersByOperationTimeAndOutcome() throws Exception {
+        Path dir = Files.createTempDirectory("audit");
+        try {
+            AuditLogger logger = new AuditLogger(dir, FlushPolicy.onShutdown(), AuditFormat.BINARY);
+            OperationType[] types = OperationType.values();
+            for (int i = 0; i < 1_000; i++) {
+                logger.log(types[i % types.length], "action " + i, 1, i % 2 == 0);
+            }
+            logger.shutdown();
+
+            AuditLogReader reader = new AuditLogReader(dir.resolve("audit_" + LocalDate.now() + ".bin"));
+            List<AuditLogEntry> written = logger.getEntries();
+            long expected = written.stream()
+                    .filter(e -> e.getOperationType() == types[0] && !e.isSuccess()).count();
+            int[] matches = reader.find(types[0], null, null, false);
+            assertEquals(expected, matches.length);
+            for (int index : matches) {
+                assertEquals(types[0], reader.operation(index));
+                assertFalse(reader.success(index));
+            }
+            assertEquals(1_000, reader.find(null, null, null, null).length);
+            assertEquals(0, reader.find(null, Instant.now().plusSeconds(60), null, null).length);
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : (Iterable<Path>) files::iterator) Files.delete(f);
+        }
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,612 @@
+import Caching.AccessHint;
+import Caching.AccessTrace;
+import Caching.CacheManager;
+import Caching.CacheStats;
+import Caching.CacheTags;
+import Caching.EvictionPolicy;
+import Caching.MemoryEstimator;
+import Caching.RemovalCause;
+import Caching.Weighers;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheManagerTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        CacheManager<String, Integer> cache = new CacheManager<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        assertEquals(1, cache.get("a")); // b is now least recently used
+
+        cache.put("d", 4);
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.get("a"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(4, cache.get("d"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testOverwriteAndInvalidate() {
+        CacheManager<String, Integer> cache = new CacheManager<>(2);
+        cache.put("a", 1);
+        cache.put("a", 2);
+        cache.put("b", 3);
+        assertEquals(2, cache.get("a"));
+        assertEquals(2, cache.size());
+
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        cache.put("c", 4);
+        cache.put("d", 5);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testConcurrentAccessStaysWithinCapacity() throws Exception {
+        CacheManager<Integer, Integer> cache = new CacheManager<>(100);
+        runConcurrently(8, seed -> {
+            Random rand = new Random(seed);
+            for (int i = 0; i < 50_000; i++) {
+                int key = rand.nextInt(400);
+                Integer value = cache.get(key);
+                if (value == null) cache.put(key, key);
+                else assertEquals(key, value);
+            }
+        });
+
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    void testShardedCacheCountsAndBoundsAcrossShards() throws Exception {
+        CacheManager<Integer, Integer> cache =
+                new CacheManager<>(400, Weighers.entryCount(), EvictionPolicy.W_TINY_LFU, 4);
+        assertEquals(4, cache.getShardCount());
+        runConcurrently(8, seed -> {
+            Random rand = new Random(seed);
+            for (int i = 0; i < 20_000; i++) {
+                int key = rand.nextInt(2_000);
+                Integer value = cache.get(key);
+                if (value == null) cache.put(key, key);
+                else assertEquals(key, value);
+            }
+        });
+
+        assertTrue(cache.size() <= 400, "size " + cache.size());
+        assertEquals(cache.size(), cache.getWeightedSize());
+        assertEquals(160_000, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    void testTinyLfuKeepsHotKeysThroughScan() {
+        CacheManager<String, Integer> lru = new CacheManager<>(100, EvictionPolicy.LRU);
+        CacheManager<String, Integer> tinyLfu = new CacheManager<>(100, EvictionPolicy.W_TINY_LFU);
+        for (CacheManager<String, Integer> cache : List.of(lru, tinyLfu)) {
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 50; i++) {
+                    if (cache.get("hot" + i) == null) cache.put("hot" + i, i);
+                }
+            }
+            for (int i = 0; i < 1_000; i++) {
+                cache.put("scan" + i, i);
+            }
+        }
+
+        int lruHot = 0, tinyLfuHot = 0;
+        for (int i = 0; i < 50; i++) {
+            if (lru.get("hot" + i) != null) lruHot++;
+            if (tinyLfu.get("hot" + i) != null) tinyLfuHot++;
+        }
+        assertEquals(0, lruHot);
+        // the window may still lose the most recent hot key to the scan
+        assertTrue(tinyLfuHot >= 49, "hot keys kept: " + tinyLfuHot);
+        assertEquals(100, tinyLfu.size());
+    }
+
+    @Test
+    void testWeightedCapacityEvictsByTotalWeight() {
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            CacheManager<String, int[]> cache =
+                    new CacheManager<>(100, (key, value) -> value.length, policy);
+            cache.put("big", new int[60]);
+            cache.put("medium", new int[30]);
+            cache.put("small", new int[10]);
+            // W-TinyLFU keeps 1% of the weight for its window, so "small" may be refused admission
+            if (policy == EvictionPolicy.LRU) assertEquals(100, cache.getWeightedSize());
+            else assertTrue(cache.getWeightedSize() >= 90, policy + " weight " + cache.getWeightedSize());
+
+            cache.put("another", new int[50]);
+            assertTrue(cache.getWeightedSize() <= 100, policy + " weight " + cache.getWeightedSize());
+            for (String key : List.of("big", "medium", "small", "another")) cache.invalidate(key);
+            assertEquals(0, cache.getWeightedSize());
+        }
+    }
+
+    @Test
+    void testMemoryWeigherUsesEstimatedBytes() {
+        CacheManager<String, Object> cache = new CacheManager<>(1_000_000, Weighers.memory(), EvictionPolicy.LRU);
+        double[] grades = new double[1_000];
+        cache.put("GRADES_STU001", grades);
+        cache.put("NAME_STU001", "Alice");
+
+        long expected = MemoryEstimator.estimate("GRADES_STU001") + MemoryEstimator.estimate(grades)
+                + MemoryEstimator.estimate("NAME_STU001") + MemoryEstimator.estimate("Alice");
+        assertEquals(expected, cache.getWeightedSize());
+        assertTrue(cache.estimatedMemoryBytes() > expected);
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        CacheManager<String, Integer> cache = new CacheManager<>(10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(8);
+        runConcurrently(8, t -> {
+            ready.countDown();
+            try {
+                ready.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertEquals(42, cache.get("answer", key -> {
+                loads.incrementAndGet();
+                sleep(100);
+                return 42;
+            }));
+        });
+
+        assertEquals(1, loads.get());
+        assertNull(cache.get("missing", key -> null));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testExpiryAndStaleWhileRevalidate() throws InterruptedException {
+        CacheManager<String, Integer> cache = new CacheManager<String, Integer>(10)
+                .expireAfterWrite(50, TimeUnit.MILLISECONDS);
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a"));
+        Thread.sleep(80);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+
+        cache.staleWhileRevalidate(10, TimeUnit.SECONDS).refreshExecutor(Runnable::run);
+        cache.put("b", 1);
+        Thread.sleep(80);
+        // the expired value is served and reloaded (inline executor, so already replaced)
+        assertEquals(1, cache.get("b", key -> 2));
+        assertEquals(2, cache.get("b"));
+    }
+
+    @Test
+    void testRefreshAheadKeepsServingCurrentValue() throws InterruptedException {
+        CacheManager<String, Integer> cache = new CacheManager<String, Integer>(10)
+                .refreshAfterWrite(30, TimeUnit.MILLISECONDS)
+                .refreshExecutor(Runnable::run);
+        AtomicInteger version = new AtomicInteger();
+        assertEquals(1, cache.get("a", key -> version.incrementAndGet()));
+        assertEquals(1, cache.get("a", key -> version.incrementAndGet()));
+        Thread.sleep(50);
+        assertEquals(1, cache.get("a", key -> version.incrementAndGet()));
+        assertEquals(2, cache.get("a"));
+    }
+
+    /**
+     * Runs the task on this many threads at once (each gets its index) and rethrows
+     * the first failure on the test thread, so assertions inside the task count.
+     */
+    private static void runConcurrently(int threads, IntConsumer task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int index = t;
+                futures.add(pool.submit(() -> task.accept(index)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error) throw (Error) e.getCause();
+                    throw e;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testInvalidateTagRemovesOnlyDependents() {
+        CacheManager<String, String> cache = new CacheManager<>(100);
+        cache.put("STUDENT_STU001", "Alice", CacheTags.student("STU001"));
+        cache.put("GRADES_STU001", "[90, 85]", CacheTags.student("STU001"), CacheTags.CLASS);
+        cache.put("STUDENT_STU002", "Bob", CacheTags.student("STU002"));
+        assertEquals("Carol", cache.get("STUDENT_STU003", key -> "Carol", CacheTags.student("STU003")));
+
+        assertEquals(2, cache.invalidateTag(CacheTags.student("STU001")));
+        assertNull(cache.get("STUDENT_STU001"));
+        assertNull(cache.get("GRADES_STU001"));
+        assertEquals("Bob", cache.get("STUDENT_STU002"));
+        assertEquals(0, cache.invalidateTag(CacheTags.CLASS)); // already gone
+        assertEquals(1, cache.invalidateTag(CacheTags.student("STU003")));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testLoadRacingTagInvalidationIsNotCached() {
+        CacheManager<String, String> cache = new CacheManager<>(100);
+        String tag = CacheTags.student("STU001");
+        // A grade write lands while the loader is still reading the old grades
+        assertEquals("old", cache.get("GRADES_STU001", key -> {
+            cache.invalidateTag(tag);
+            return "old";
+        }, tag));
+        assertNull(cache.get("GRADES_STU001"));
+
+        assertEquals("new", cache.get("GRADES_STU001", key -> "new", tag));
+        assertEquals(1, cache.invalidateTag(tag));
+        assertNull(cache.get("GRADES_STU001"));
+    }
+
+    @Test
+    void testTagIndexForgetsKeysThatLeaveTheCache() {
+        CacheManager<String, String> cache = new CacheManager<>(4);
+        for (int i = 0; i < 1_000; i++) {
+            cache.get("GRADES_" + i, key -> "[90]", CacheTags.student("S" + i), "COURSE_MATH");
+        }
+        // Evicted keys are unregistered: only the 4 resident entries (2 tags each) remain
+        assertEquals(8, cache.getTagRegistrationCount());
+
+        cache.invalidate("GRADES_999");
+        cache.put("GRADES_998", "untagged");
+        assertEquals(4, cache.getTagRegistrationCount());
+        assertEquals(2, cache.invalidateTag("COURSE_MATH"));
+        assertEquals(0, cache.getTagRegistrationCount());
+
+        CacheManager<String, String> tiered = new CacheManager<String, String>(1).offHeapTier(64 * 1024);
+        tiered.put("STUDENT_1", "Alice", CacheTags.student("1"));
+        tiered.put("STUDENT_2", "Bob", CacheTags.student("2")); // demotes STUDENT_1
+        assertEquals(2, tiered.getTagRegistrationCount());
+        assertEquals("Alice", tiered.get("STUDENT_1")); // promoted, demoting STUDENT_2
+        assertEquals(2, tiered.getTagRegistrationCount());
+        tiered.invalidate("STUDENT_2"); // off-heap only
+        assertEquals(1, tiered.getTagRegistrationCount());
+
+        CacheManager<String, String> expiring = new CacheManager<String, String>(10)
+                .expireAfterWrite(20, TimeUnit.MILLISECONDS);
+        expiring.put("STUDENT_1", "Alice", CacheTags.student("1"));
+        sleep(40);
+        assertEquals(1, expiring.cleanUp());
+        assertEquals(0, expiring.getTagRegistrationCount());
+    }
+
+    @Test
+    void testOffHeapTierKeepsEvictedEntries() {
+        CacheManager<String, String> cache = new CacheManager<String, String>(2).offHeapTier(64 * 1024);
+        cache.put("a", "alpha");
+        cache.put("b", "beta");
+        cache.put("c", "gamma".repeat(1_000)); // spans several off-heap blocks once demoted
+        assertEquals(1, cache.getOffHeapSize());
+
+        assertEquals("alpha", cache.get("a")); // promoted, demoting "b"
+        assertEquals(1, cache.getOffHeapHitCount());
+        assertEquals(2, cache.size());
+        cache.put("d", "delta");
+        assertEquals("gamma".repeat(1_000), cache.get("c", key -> "reloaded"));
+
+        cache.invalidate("b");
+        assertNull(cache.get("b"));
+        cache.clearCache();
+        assertEquals(0, cache.getOffHeapSize());
+    }
+
+    /** Value whose serialisation (i.e. demotion) runs a hook once. */
+    private static final class DemotionHook implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final String value;
+        transient Runnable onDemote;
+
+        DemotionHook(String value, Runnable onDemote) {
+            this.value = value;
+            this.onDemote = onDemote;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            Runnable hook = onDemote;
+            onDemote = null;
+            if (hook != null) hook.run();
+            out.defaultWriteObject();
+        }
+    }
+
+    @Test
+    void testTagInvalidatedDuringDemotionIsNotStoredOffHeap() {
+        CacheManager<String, Object> cache = new CacheManager<String, Object>(1).offHeapTier(64 * 1024);
+        String tag = CacheTags.student("1");
+        // A grade write lands after GRADES_1 is evicted but before it reaches the off-heap tier
+        cache.put("GRADES_1", new DemotionHook("[90]", () -> cache.invalidateTag(tag)), tag);
+        cache.put("OTHER", "x");
+
+        assertEquals(0, cache.getOffHeapSize());
+        assertNull(cache.get("GRADES_1"));
+        assertEquals(0, cache.getTagRegistrationCount());
+    }
+
+    @Test
+    void testTagInvalidatedDuringPromotionIsNotCached() {
+        AtomicReference<Runnable> onPromote = new AtomicReference<>();
+        CacheManager<String, String> cache = new CacheManager<String, String>(1, (key, value) -> {
+            Runnable hook = onPromote.getAndSet(null);
+            if (hook != null) hook.run();
+            return 1;
+        }, EvictionPolicy.LRU).offHeapTier(64 * 1024);
+        String tag = CacheTags.student("1");
+        cache.put("GRADES_1", "[90]", tag);
+        cache.put("OTHER", "x");
+        assertEquals(1, cache.getOffHeapSize());
+
+        // A grade write lands after GRADES_1 leaves the off-heap tier but before it is back on-heap
+        onPromote.set(() -> cache.invalidateTag(tag));
+        assertNull(cache.get("GRADES_1"));
+        assertNull(cache.get("GRADES_1"));
+        assertEquals(0, cache.getOffHeapHitCount());
+        assertEquals(0, cache.getTagRegistrationCount());
+    }
+
+    @Test
+    void testTagInvalidationRacingDemotionAndPromotion() throws Exception {
+        // One on-heap slot: every churn put demotes GRADES_1 and every read promotes it back
+        CacheManager<String, String> cache = new CacheManager<String, String>(1).offHeapTier(64 * 1024);
+        String tag = CacheTags.student("1");
+        AtomicInteger version = new AtomicInteger();
+        AtomicInteger invalidated = new AtomicInteger();
+        int rounds = 20_000;
+
+        runConcurrently(4, t -> {
+            for (int i = 0; i < rounds; i++) {
+                switch (t) {
+                    case 0: // grade writes
+                        int v = version.incrementAndGet();
+                        cache.invalidateTag(tag);
+                        invalidated.set(v);
+                        break;
+                    case 1: // loads
+                        cache.get("GRADES_1", key -> String.valueOf(version.get()), tag);
+                        break;
+                    case 2: // unrelated lookups evicting GRADES_1
+                        cache.put("OTHER_" + (i % 8), "x");
+                        break;
+                    default: // reads: nothing computed before the last finished write may be served
+                        int floor = invalidated.get();
+                        String value = cache.get("GRADES_1");
+                        if (value != null) {
+                            assertTrue(Integer.parseInt(value) >= floor,
+                                    "served " + value + " after invalidation " + floor);
+                        }
+                }
+            }
+        });
+
+        version.incrementAndGet();
+        cache.invalidateTag(tag);
+        assertNull(cache.get("GRADES_1"));
+        assertEquals(0, cache.getTagRegistrationCount());
+    }
+
+    @Test
+    void testNamespaceStatsAndRemovalCauses() {
+        CacheManager<String, String> cache = new CacheManager<String, String>(2)
+                .metricsNamespaces("STUDENT_", "GRADES_");
+        assertEquals(0, cache.stats().hitRate());
+        assertNull(cache.get("STUDENT_1"));
+        assertEquals(0, cache.stats().hitRate()); // a miss on an empty cache, not NaN
+
+        cache.get("STUDENT_1", key -> "Alice");
+        cache.get("STUDENT_1", key -> "unused");
+        cache.put("GRADES_1", "[90]");
+        cache.put("GRADES_1", "[90, 80]");
+        cache.put("CLASS_STATISTICS", "stats"); // evicts STUDENT_1 for size
+        cache.invalidate("GRADES_1");
+        assertThrows(IllegalStateException.class, () -> cache.get("GRADES_2", key -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        Map<String, CacheStats> byNamespace = cache.namespaceStats();
+        CacheStats students = byNamespace.get("STUDENT_");
+        assertEquals(1, students.getHitCount());
+        assertEquals(2, students.getMissCount());
+        assertEquals(1, students.getLoadCount());
+        assertEquals(1, students.getRemovalCount(RemovalCause.SIZE));
+        assertTrue(students.getLoadP99Nanos() > 0);
+
+        CacheStats grades = byNamespace.get("GRADES_");
+        assertEquals(1, grades.getRemovalCount(RemovalCause.REPLACED));
+        assertEquals(1, grades.getRemovalCount(RemovalCause.EXPLICIT));
+        assertEquals(1, grades.getLoadFailureCount());
+        assertEquals(1, byNamespace.get(CacheManager.OTHER_NAMESPACE).getEntryCount());
+
+        CacheStats all = cache.stats();
+        assertEquals(2, all.getEvictionCount());
+        assertEquals(1.0 / 4, all.hitRate());
+
+        cache.registerMBeans("test");
+        cache.registerMBeans("test"); // re-registration replaces
+    }
+
+    @Test
+    void testSnapshotRestoresOnlyCurrentVersions() throws IOException {
+        Path file = Files.createTempFile("cache_snapshot", ".bin");
+        try {
+            Map<String, Long> versions = new HashMap<>(Map.of("STUDENT_1", 1L, "STUDENT_2", 1L, "GRADES_1", 1L));
+            CacheManager<String, String> before = new CacheManager<>(10);
+            before.put("STUDENT_1", "Alice", CacheTags.student("1"));
+            before.put("STUDENT_2", "Bob", CacheTags.student("2"));
+            before.put("GRADES_1", "[90]", CacheTags.student("1"));
+            before.put("UNVERSIONED", "skipped");
+            assertEquals(3, before.saveSnapshot(file, versions::get));
+
+            versions.put("STUDENT_2", 2L); // Bob changed while the application was down
+            CacheManager<String, String> after = new CacheManager<>(10);
+            assertEquals(2, after.loadSnapshotAsync(file, versions::get).join());
+            assertEquals("Alice", after.get("STUDENT_1"));
+            assertNull(after.get("STUDENT_2"));
+            assertNull(after.get("UNVERSIONED"));
+
+            // tags survive the restart
+            assertEquals(2, after.invalidateTag(CacheTags.student("1")));
+
+            Files.write(file, new byte[]{1, 2, 3});
+            assertEquals(0, after.loadSnapshot(file, versions::get));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testSnapshotRestoreRacingWriteIsDropped() throws IOException {
+        Path file = Files.createTempFile("cache_snapshot", ".bin");
+        try {
+            CacheManager<String, String> before = new CacheManager<>(10);
+            before.put("GRADES_1", "[90]", CacheTags.student("1"));
+            assertEquals(1, before.saveSnapshot(file, key -> 1L));
+
+            // A grade is written right after the restore checked the version
+            CacheManager<String, String> after = new CacheManager<>(10);
+            assertEquals(0, after.loadSnapshot(file, key -> {
+                after.invalidateTag(CacheTags.student("1"));
+                return 1L;
+            }));
+            assertNull(after.get("GRADES_1"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testAccessProfileRanksHottestKeys() throws IOException {
+        CacheManager<String, Integer> cache = new CacheManager<>(10);
+        for (int i = 0; i < 2_000; i++) cache.get("hot");
+        for (int i = 0; i < 500; i++) cache.get("warm");
+        for (int i = 0; i < 10; i++) cache.get("cold");
+        assertEquals(List.of("hot", "warm"), cache.hottestKeys(2));
+
+        Path file = Files.createTempFile("cache_profile", ".txt");
+        try {
+            cache.saveAccessProfile(file);
+            assertEquals(List.of("hot", "warm"), CacheManager.readAccessProfile(file).subList(0, 2));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertTrue(CacheManager.readAccessProfile(file).isEmpty());
+    }
+
+    @Test
+    void testScanReadsBypassTheCache() {
+        CacheManager<String, Integer> cache = new CacheManager<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        // a scan hit returns the cached value without making "a" recently used
+        assertEquals(1, cache.get("a", AccessHint.SCAN, key -> -1));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, cache.get("scan" + i, AccessHint.SCAN, key -> Integer.parseInt(key.substring(4))));
+        }
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.getHitCount() + cache.getMissCount());
+
+        cache.put("d", 4);
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.get("b"));
+    }
+
+    @Test
+    void testRecordedTraceReplaysInSimulator() throws IOException {
+        Path file = Files.createTempFile("cache_trace", ".bin");
+        try {
+            CacheManager<String, Integer> cache = new CacheManager<>(10);
+            cache.startTraceRecording(file);
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) keys.add("k" + (i % 7));
+            for (String key : keys) cache.get(key, k -> 1);
+            cache.get("scan", AccessHint.SCAN, k -> 1); // scan reads are not traced
+            assertEquals(20_000, cache.stopTraceRecording());
+            cache.get("after");
+
+            int[] trace = AccessTrace.read(file);
+            assertArrayEquals(CacheTraceSimulator.hashes(keys), trace);
+            for (CacheTraceSimulator.Policy policy : CacheTraceSimulator.Policy.values()) {
+                // 7 keys fit: only the first access of each misses
+                assertEquals(1 - 7.0 / 20_000, CacheTraceSimulator.hitRate(trace, 8, policy), 1e-9, policy.name());
+            }
+            // a cyclic scan one larger than the cache defeats LRU and FIFO but not LFU's frequencies
+            assertEquals(0, CacheTraceSimulator.hitRate(trace, 6, CacheTraceSimulator.Policy.LRU));
+            assertEquals(0, CacheTraceSimulator.hitRate(trace, 6, CacheTraceSimulator.Policy.FIFO));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testConcurrentLookupsAreAllTraced() throws Exception {
+        Path file = Files.createTempFile("cache_trace", ".bin");
+        try {
+            CacheManager<String, Integer> cache = new CacheManager<>(10);
+            cache.startTraceRecording(file);
+            runConcurrently(4, t -> {
+                for (int i = 0; i < 5_000; i++) cache.get("t" + t + "_" + (i % 5), k -> 1);
+            });
+            assertEquals(20_000, cache.stopTraceRecording());
+
+            Map<Integer, Integer> perKey = new HashMap<>();
+            for (int hash : AccessTrace.read(file)) perKey.merge(hash, 1, Integer::sum);
+            assertEquals(20, perKey.size());
+            for (int t = 0; t < 4; t++) {
+                for (int k = 0; k < 5; k++) assertEquals(1_000, perKey.get(("t" + t + "_" + k).hashCode()));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testTinyLfuBeatsLruOnScanMixedTrace() {
+        List<String> trace = CachePolicyHitRateBenchmark.syntheticTrace(2_000, 50_000, 5_000, 7);
+        double lru = CachePolicyHitRateBenchmark.hitRate(trace, 150, EvictionPolicy.LRU);
+        double tinyLfu = CachePolicyHitRateBenchmark.hitRate(trace, 150, EvictionPolicy.W_TINY_LFU);
+        assertTrue(tinyLfu > lru, "W-TinyLFU " + tinyLfu + " vs LRU " + lru);
+    }
+}
@@ -0,0 +1,69 @@
+import Caching.CacheManager;
+import Caching.EvictionPolicy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Hit rate of each EvictionPolicy replaying the same access trace
+ * (get, and put on a miss).
+ * Usage: java CachePolicyHitRateBenchmark [traceFile] [capacity]
+ * The trace file holds one cache key per line; without one, a synthetic trace
+ * of skewed STUDENT_* lookups interleaved with GRADES_* analytics scans is used.
+ */
+public class CachePolicyHitRateBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        List<String> trace = args.length > 0 && !args[0].equals("-")
+                ? Files.readAllLines(Paths.get(args[0]))
+                : syntheticTrace(2_000, 200_000, 20_000, 42);
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : CacheManager.DEFAULT_MAX_SIZE;
+
+        System.out.printf("Accesses: %,d | Capacity: %,d%n", trace.size(), capacity);
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            System.out.printf("%-12s %6.2f%%%n", policy, hitRate(trace, capacity, policy) * 100);
+        }
+    }
+
+    static double hitRate(List<String> trace, int capacity, EvictionPolicy policy) {
+        CacheManager<String, String> cache = new CacheManager<>(capacity, policy);
+        long hits = 0;
+        for (String key : trace) {
+            if (cache.get(key) != null) hits++;
+            else cache.put(key, key);
+        }
+        cache.stopAutoRefresh();
+        return (double) hits / trace.size();
+    }
+
+    /**
+     * Zipf-like student lookups; every scanInterval lookups an analytics pass
+     * reads the grades of every student once, in roster order.
+     */
+    static List<String> syntheticTrace(int students, int lookups, int scanInterval, long seed) {
+        Random rand = new Random(seed);
+        double[] cumulative = new double[students];
+        double total = 0;
+        for (int i = 0; i < students; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+
+        List<String> trace = new ArrayList<>();
+        for (int i = 1; i <= lookups; i++) {
+            double u = rand.nextDouble() * total;
+            int idx = java.util.Arrays.binarySearch(cumulative, u);
+            if (idx < 0) idx = -idx - 1;
+            trace.add(String.format("STUDENT_STU%03d", idx + 1));
+
+            if (i % scanInterval == 0) {
+                for (int s = 1; s <= students; s++) trace.add(String.format("GRADES_STU%03d", s));
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,91 @@
+import Caching.CacheConfig;
+import Caching.CacheManager;
+import Caching.CacheRegistry;
+import Caching.EvictionPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheRegistryTest {
+
+    @Test
+    void testConfigOverridesCodeDefaults() {
+        Properties config = new Properties();
+        config.setProperty("cache.students.maxSize", "500");
+        config.setProperty("cache.students.policy", "w_tiny_lfu");
+        config.setProperty("cache.reports.maxBytes", "2MB");
+
+        try (CacheRegistry registry = new CacheRegistry(config)) {
+            CacheManager<String, String> students = registry.cache("students", new CacheConfig().maxSize(50));
+            CacheManager<String, String> reports = registry.cache("reports", new CacheConfig());
+            CacheManager<String, String> plain = registry.cache("plain", new CacheConfig().maxSize(20));
+
+            assertEquals(500, students.getMaxWeight());
+            assertEquals(EvictionPolicy.W_TINY_LFU, students.getPolicy());
+            assertEquals(2L * 1024 * 1024, reports.getMaxWeight());
+            assertEquals(20, plain.getMaxWeight());
+            assertEquals(EvictionPolicy.LRU, plain.getPolicy());
+
+            assertSame(students, registry.cache("students", new CacheConfig()));
+            assertEquals(List.of("students", "reports", "plain"), registry.names());
+        }
+    }
+
+    @Test
+    void testInvalidOverrideFallsBackToDefaults() {
+        Properties config = new Properties();
+        config.setProperty("cache.students.policy", "MRU");
+        try (CacheRegistry registry = new CacheRegistry(config)) {
+            CacheManager<String, String> students = registry.cache("students", new CacheConfig().maxSize(50));
+            assertEquals(50, students.getMaxWeight());
+            assertEquals(EvictionPolicy.LRU, students.getPolicy());
+        }
+    }
+
+    @Test
+    void testMaintenanceRemovesExpiredEntriesOfEveryCache() throws InterruptedException {
+        Properties config = new Properties();
+        config.setProperty("registry.maintenanceInterval", "20ms");
+        config.setProperty("cache.b.expireAfterWrite", "30ms");
+
+        try (CacheRegistry registry = new CacheRegistry(config)) {
+            CacheManager<String, String> a = registry.cache("a",
+                    new CacheConfig().expireAfterWrite(30, TimeUnit.MILLISECONDS));
+            CacheManager<String, String> b = registry.cache("b", new CacheConfig());
+            CacheManager<String, String> kept = registry.cache("kept", new CacheConfig());
+            a.put("x", "1");
+            b.put("y", "2");
+            kept.put("z", "3");
+
+            long deadline = System.currentTimeMillis() + 2_000;
+            while ((a.size() > 0 || b.size() > 0) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, a.size());
+            assertEquals(0, b.size());
+            assertEquals(1, kept.size());
+            assertEquals(1, a.stats().getEvictionCount());
+        }
+    }
+
+    @Test
+    void testAutoRefreshRunsOnRegistryScheduler() throws InterruptedException {
+        try (CacheRegistry registry = new CacheRegistry()) {
+            CacheManager<String, String> cache = registry.cache("a", new CacheConfig());
+            CountDownLatch ran = new CountDownLatch(1);
+            String[] thread = new String[1];
+            cache.startAutoRefresh(1, () -> {
+                thread[0] = Thread.currentThread().getName();
+                ran.countDown();
+            });
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            assertEquals("cache-maintenance", thread[0]);
+            cache.stopAutoRefresh();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import Caching.CacheManager;
+import Caching.EvictionPolicy;
+import Caching.Weighers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * get / put throughput of a full CacheManager from 1 thread up to twice the core count,
+ * single-shard against one shard per core.
+ * Every miss is followed by a put, so the cache evicts continuously.
+ * Usage: java CacheThroughputBenchmark [capacity] [seconds per run]
+ */
+public class CacheThroughputBenchmark {
+
+    private static final int KEY_SPACE_FACTOR = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+        int capacity = args.length > 0 ? Integer.parseInt(args[0]) : CacheManager.DEFAULT_MAX_SIZE;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 2;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("Capacity: %,d | Keys: %,d | Cores: %d%n",
+                capacity, capacity * KEY_SPACE_FACTOR, cores);
+        System.out.printf("%-8s %15s %15s %15s %10s%n",
+                "THREADS", "1 SHARD OPS/S", cores + " SHARDS OPS/S", "OPS/S/THREAD", "HIT RATE");
+
+        run(capacity, cores, 1, seconds / 2); // warm-up
+        for (int threads = 1; threads <= Math.max(16, 2 * cores); threads *= 2) {
+            double[] single = run(capacity, 1, threads, seconds);
+            double[] sharded = run(capacity, cores, threads, seconds);
+            System.out.printf("%-8d %,15.0f %,15.0f %,15.0f %9.1f%%%n",
+                    threads, single[0], sharded[0], sharded[0] / threads, sharded[1] * 100);
+        }
+    }
+
+    /**
+     * @return {operations per second, hit rate}
+     */
+    private static double[] run(int capacity, int shards, int threadCount, double seconds) throws InterruptedException {
+        CacheManager<Integer, Integer> cache =
+                new CacheManager<>(capacity, Weighers.entryCount(), EvictionPolicy.LRU, shards);
+        int keys = capacity * KEY_SPACE_FACTOR;
+        for (int i = 0; i < capacity; i++) cache.put(i, i);
+
+        LongAdder ops = new LongAdder();
+        LongAdder hits = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + (long) (seconds * 1e9);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            SplittableRandom rand = new SplittableRandom(t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long local = 0, localHits = 0;
+                while ((local & 1023) != 0 || System.nanoTime() < deadline) {
+                    // Skewed keys: squaring a uniform draw favours low keys
+                    double u = rand.nextDouble();
+                    int key = (int) (u * u * keys);
+                    if (cache.get(key) != null) {
+                        localHits++;
+                    } else {
+                        cache.put(key, key);
+                    }
+                    local++;
+                }
+                ops.add(local);
+                hits.add(localHits);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+
+        cache.stopAutoRefresh();
+        return new double[]{ops.sum() / elapsed, (double) hits.sum() / ops.sum()};
+    }
+}
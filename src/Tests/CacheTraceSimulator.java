@@ -0,0 +1,213 @@
+import Caching.AccessTrace;
+import Caching.CacheManager;
+import Caching.EvictionPolicy;
+import Caching.Weighers;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays a recorded AccessTrace (see CacheManager.startTraceRecording or the
+ * cache.&lt;name&gt;.traceFile setting) against several eviction policies and cache sizes,
+ * and prints one hit-rate curve per policy.
+ *
+ * Usage: java CacheTraceSimulator [traceFile|-] [size,size,...]
+ *
+ * - Without a trace file ("-"), CachePolicyHitRateBenchmark's synthetic trace is used
+ * - Without sizes, the curve covers 1% to 100% of the distinct keys in the trace
+ * - LRU and W-TinyLFU replay through CacheManager itself (one shard, so the order is
+ *   exact); LFU, FIFO and CLOCK are reference models of those policies
+ * - Each access is a get, and a put on a miss, as in the application caches
+ */
+public class CacheTraceSimulator {
+
+    private static final double[] DEFAULT_SIZE_FRACTIONS = {0.01, 0.02, 0.05, 0.10, 0.20, 0.50, 1.0};
+
+    /** A cache that only tracks keys. */
+    interface SimulatedCache {
+        /** @return true on a hit; a miss admits the key */
+        boolean access(int key);
+    }
+
+    enum Policy {
+        LRU, LFU, W_TINY_LFU, FIFO, CLOCK;
+
+        SimulatedCache newCache(int capacity) {
+            switch (this) {
+                case LRU: return managed(capacity, EvictionPolicy.LRU);
+                case W_TINY_LFU: return managed(capacity, EvictionPolicy.W_TINY_LFU);
+                case LFU: return new Lfu(capacity);
+                case FIFO: return new Fifo(capacity);
+                default: return new Clock(capacity);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] trace = args.length > 0 && !args[0].equals("-")
+                ? AccessTrace.read(Paths.get(args[0]))
+                : hashes(CachePolicyHitRateBenchmark.syntheticTrace(2_000, 200_000, 20_000, 42));
+        int distinct = distinctKeys(trace);
+        int[] sizes = args.length > 1 ? parseSizes(args[1]) : defaultSizes(distinct);
+
+        System.out.printf("Accesses: %,d | Distinct keys: %,d%n%n", trace.length, distinct);
+        System.out.printf("%10s", "SIZE");
+        for (Policy policy : Policy.values()) System.out.printf(" %11s", policy);
+        System.out.println();
+        for (int size : sizes) {
+            System.out.printf("%,10d", size);
+            for (Policy policy : Policy.values()) {
+                System.out.printf(" %10.2f%%", hitRate(trace, size, policy) * 100);
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Time Complexity: O(accesses)
+     */
+    static double hitRate(int[] trace, int capacity, Policy policy) {
+        if (trace.length == 0) return 0;
+        SimulatedCache cache = policy.newCache(capacity);
+        long hits = 0;
+        for (int key : trace) {
+            if (cache.access(key)) hits++;
+        }
+        return (double) hits / trace.length;
+    }
+
+    static int[] hashes(List<String> keys) {
+        int[] trace = new int[keys.size()];
+        for (int i = 0; i < trace.length; i++) trace[i] = keys.get(i).hashCode();
+        return trace;
+    }
+
+    private static int distinctKeys(int[] trace) {
+        return (int) Arrays.stream(trace).distinct().count();
+    }
+
+    private static int[] defaultSizes(int distinct) {
+        List<Integer> sizes = new ArrayList<>();
+        for (double fraction : DEFAULT_SIZE_FRACTIONS) {
+            int size = Math.max(1, (int) Math.round(distinct * fraction));
+            if (sizes.isEmpty() || sizes.get(sizes.size() - 1) != size) sizes.add(size);
+        }
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] parseSizes(String list) {
+        return Arrays.stream(list.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static SimulatedCache managed(int capacity, EvictionPolicy policy) {
+        CacheManager<Integer, Boolean> cache = new CacheManager<>(capacity, Weighers.entryCount(), policy, 1);
+        return key -> {
+            if (cache.get(key) != null) return true;
+            cache.put(key, Boolean.TRUE);
+            return false;
+        };
+    }
+
+    /** Evicts the least frequently used key; ties go to the least recently used. O(1) per access. */
+    static final class Lfu implements SimulatedCache {
+        private final int capacity;
+        private final Map<Integer, Integer> counts = new HashMap<>();
+        private final Map<Integer, LinkedHashSet<Integer>> byCount = new HashMap<>();
+        private int minCount;
+
+        Lfu(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean access(int key) {
+            Integer count = counts.get(key);
+            if (count != null) {
+                LinkedHashSet<Integer> bucket = byCount.get(count);
+                bucket.remove(key);
+                if (bucket.isEmpty()) {
+                    byCount.remove(count);
+                    if (minCount == count) minCount++;
+                }
+                counts.put(key, count + 1);
+                byCount.computeIfAbsent(count + 1, c -> new LinkedHashSet<>()).add(key);
+                return true;
+            }
+            if (counts.size() >= capacity) {
+                LinkedHashSet<Integer> bucket = byCount.get(minCount);
+                Integer victim = bucket.iterator().next();
+                bucket.remove(victim);
+                if (bucket.isEmpty()) byCount.remove(minCount);
+                counts.remove(victim);
+            }
+            counts.put(key, 1);
+            byCount.computeIfAbsent(1, c -> new LinkedHashSet<>()).add(key);
+            minCount = 1;
+            return false;
+        }
+    }
+
+    /** Evicts in insertion order; hits do not change the order. */
+    static final class Fifo implements SimulatedCache {
+        private final int capacity;
+        private final LinkedHashSet<Integer> keys = new LinkedHashSet<>();
+
+        Fifo(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean access(int key) {
+            if (keys.contains(key)) return true;
+            if (keys.size() >= capacity) {
+                Integer oldest = keys.iterator().next();
+                keys.remove(oldest);
+            }
+            keys.add(key);
+            return false;
+        }
+    }
+
+    /** Second-chance FIFO: a hit sets a reference bit; the hand clears bits until it finds an unset one. */
+    static final class Clock implements SimulatedCache {
+        private final int[] keys;
+        private final boolean[] referenced;
+        private final Map<Integer, Integer> slots = new HashMap<>();
+        private int hand;
+
+        Clock(int capacity) {
+            this.keys = new int[capacity];
+            this.referenced = new boolean[capacity];
+        }
+
+        @Override
+        public boolean access(int key) {
+            Integer slot = slots.get(key);
+            if (slot != null) {
+                referenced[slot] = true;
+                return true;
+            }
+            if (slots.size() < keys.length) {
+                slot = slots.size();
+            } else {
+                while (referenced[hand]) {
+                    referenced[hand] = false;
+                    hand = (hand + 1) % keys.length;
+                }
+                slot = hand;
+                slots.remove(keys[slot]);
+                hand = (hand + 1) % keys.length;
+            }
+            keys[slot] = key;
+            referenced[slot] = false;
+            slots.put(key, slot);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import Statistics.CachedClassStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheWarmerTest {
+
+    @Test
+    void testWarmsHottestStudentsInProfileOrder() throws InvalidGradeException {
+        AuditLogger auditLogger = new AuditLogger();
+        CacheManager<String, Object> cache = new CacheManager<>();
+        CacheManager<String, CachedClassStatistics> statsCache = new CacheManager<>();
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        GradeManager gradeManager = new GradeManager(cache, auditLogger);
+        GpaCalculator gpaCalculator = new GpaCalculator(gradeManager);
+        ClassStatisticsCalculator calculator = new ClassStatisticsCalculator(gradeManager, studentManager, statsCache);
+
+        Student hot = new RegularStudent("Hot", 20, "hot@mail.com", "12345");
+        Student cold = new RegularStudent("Cold", 20, "cold@mail.com", "12345");
+        studentManager.addStudent(hot);
+        studentManager.addStudent(cold);
+        gradeManager.addGrade(new Grade(hot.getStudentId(), new CoreSubject("Mathematics", "MATH101"), 90));
+        cache.clearCache();
+
+        List<String> profile = List.of("GRADES_" + hot.getStudentId(), "STUDENT_" + hot.getStudentId(),
+                "STUDENT_STU-missing", "OTHER_KEY");
+        CacheWarmer warmer = new CacheWarmer(studentManager, gradeManager, gpaCalculator, calculator);
+        assertEquals(1, warmer.warmAsync(profile).join());
+
+        assertSame(hot, cache.get("STUDENT_" + hot.getStudentId()));
+        assertNotNull(cache.get("GRADES_" + hot.getStudentId()));
+        assertNull(cache.get("STUDENT_" + cold.getStudentId()));
+        assertTrue(statsCache.size() > 0);
+    }
+
+    @Test
+    void testWarmingDuringWritesNeverCachesOldGrades() throws Exception {
+        AuditLogger auditLogger = new AuditLogger();
+        CacheManager<String, Object> cache = new CacheManager<>();
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        GradeManager gradeManager = new GradeManager(cache, auditLogger);
+        GpaCalculator gpaCalculator = new GpaCalculator(gradeManager);
+        ClassStatisticsCalculator calculator =
+                new ClassStatisticsCalculator(gradeManager, studentManager, new CacheManager<>());
+        Student student = new RegularStudent("Busy", 20, "busy@mail.com", "12345");
+        studentManager.addStudent(student);
+        Subject math = new CoreSubject("Mathematics", "MATH101");
+
+        CacheWarmer warmer = new CacheWarmer(studentManager, gradeManager, gpaCalculator, calculator);
+        List<String> profile = List.of("GRADES_" + student.getStudentId());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CompletableFuture<Void> warming = CompletableFuture.runAsync(() -> {
+            while (writing.get()) warmer.warm(profile);
+        });
+        for (int i = 0; i < 500; i++) {
+            gradeManager.addGrade(new Grade(student.getStudentId(), math, i % 101));
+        }
+        writing.set(false);
+        warming.get();
+
+        assertEquals(500, gradeManager.getGradesForStudent(student.getStudentId()).length);
+    }
+
+    @Test
+    void testWarmingDuringWritesNeverServesOldClassStatistics() throws Exception {
+        AuditLogger auditLogger = new AuditLogger();
+        CacheManager<String, Object> cache = new CacheManager<>();
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        GradeManager gradeManager = new GradeManager(cache, auditLogger);
+        ClassStatisticsCalculator calculator =
+                new ClassStatisticsCalculator(gradeManager, studentManager, new CacheManager<>());
+        Student student = new RegularStudent("Busy", 20, "busy@mail.com", "12345");
+        studentManager.addStudent(student);
+        Subject math = new CoreSubject("Mathematics", "MATH101");
+
+        // The warmer's stats loads overlap the menu's writes and reads
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CompletableFuture<Void> warming = CompletableFuture.runAsync(() -> {
+            while (writing.get()) calculator.calculateClassStatistics();
+        });
+        try {
+            for (int i = 0; i < 500; i++) {
+                gradeManager.addGrade(new Grade(student.getStudentId(), math, i % 101));
+                assertEquals(i + 1, calculator.calculateClassStatistics().getTotalGrades());
+            }
+        } finally {
+            writing.set(false);
+        }
+        warming.get();
+        assertEquals(500, calculator.calculateClassStatistics().getTotalGrades());
+    }
+
+    @Test
+    void testStudentIdsAreDeduplicatedInProfileOrder() {
+        assertEquals(List.of("1", "2"),
+                List.copyOf(CacheWarmer.hottestStudentIds(List.of("GRADES_1", "STUDENT_1", "STUDENT_2"))));
+    }
+}
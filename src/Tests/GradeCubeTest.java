@@ -0,0 +1,80 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeCubeTest {
+    private final AuditLogger auditLogger = new AuditLogger();
+    private StudentManager studentManager;
+    private GradeManager gradeManager;
+    private StudentAnalytics analytics;
+
+    private final Subject math = new CoreSubject("Mathematics", "MATH101");
+    private final Subject art = new ElectiveSubject("Art", "ART101");
+
+    @BeforeEach
+    void setUp() {
+        CacheManager<String, Object> cache = new CacheManager<>();
+        studentManager = new StudentManager(cache, auditLogger);
+        gradeManager = new GradeManager(cache, auditLogger);
+        analytics = new StudentAnalytics(studentManager, gradeManager, new GpaCalculator(gradeManager));
+    }
+
+    private void grade(Student s, Subject subject, double score) throws InvalidGradeException {
+        gradeManager.addGrade(new Grade(s.getStudentId(), subject, score));
+    }
+
+    @Test
+    void testSliceAndRollUp() throws InvalidGradeException {
+        Student honors = new HonorsStudent("Hana", 20, "hana@mail.com", "12345");
+        Student regular = new RegularStudent("Rick", 20, "rick@mail.com", "12345");
+        studentManager.addStudent(honors);
+        studentManager.addStudent(regular);
+        grade(honors, math, 95);
+        grade(honors, art, 85);
+        grade(regular, math, 72);
+        grade(regular, math, 91);
+
+        GradeCube cube = analytics.gradeCube();
+        assertEquals(4, cube.getGradeCount());
+
+        GradeCube.Aggregate mathAll = cube.total(Map.of(GradeCube.Dimension.SUBJECT, "Mathematics"));
+        assertEquals(3, mathAll.getCount());
+        assertEquals((95 + 72 + 91) / 3.0, mathAll.getAverage(), 1e-9);
+
+        Map<List<String>, GradeCube.Aggregate> byTypeAndBand = cube.rollUp(
+                Map.of(GradeCube.Dimension.SUBJECT, "Mathematics"),
+                GradeCube.Dimension.STUDENT_TYPE, GradeCube.Dimension.BAND);
+        assertEquals(1, byTypeAndBand.get(List.of("Honors", "A")).getCount());
+        assertEquals(1, byTypeAndBand.get(List.of("Regular", "A")).getCount());
+        assertEquals(72, byTypeAndBand.get(List.of("Regular", "C")).getSum(), 1e-9);
+        assertNull(byTypeAndBand.get(List.of("Honors", "B")));
+
+        assertEquals(1, cube.total(Map.of(GradeCube.Dimension.SUBJECT_TYPE, "Elective")).getCount());
+        assertEquals(4, cube.total(Map.of(GradeCube.Dimension.DATE, LocalDate.now().toString())).getCount());
+        assertEquals(0, cube.total(Map.of(GradeCube.Dimension.SUBJECT, "History")).getCount());
+    }
+
+    @Test
+    void testCubeIsReusedUntilGradesChange() throws InvalidGradeException {
+        Student s = new RegularStudent("Sam", 20, "sam@mail.com", "12345");
+        studentManager.addStudent(s);
+        grade(s, math, 80);
+
+        GradeCube first = analytics.gradeCube();
+        assertSame(first, analytics.gradeCube());
+
+        grade(s, math, 60);
+        GradeCube second = analytics.gradeCube();
+        assertNotSame(first, second);
+        assertEquals(2, second.total(Map.of()).getCount());
+        assertEquals(70, second.total(Map.of()).getAverage(), 1e-9);
+    }
+}
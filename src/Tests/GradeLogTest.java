@@ -0,0 +1,85 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import Statistics.CachedClassStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeLogTest {
+
+    private Subject core(String name) {
+        return new CoreSubject(name, name.toUpperCase() + "101");
+    }
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterWrites() throws InvalidGradeException {
+        GradeLog log = new GradeLog();
+        log.append(new Grade("STU001", core("Math"), 80));
+        log.append(new Grade("STU001", core("Science"), 70));
+
+        GradeLog.Snapshot snapshot = log.snapshot();
+        for (int i = 0; i < 5000; i++) {
+            log.append(new Grade("STU002", core("Art"), 50)); // forces the array to grow
+        }
+
+        assertEquals(2, snapshot.getEpoch());
+        assertEquals(2, snapshot.toArray().length);
+        assertEquals(5002, log.snapshot().toArray().length);
+    }
+
+    @Test
+    void testCorrectionsResolvedPerEpoch() throws InvalidGradeException {
+        GradeLog log = new GradeLog();
+        Grade g = new Grade("STU001", core("Math"), 40);
+        log.append(g);
+        GradeLog.Snapshot before = log.snapshot();
+
+        g.recordGrade(90);
+        log.appendCorrection(g);
+        GradeLog.Snapshot after = log.snapshot();
+
+        assertEquals(40, before.toArray()[0].getScore(), 1e-9);
+        GradeRecord[] current = after.toArray();
+        assertEquals(1, current.length);
+        assertEquals(90, current[0].getScore(), 1e-9);
+    }
+
+    @Test
+    void testStatisticsConsistentWhileWritersRun() throws Exception {
+        AuditLogger auditLogger = new AuditLogger();
+        CacheManager<String, Object> cache = new CacheManager<>();
+        GradeManager gradeManager = new GradeManager(cache, auditLogger);
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        ClassStatisticsCalculator calculator =
+                new ClassStatisticsCalculator(gradeManager, studentManager, new CacheManager<>());
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20_000; i++) {
+                    gradeManager.addGrade(new Grade("STU" + (i % 50), core("Math"), i % 101));
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            } finally {
+                done.set(true);
+            }
+        });
+        writer.start();
+
+        while (!done.get()) {
+            CachedClassStatistics stats = calculator.computeStatistics(false);
+            int distributed = stats.getGradeDistribution().values().stream().mapToInt(Integer::intValue).sum();
+            assertEquals(stats.getTotalGrades(), distributed);
+        }
+        writer.join();
+
+        assertNull(failure.get());
+        assertEquals(20_000, calculator.computeStatistics(true).getTotalGrades());
+    }
+}
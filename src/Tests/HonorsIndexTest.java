@@ -0,0 +1,89 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HonorsIndexTest {
+    private final AuditLogger auditLogger = new AuditLogger();
+    private StudentManager studentManager;
+    private GradeManager gradeManager;
+    private GpaCalculator gpaCalculator;
+    private StudentAnalytics analytics;
+    private final Subject math = new CoreSubject("Mathematics", "MATH101");
+
+    @BeforeEach
+    void setUp() {
+        CacheManager<String, Object> cache = new CacheManager<>();
+        studentManager = new StudentManager(cache, auditLogger);
+        gradeManager = new GradeManager(cache, auditLogger);
+        gpaCalculator = new GpaCalculator(gradeManager);
+        analytics = new StudentAnalytics(studentManager, gradeManager, gpaCalculator);
+        Student.setGradeManager(gradeManager);
+    }
+
+    @Test
+    void testEligibilityFollowsThresholdCrossings() throws InvalidGradeException {
+        Student honors = new HonorsStudent("Hana", 20, "hana@mail.com", "12345");
+        Student regular = new RegularStudent("Rick", 20, "rick@mail.com", "12345");
+        studentManager.addStudent(honors);
+        studentManager.addStudent(regular);
+
+        Grade first = new Grade(honors.getStudentId(), math, 84);
+        gradeManager.addGrade(first);
+        gradeManager.addGrade(new Grade(regular.getStudentId(), math, 95));
+        assertTrue(analytics.findHonorsStudents().isEmpty());
+        assertEquals(List.of(regular), studentManager.findHonorsStudents(gpaCalculator));
+
+        gradeManager.updateGrade(first, 94);
+        assertEquals(List.of(honors), analytics.findHonorsStudents());
+        assertEquals(List.of(honors, regular), studentManager.findHonorsStudents(gpaCalculator));
+
+        gradeManager.addGrade(new Grade(honors.getStudentId(), math, 60));
+        assertTrue(analytics.findHonorsStudents().isEmpty());
+        assertEquals(List.of(regular), studentManager.findHonorsStudents(gpaCalculator));
+    }
+
+    @Test
+    void testReplacedIndexStopsFollowingWrites() throws InvalidGradeException {
+        HonorsIndex first = gpaCalculator.honorsIndex(studentManager);
+        StudentManager otherRoster = new StudentManager(new CacheManager<>(), auditLogger);
+        assertNotSame(first, gpaCalculator.honorsIndex(otherRoster));
+
+        Student honors = new HonorsStudent("Hana", 20, "hana@mail.com", "12345");
+        studentManager.addStudent(honors);
+        gradeManager.addGrade(new Grade(honors.getStudentId(), math, 95));
+
+        assertTrue(first.averageEligibleStudents().isEmpty());
+    }
+
+    @Test
+    void testIndexMatchesFullScan() throws InvalidGradeException {
+        Random rand = new Random(9);
+        for (int i = 0; i < 500; i++) {
+            Student s = i % 2 == 0
+                    ? new HonorsStudent("H" + i, 20, "h" + i + "@mail.com", "12345")
+                    : new RegularStudent("R" + i, 20, "r" + i + "@mail.com", "12345");
+            studentManager.addStudent(s);
+            for (int g = rand.nextInt(4); g > 0; g--) {
+                gradeManager.addGrade(new Grade(s.getStudentId(), math, 70 + rand.nextInt(31)));
+            }
+        }
+
+        List<Student> byGpa = new ArrayList<>();
+        for (Student s : studentManager.getAllStudents()) {
+            if (gpaCalculator.findGPA(s.getStudentId()).orElse(0) > HonorsIndex.HONORS_GPA) byGpa.add(s);
+        }
+
+        assertEquals(analytics.findHonorsStudents(StudentAnalytics.ExecutionMode.SEQUENTIAL),
+                analytics.findHonorsStudents());
+        assertEquals(byGpa, studentManager.findHonorsStudents(gpaCalculator));
+        assertFalse(byGpa.isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import Statistics.CachedClassStatistics;
+import Statistics.PercentileSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalStatisticsTest {
+    private final AuditLogger auditLogger = new AuditLogger();
+    private GradeManager gradeManager;
+    private StudentManager studentManager;
+    private ClassStatisticsCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager<String, Object> cacheManager = new CacheManager<>();
+        gradeManager = new GradeManager(cacheManager, auditLogger);
+        studentManager = new StudentManager(cacheManager, auditLogger);
+        calculator = new ClassStatisticsCalculator(gradeManager, studentManager, new CacheManager<>());
+    }
+
+    private Subject subject(int i) {
+        return i % 2 == 0
+                ? new CoreSubject("Core" + i, "C" + i)
+                : new ElectiveSubject("Elective" + i, "E" + i);
+    }
+
+    private void assertMatchesFullRecompute() {
+        CachedClassStatistics incremental = calculator.calculateClassStatistics();
+        CachedClassStatistics full = calculator.computeStatistics();
+
+        assertEquals(full.getTotalStudents(), incremental.getTotalStudents());
+        assertEquals(full.getTotalGrades(), incremental.getTotalGrades());
+        assertEquals(full.getGradeDistribution(), incremental.getGradeDistribution());
+        assertEquals(full.getMean(), incremental.getMean(), 1e-9);
+        assertEquals(full.getMedian(), incremental.getMedian(), 1e-9);
+        assertEquals(full.getStdDev(), incremental.getStdDev(), 1e-6);
+        assertEquals(full.getHighestGrade(), incremental.getHighestGrade(), 1e-9);
+        assertEquals(full.getLowestGrade(), incremental.getLowestGrade(), 1e-9);
+
+        full.getSubjectAverages().forEach((subject, avg) ->
+                assertEquals(avg, incremental.getSubjectAverages().get(subject), 1e-9));
+        assertEquals(full.getStudentTypeAverages().keySet(), incremental.getStudentTypeAverages().keySet());
+        full.getStudentTypeAverages().forEach((type, avg) ->
+                assertEquals(avg, incremental.getStudentTypeAverages().get(type), 1e-9));
+    }
+
+    @Test
+    void testMatchesFullRecomputeAfterAdds() throws InvalidGradeException {
+        Random rand = new Random(42);
+        Student[] students = new Student[6];
+        for (int i = 0; i < students.length; i++) {
+            students[i] = i % 2 == 0
+                    ? new RegularStudent("Reg" + i, 20, "reg" + i + "@mail.com", "12345")
+                    : new HonorsStudent("Hon" + i, 20, "hon" + i + "@mail.com", "12345");
+            studentManager.addStudent(students[i]);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            Student s = students[rand.nextInt(students.length - 1)]; // last student keeps no grades
+            gradeManager.addGrade(new Grade(s.getStudentId(), subject(rand.nextInt(4)), rand.nextInt(101)));
+            if (i % 37 == 0) assertMatchesFullRecompute();
+        }
+
+        assertMatchesFullRecompute();
+    }
+
+    @Test
+    void testGradeUpdateIsReflected() throws InvalidGradeException {
+        Student s = new RegularStudent("Alice", 20, "alice@mail.com", "12345");
+        studentManager.addStudent(s);
+
+        Grade g1 = new Grade(s.getStudentId(), subject(0), 50);
+        Grade g2 = new Grade(s.getStudentId(), subject(1), 70);
+        gradeManager.addGrade(g1);
+        gradeManager.addGrade(g2);
+        assertEquals(60, calculator.calculateClassStatistics().getMean(), 1e-9);
+
+        gradeManager.updateGrade(g1, 90);
+
+        CachedClassStatistics stats = calculator.calculateClassStatistics();
+        assertEquals(80, stats.getMean(), 1e-9);
+        assertEquals(90, stats.getHighestGrade(), 1e-9);
+        assertEquals(0, stats.getGradeDistribution().get("F"));
+        assertMatchesFullRecompute();
+    }
+
+    @Test
+    void testCorrectionsRebuildPercentileSketches() throws InvalidGradeException {
+        Student s = new HonorsStudent("Bob", 20, "bob@mail.com", "12345");
+        gradeManager.addGrade(new Grade(s.getStudentId(), subject(0), 40)); // before registration
+        studentManager.addStudent(s);
+
+        List<Grade> written = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Grade g = new Grade(s.getStudentId(), subject(0), 50 + i);
+            gradeManager.addGrade(g);
+            written.add(g);
+        }
+        for (Grade g : written) gradeManager.updateGrade(g, 100);
+
+        CachedClassStatistics stats = calculator.calculateClassStatistics();
+        PercentileSummary subjectSummary = stats.getSubjectPercentiles().get(subject(0).getSubjectName());
+        assertEquals(21, subjectSummary.getCount());
+        assertEquals(100, subjectSummary.get(90), 1e-9);
+        assertEquals(21, stats.getStudentTypePercentiles().get("Honors").getCount());
+    }
+
+    @Test
+    void testModeAndEmptyState() throws InvalidGradeException {
+        CachedClassStatistics empty = calculator.calculateClassStatistics();
+        assertEquals(0, empty.getTotalGrades());
+        assertEquals(0, empty.getMedian(), 1e-9);
+        assertEquals(0.0, empty.getStudentTypeAverages().get("Regular"), 1e-9);
+        assertEquals(0.0, empty.getStudentTypeAverages().get("Honors"), 1e-9);
+
+        gradeManager.addGrade(new Grade("STU900", subject(0), 75));
+        gradeManager.addGrade(new Grade("STU900", subject(1), 75));
+        gradeManager.addGrade(new Grade("STU900", subject(2), 60));
+
+        assertEquals(75, calculator.calculateClassStatistics().getMode(), 1e-9);
+    }
+}
@@ -0,0 +1,70 @@
+import Statistics.KllSketch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KllSketchTest {
+
+    private static final double RANK_TOLERANCE = 0.02;
+
+    private static double rankOf(double[] sorted, double value) {
+        int idx = Arrays.binarySearch(sorted, value);
+        if (idx < 0) idx = -idx - 1;
+        return (double) idx / sorted.length;
+    }
+
+    @Test
+    void testQuantilesWithinRankErrorBound() {
+        Random rand = new Random(1);
+        KllSketch sketch = new KllSketch();
+        double[] values = new double[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rand.nextInt(10_001) / 100.0;
+            sketch.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.10, 0.25, 0.50, 0.75, 0.90, 0.99}) {
+            double rank = rankOf(values, sketch.quantile(q));
+            assertTrue(Math.abs(rank - q) <= RANK_TOLERANCE, "q=" + q + " rank=" + rank);
+        }
+        assertEquals(values.length, sketch.getCount());
+        assertTrue(sketch.getRetainedItems() <= 3 * KllSketch.DEFAULT_K + 64,
+                "retained " + sketch.getRetainedItems());
+    }
+
+    @Test
+    void testMergedSketchMatchesSingleStream() {
+        Random rand = new Random(2);
+        KllSketch left = new KllSketch();
+        KllSketch right = new KllSketch();
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 100 * rand.nextGaussian();
+            (i % 2 == 0 ? left : right).update(values[i]);
+        }
+        Arrays.sort(values);
+
+        KllSketch merged = left.merge(right);
+        assertEquals(values.length, merged.getCount());
+        for (double q : new double[]{0.10, 0.50, 0.90}) {
+            double rank = rankOf(values, merged.quantile(q));
+            assertTrue(Math.abs(rank - q) <= RANK_TOLERANCE, "q=" + q + " rank=" + rank);
+        }
+    }
+
+    @Test
+    void testSmallStreamIsExact() {
+        KllSketch sketch = new KllSketch();
+        for (int i = 1; i <= 100; i++) sketch.update(i);
+
+        assertEquals(10, sketch.quantile(0.10), 1e-9);
+        assertEquals(90, sketch.quantile(0.90), 1e-9);
+        assertEquals(1, sketch.quantile(0), 1e-9);
+        assertEquals(100, sketch.quantile(1), 1e-9);
+        assertTrue(Double.isNaN(new KllSketch().quantile(0.5)));
+    }
+}
@@ -0,0 +1,72 @@
+import Exceptions.InvalidGradeException;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Speedup of ParallelStatisticsCalculator versus pool size.
+ * Usage: java ParallelStatisticsBenchmark [gradeCount] [studentCount]
+ */
+public class ParallelStatisticsBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 7;
+
+    public static void main(String[] args) throws InvalidGradeException {
+        int gradeCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int studentCount = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        Random rand = new Random(42);
+        Student[] students = new Student[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            students[i] = i % 4 == 0
+                    ? new HonorsStudent("Student" + i, 20, "s" + i + "@mail.com", "12345")
+                    : new RegularStudent("Student" + i, 20, "s" + i + "@mail.com", "12345");
+        }
+        Subject[] subjects = {
+                new CoreSubject("Mathematics", "MATH101"),
+                new CoreSubject("English", "ENG101"),
+                new CoreSubject("Science", "SCI101"),
+                new ElectiveSubject("Music", "MUS101"),
+                new ElectiveSubject("Art", "ART101"),
+                new ElectiveSubject("Physical Education", "PE101")
+        };
+
+        GradeLog log = new GradeLog();
+        for (int i = 0; i < gradeCount; i++) {
+            log.append(new Grade(students[rand.nextInt(studentCount)].getStudentId(),
+                    subjects[rand.nextInt(subjects.length)], rand.nextInt(1001) / 10.0));
+        }
+        GradeRecord[] grades = log.snapshot().toArray();
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Grades: %,d | Students: %,d | Cores: %d%n", gradeCount, studentCount, cores);
+
+        double sequential = medianMillis(new ParallelStatisticsCalculator(ForkJoinPool.commonPool(), Integer.MAX_VALUE),
+                grades, students);
+        System.out.printf("%-12s %10.1f ms%n", "sequential", sequential);
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            double ms = medianMillis(new ParallelStatisticsCalculator(pool, 0), grades, students);
+            pool.shutdown();
+            System.out.printf("%-12s %10.1f ms   speedup x%.2f%n", threads + " threads", ms, sequential / ms);
+            if (threads < cores && threads * 2 > cores) threads = cores / 2; // always finish on all cores
+        }
+    }
+
+    private static double medianMillis(ParallelStatisticsCalculator calculator, GradeRecord[] grades, Student[] students) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            calculator.compute(grades, students);
+        }
+        double[] runs = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            calculator.compute(grades, students);
+            runs[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(runs);
+        return runs[MEASURED_RUNS / 2];
+    }
+}
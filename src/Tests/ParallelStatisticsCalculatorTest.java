@@ -0,0 +1,116 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import Statistics.CachedClassStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelStatisticsCalculatorTest {
+
+    private Subject subject(int i) {
+        return i % 2 == 0
+                ? new CoreSubject("Core" + i, "C" + i)
+                : new ElectiveSubject("Elective" + i, "E" + i);
+    }
+
+    @Test
+    void testParallelMatchesSequential() throws InvalidGradeException {
+        Random rand = new Random(7);
+        Student[] students = new Student[20];
+        for (int i = 0; i < students.length; i++) {
+            students[i] = i % 3 == 0
+                    ? new HonorsStudent("Hon" + i, 20, "hon" + i + "@mail.com", "12345")
+                    : new RegularStudent("Reg" + i, 20, "reg" + i + "@mail.com", "12345");
+        }
+
+        GradeLog log = new GradeLog();
+        for (int i = 0; i < 50_000; i++) {
+            log.append(new Grade(students[rand.nextInt(students.length)].getStudentId(),
+                    subject(rand.nextInt(6)), rand.nextInt(1001) / 10.0));
+        }
+        GradeRecord[] grades = log.snapshot().toArray();
+
+        CachedClassStatistics sequential = new ParallelStatisticsCalculator(ForkJoinPool.commonPool(), Integer.MAX_VALUE)
+                .compute(grades, students);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        CachedClassStatistics parallel = new ParallelStatisticsCalculator(pool, 0).compute(grades, students);
+        pool.shutdown();
+
+        assertEquals(sequential.getTotalGrades(), parallel.getTotalGrades());
+        assertEquals(sequential.getTotalStudents(), parallel.getTotalStudents());
+        assertEquals(sequential.getGradeDistribution(), parallel.getGradeDistribution());
+        assertEquals(sequential.getMean(), parallel.getMean(), 1e-9);
+        assertEquals(sequential.getMedian(), parallel.getMedian(), 1e-9);
+        assertEquals(sequential.getMode(), parallel.getMode(), 1e-9);
+        assertEquals(sequential.getStdDev(), parallel.getStdDev(), 1e-9);
+        assertEquals(sequential.getHighestGrade(), parallel.getHighestGrade(), 1e-9);
+        assertEquals(sequential.getHighestSubject(), parallel.getHighestSubject());
+        assertEquals(sequential.getLowestSubject(), parallel.getLowestSubject());
+        sequential.getSubjectAverages().forEach((s, avg) ->
+                assertEquals(avg, parallel.getSubjectAverages().get(s), 1e-9));
+        assertEquals(sequential.getSubjectAverages().keySet(), parallel.getSubjectAverages().keySet());
+        assertEquals(sequential.getStudentTypeAverages().keySet(), parallel.getStudentTypeAverages().keySet());
+        sequential.getStudentTypeAverages().forEach((t, avg) ->
+                assertEquals(avg, parallel.getStudentTypeAverages().get(t), 1e-9));
+    }
+
+    @Test
+    void testTypeAveragesReportBothTypesLikeIncrementalEngine() throws InvalidGradeException {
+        AuditLogger auditLogger = new AuditLogger();
+        CacheManager<String, Object> cache = new CacheManager<>();
+        GradeManager gradeManager = new GradeManager(cache, auditLogger);
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        ClassStatisticsCalculator calculator =
+                new ClassStatisticsCalculator(gradeManager, studentManager, new CacheManager<>());
+
+        // No honors students: every path still reports Honors with an average of 0
+        Student alice = new RegularStudent("Alice", 20, "alice@mail.com", "12345");
+        studentManager.addStudent(alice);
+        studentManager.addStudent(new RegularStudent("Carol", 19, "carol@mail.com", "12345"));
+        gradeManager.addGrade(new Grade(alice.getStudentId(), subject(0), 80));
+
+        CachedClassStatistics incremental = calculator.calculateClassStatistics();
+        CachedClassStatistics parallel = calculator.computeStatistics(true);
+
+        assertEquals(incremental.getStudentTypeAverages().keySet(), parallel.getStudentTypeAverages().keySet());
+        assertEquals(40.0, parallel.getStudentTypeAverages().get("Regular"), 1e-9);
+        assertEquals(0.0, parallel.getStudentTypeAverages().get("Honors"), 1e-9);
+    }
+
+    @Test
+    void testParallelModeMatchesClassicRecompute() throws InvalidGradeException {
+        AuditLogger auditLogger = new AuditLogger();
+        CacheManager<String, Object> cache = new CacheManager<>();
+        GradeManager gradeManager = new GradeManager(cache, auditLogger);
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        ClassStatisticsCalculator calculator =
+                new ClassStatisticsCalculator(gradeManager, studentManager, new CacheManager<>());
+
+        Student alice = new RegularStudent("Alice", 20, "alice@mail.com", "12345");
+        Student bob = new HonorsStudent("Bob", 21, "bob@mail.com", "12345");
+        studentManager.addStudent(alice);
+        studentManager.addStudent(bob);
+        studentManager.addStudent(new RegularStudent("Carol", 19, "carol@mail.com", "12345"));
+
+        double[] scores = {55, 72.5, 88, 91, 64, 100, 38};
+        for (int i = 0; i < scores.length; i++) {
+            Student s = i % 2 == 0 ? alice : bob;
+            gradeManager.addGrade(new Grade(s.getStudentId(), subject(i % 3), scores[i]));
+        }
+
+        CachedClassStatistics classic = calculator.computeStatistics(false);
+        CachedClassStatistics parallel = calculator.computeStatistics(true);
+
+        assertEquals(classic.getTotalStudents(), parallel.getTotalStudents());
+        assertEquals(classic.getMedian(), parallel.getMedian(), 1e-9);
+        assertEquals(classic.getStdDev(), parallel.getStdDev(), 1e-9);
+        assertEquals(classic.getStudentTypeAverages().get("Regular"),
+                parallel.getStudentTypeAverages().get("Regular"), 1e-9);
+        assertEquals(classic.getStudentTypeAverages().get("Honors"),
+                parallel.getStudentTypeAverages().get("Honors"), 1e-9);
+    }
+}
@@ -0,0 +1,71 @@
+import Statistics.GradeBand;
+import Statistics.SlidingWindowStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowStatisticsTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private SlidingWindowStatistics window;
+
+    @BeforeEach
+    void setUp() {
+        window = new SlidingWindowStatistics(clock::get);
+    }
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(seconds * 1000);
+    }
+
+    @Test
+    void testRecentGradesCountedInAllWindows() {
+        window.record(95);
+        window.record(85);
+        window.record(40);
+
+        for (int minutes : SlidingWindowStatistics.WINDOW_MINUTES) {
+            SlidingWindowStatistics.WindowStats stats = window.window(minutes);
+            assertEquals(3, stats.getCount());
+            assertEquals(220.0 / 3, stats.getMean(), 1e-9);
+            assertEquals(1, stats.getDistribution().get(GradeBand.A));
+            assertEquals(1, stats.getDistribution().get(GradeBand.F));
+        }
+    }
+
+    @Test
+    void testOldGradesExpireFromShorterWindows() {
+        window.record(80);
+        advanceSeconds(120);
+        window.record(60);
+
+        assertEquals(1, window.window(1).getCount());
+        assertEquals(60, window.window(1).getMean(), 1e-9);
+        assertEquals(2, window.window(5).getCount());
+
+        advanceSeconds(300);
+        assertEquals(0, window.window(1).getCount());
+        assertEquals(0, window.window(5).getCount());
+        assertEquals(2, window.window(15).getCount());
+
+        advanceSeconds(15 * 60);
+        assertEquals(0, window.window(15).getCount());
+    }
+
+    @Test
+    void testRatePerSecond() {
+        for (int i = 0; i < 60; i++) {
+            window.record(70);
+            window.record(70);
+            advanceSeconds(1);
+        }
+        assertEquals(2.0, window.window(1).getGradesPerSecond(), 0.05);
+    }
+
+    @Test
+    void testUnsupportedWindowRejected() {
+        assertThrows(IllegalArgumentException.class, () -> window.window(2));
+    }
+}
@@ -0,0 +1,77 @@
+import Audit.AuditLogger;
+import Audit.OperationType;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sequential vs parallel-stream vs fork-join timings for every StudentAnalytics operation.
+ * Usage: java StudentAnalyticsBenchmark [maxStudents] [gradesPerStudent]
+ * Datasets grow by 10x from 1,000 students up to maxStudents (default 1,000,000).
+ */
+public class StudentAnalyticsBenchmark {
+
+    private static final Subject[] SUBJECTS = {
+            new CoreSubject("Mathematics", "MATH101"),
+            new CoreSubject("English", "ENG101"),
+            new CoreSubject("Science", "SCI101"),
+            new ElectiveSubject("Music", "MUS101"),
+            new ElectiveSubject("Art", "ART101"),
+            new ElectiveSubject("Physical Education", "PE101")
+    };
+
+    public static void main(String[] args) throws InvalidGradeException {
+        int maxStudents = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int gradesPerStudent = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        PrintStream console = System.out;
+        console.printf("Cores: %d | Grades per student: %d%n",
+                Runtime.getRuntime().availableProcessors(), gradesPerStudent);
+
+        for (int size = 1_000; size <= maxStudents; size *= 10) {
+            // Managers print on every insert and cache eviction; keep that out of the timings
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            List<AnalyticsBenchmark.Result> results;
+            try {
+                StudentAnalytics analytics = generate(size, gradesPerStudent);
+                // Fewer runs for the large datasets keep the whole sweep in minutes
+                int runs = Math.max(5, Math.min(30, 3_000_000 / (size * gradesPerStudent)));
+                results = new AnalyticsBenchmark(analytics, Math.max(2, runs / 4), runs).measureAll();
+            } finally {
+                System.setOut(console);
+            }
+
+            console.printf("%n=== %,d students / %,d grades ===%n", size, size * gradesPerStudent);
+            AnalyticsBenchmark.printResults(results);
+        }
+    }
+
+    private static StudentAnalytics generate(int studentCount, int gradesPerStudent) throws InvalidGradeException {
+        AuditLogger quietLogger = new AuditLogger() {
+            @Override
+            public void log(OperationType operationType, String userAction, long executionTimeMs, boolean success) {
+            }
+        };
+        CacheManager<String, Object> cache = new CacheManager<>();
+        StudentManager studentManager = new StudentManager(cache, quietLogger);
+        GradeManager gradeManager = new GradeManager(cache, quietLogger);
+        Student.setGradeManager(gradeManager);
+
+        Random rand = new Random(42);
+        for (int i = 0; i < studentCount; i++) {
+            Student s = i % 4 == 0
+                    ? new HonorsStudent("Student" + i, 20, "s" + i + "@mail.com", "12345")
+                    : new RegularStudent("Student" + i, 20, "s" + i + "@mail.com", "12345");
+            studentManager.addStudent(s);
+            for (int g = 0; g < gradesPerStudent; g++) {
+                gradeManager.addGrade(new Grade(s.getStudentId(),
+                        SUBJECTS[rand.nextInt(SUBJECTS.length)], 40 + rand.nextInt(601) / 10.0));
+            }
+        }
+        return new StudentAnalytics(studentManager, gradeManager, new GpaCalculator(gradeManager));
+    }
+}
@@ -0,0 +1,68 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopNStudentsTest {
+    private final AuditLogger auditLogger = new AuditLogger();
+    private StudentManager studentManager;
+    private GradeManager gradeManager;
+    private StudentAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager<String, Object> cache = new CacheManager<>();
+        studentManager = new StudentManager(cache, auditLogger);
+        gradeManager = new GradeManager(cache, auditLogger);
+        analytics = new StudentAnalytics(studentManager, gradeManager, new GpaCalculator(gradeManager));
+    }
+
+    private Student addStudent(String name, double... scores) throws InvalidGradeException {
+        Student s = new RegularStudent(name, 20, name.toLowerCase() + "@mail.com", "12345");
+        studentManager.addStudent(s);
+        for (double score : scores) {
+            gradeManager.addGrade(new Grade(s.getStudentId(), new CoreSubject("Math", "MATH101"), score));
+        }
+        return s;
+    }
+
+    @Test
+    void testOrderedByGpaWithUngradedLast() throws InvalidGradeException {
+        Student none = addStudent("None");
+        Student low = addStudent("Low", 55);
+        Student high = addStudent("High", 95, 91);
+        Student mid = addStudent("Mid", 82);
+
+        assertEquals(List.of(high, mid), analytics.topNStudents(2));
+        assertEquals(List.of(high, mid, low, none), analytics.topNStudents(10));
+        assertTrue(analytics.topNStudents(0).isEmpty());
+    }
+
+    @Test
+    void testTiesKeepRosterOrder() throws InvalidGradeException {
+        Student first = addStudent("First", 90);
+        Student second = addStudent("Second", 90);
+        Student third = addStudent("Third", 90);
+
+        assertEquals(List.of(first, second), analytics.topNStudents(2));
+        assertEquals(List.of(first, second, third), analytics.topNStudents(3, true));
+    }
+
+    @Test
+    void testParallelMatchesSequential() throws InvalidGradeException {
+        Random rand = new Random(5);
+        for (int i = 0; i < 6_000; i++) {
+            if (i % 10 == 0) addStudent("S" + i);
+            else addStudent("S" + i, rand.nextInt(101), rand.nextInt(101));
+        }
+
+        assertEquals(analytics.topNStudents(25, false), analytics.topNStudents(25, true));
+        assertEquals(analytics.topNStudents(5_990, false), analytics.topNStudents(5_990, true));
+    }
+}
@@ -0,0 +1,99 @@
+import Audit.AuditLogger;
+import Caching.CacheManager;
+import Exceptions.InvalidGradeException;
+import Statistics.TrendTracker;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendTrackerTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    void testSlopeMatchesLeastSquares() {
+        TrendTracker tracker = new TrendTracker();
+        // y = 90 - 3x over days 0..4
+        for (int day = 0; day < 5; day++) {
+            tracker.record("S1", day * DAY, 90 - 3 * day);
+        }
+        TrendTracker.Trend trend = tracker.getTrend("S1");
+        assertEquals(5, trend.getGradeCount());
+        assertEquals(-3.0, trend.getSlopePerDay(), 1e-9);
+        assertEquals(Set.of("S1"), tracker.atRiskStudents());
+    }
+
+    @Test
+    void testGradesWithinOneSessionHaveNoSlope() {
+        TrendTracker tracker = new TrendTracker();
+        tracker.registerStudent("S1", 50);
+        tracker.record("S1", 0, 95);
+        tracker.record("S1", 1_000, 80);
+        tracker.record("S1", 2_000, 70);
+
+        assertEquals(0.0, tracker.getTrend("S1").getSlopePerDay());
+        assertTrue(tracker.atRiskStudents().isEmpty());
+    }
+
+    @Test
+    void testMovingAverageBelowPassingGradeAndRecovery() {
+        TrendTracker tracker = new TrendTracker();
+        tracker.registerStudent("S1", 60);
+        tracker.record("S1", 0, 70);
+        tracker.record("S1", DAY / 2, 30);
+
+        // 0.3 * 30 + 0.7 * 70
+        assertEquals(58.0, tracker.getTrend("S1").getMovingAverage(), 1e-9);
+        assertEquals(Set.of("S1"), tracker.atRiskStudents());
+
+        tracker.update("S1", DAY / 2, 30, 80);
+        assertEquals(73.0, tracker.getTrend("S1").getMovingAverage(), 1e-9);
+        assertTrue(tracker.atRiskStudents().isEmpty());
+    }
+
+    @Test
+    void testAnalyticsFlagsFailingStudents() throws InvalidGradeException {
+        AuditLogger auditLogger = new AuditLogger();
+        CacheManager<String, Object> cache = new CacheManager<>();
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        GradeManager gradeManager = new GradeManager(cache, auditLogger);
+        Subject math = new CoreSubject("Mathematics", "MATH101");
+
+        Student early = new HonorsStudent("Early", 20, "early@mail.com", "12345");
+        studentManager.addStudent(early);
+        gradeManager.addGrade(new Grade(early.getStudentId(), math, 55));
+
+        // Created after the first grade: must seed from existing data
+        StudentAnalytics analytics = new StudentAnalytics(studentManager, gradeManager, new GpaCalculator(gradeManager));
+
+        Student fine = new RegularStudent("Fine", 20, "fine@mail.com", "12345");
+        studentManager.addStudent(fine);
+        gradeManager.addGrade(new Grade(fine.getStudentId(), math, 55));
+
+        assertEquals(List.of(early), analytics.findAtRiskStudents());
+        assertNotNull(analytics.gradeTrend(fine.getStudentId()));
+        assertNull(analytics.gradeTrend("STU-missing"));
+    }
+
+    @Test
+    void testClosedAnalyticsStopFollowingWrites() throws InvalidGradeException {
+        AuditLogger auditLogger = new AuditLogger();
+        CacheManager<String, Object> cache = new CacheManager<>();
+        StudentManager studentManager = new StudentManager(cache, auditLogger);
+        GradeManager gradeManager = new GradeManager(cache, auditLogger);
+        Subject math = new CoreSubject("Mathematics", "MATH101");
+
+        StudentAnalytics analytics = new StudentAnalytics(studentManager, gradeManager, new GpaCalculator(gradeManager));
+        analytics.close();
+
+        Student late = new HonorsStudent("Late", 20, "late@mail.com", "12345");
+        studentManager.addStudent(late);
+        gradeManager.addGrade(new Grade(late.getStudentId(), math, 40));
+
+        assertNull(analytics.gradeTrend(late.getStudentId()));
+        assertTrue(analytics.findAtRiskStudents().isEmpty());
+    }
+}